@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# End-to-end load test on one box: seeds synthetic users, Strava connections, challenges and
+# months of activities into the local Postgres, starts a Strava stub and the application
+# (prod profile, Dockerfile JVM flags) pointed at it, drives a request mix and prints
+# throughput, latency percentiles and connection pool saturation.
+#
+#   scripts/load-test.sh [driver options, e.g. users=100 duration=120 think-ms=500]
+#
+# SEED_OPTS sizes the data (e.g. "users=2000 months=6"); SKIP_SEED=1 reuses the last seed.
+# STUB_OPTS tunes the stub (e.g. "strava-latency-ms=300"). Options of each step are listed
+# in src/loadtest/java/com/achiever/loadtest. Needs only the database from application.yml
+# (or DB_* env vars); no network access. "LoadTest cleanup" removes the seeded data.
+set -euo pipefail
+
+PORT=${PORT:-8080}
+STUB_PORT=${STUB_PORT:-8099}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+MVN=${MVN:-$([ -x ./mvnw ] && echo ./mvnw || echo mvn)}
+export JWT_SECRET=${JWT_SECRET:-load-test-secret-key-that-is-long-enough-for-hs384}
+export METRICS_SCRAPE_TOKEN=${METRICS_SCRAPE_TOKEN:-load-test-scrape-token}
+export STRAVA_CLIENT_ID=${STRAVA_CLIENT_ID:-loadtest}
+export STRAVA_CLIENT_SECRET=${STRAVA_CLIENT_SECRET:-loadtest}
+export DB_HOST=${DB_HOST:-localhost}
+export DB_NAME=${DB_NAME:-achiever}
+export DB_USERNAME=${DB_USERNAME:-postgres}
+export DB_PASSWORD=${DB_PASSWORD:-postgres}
+WORK=$(mktemp -d)
+APP_PID=
+STUB_PID=
+
+stop() {
+    for pid in $APP_PID $STUB_PID; do
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+    done
+    [ -f "$WORK/stub.log" ] && tail -1 "$WORK/stub.log"
+    rm -rf "$WORK"
+}
+trap stop EXIT
+
+echo "Building the application and the harness..."
+"$MVN" -q -B -Ploadtest package -DskipTests
+"$MVN" -q -B -Ploadtest dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile="$WORK/classpath"
+JAR=$(ls target/achiever-backend-*.jar | grep -v original | head -1)
+HARNESS=("$JAVA" -cp "target/test-classes:target/classes:$(cat "$WORK/classpath")" com.achiever.loadtest.LoadTest)
+
+if [ -z "${SKIP_SEED:-}" ]; then
+    # shellcheck disable=SC2086
+    "${HARNESS[@]}" seed ${SEED_OPTS:-}
+fi
+
+# shellcheck disable=SC2086
+"${HARNESS[@]}" stub stub.port="$STUB_PORT" ${STUB_OPTS:-} >"$WORK/stub.log" 2>&1 &
+STUB_PID=$!
+
+"$JAVA" -Xmx384m -Xms128m -XX:+UseSerialGC -jar "$JAR" \
+    --spring.profiles.active=prod --server.port="$PORT" --server.address=127.0.0.1 \
+    --app.strava.api-base-url="http://localhost:$STUB_PORT/api/v3" \
+    --spring.security.oauth2.client.provider.strava.token-uri="http://localhost:$STUB_PORT/oauth/token" \
+    >"$WORK/app.log" 2>&1 &
+APP_PID=$!
+
+echo "Waiting for the application on port $PORT..."
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "localhost:$PORT/api/health")" = 200 ]; do
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+        echo "application exited, see log:" >&2
+        tail -20 "$WORK/app.log" >&2
+        exit 1
+    fi
+    sleep 0.5
+done
+
+"${HARNESS[@]}" run base-url="http://localhost:$PORT" "$@"
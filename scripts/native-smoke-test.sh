@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Boots the native executable against a local Postgres, exercises auth, challenge creation
+# and progress, and reports startup time and memory.
+#
+#   ./mvnw -Pnative native:compile -DskipTests
+#   SMOKE_EMAIL=you@example.com SMOKE_PASSWORD=... scripts/native-smoke-test.sh
+#
+# Any other command can be passed instead, e.g. to compare with the JVM:
+#   scripts/native-smoke-test.sh java -Xmx384m -XX:+UseSerialGC -jar target/achiever-backend-0.0.1-SNAPSHOT.jar
+#
+# The account must have a password set. Needs the database from application.yml (or DB_* /
+# SPRING_* env vars) and the usual STRAVA_CLIENT_ID / STRAVA_CLIENT_SECRET.
+set -euo pipefail
+
+: "${SMOKE_EMAIL:?set SMOKE_EMAIL to an account with a password}"
+: "${SMOKE_PASSWORD:?set SMOKE_PASSWORD}"
+PORT=${PORT:-8080}
+BASE="http://localhost:$PORT"
+LOG=$(mktemp)
+[ $# -gt 0 ] || set -- target/achiever-backend
+
+now_ms() { date +%s%3N; }
+memory() { awk '/VmRSS|VmHWM/ { printf "%s %d MB  ", $1, $2 / 1024 }' "/proc/$PID/status"; echo; }
+fail() {
+    echo "FAIL: $*" >&2
+    tail -20 "$LOG" >&2
+    exit 1
+}
+
+# request METHOD PATH [BODY]: prints the body, fails on a non-2xx status
+request() {
+    local out status
+    out=$(curl -s -w '\n%{http_code}' -X "$1" "$BASE$2" -H 'Content-Type: application/json' \
+        ${TOKEN:+-H "Authorization: Bearer $TOKEN"} ${3:+-d "$3"})
+    status=${out##*$'\n'}
+    [[ $status == 2* ]] || fail "$1 $2 returned $status: ${out%$'\n'*}"
+    echo "${out%$'\n'*}"
+}
+
+# First string field of that name, i.e. the top-level one for the bodies used here
+json_field() { grep -o "\"$1\":\"[^\"]*\"" | head -1 | cut -d'"' -f4; }
+
+START=$(now_ms)
+"$@" --server.port="$PORT" >"$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null; rm -f "$LOG"' EXIT
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/api/health")" = 200 ]; do
+    kill -0 "$PID" 2>/dev/null || fail "application exited"
+    sleep 0.05
+done
+echo "first 200 after $(($(now_ms) - START)) ms"
+echo -n "after start:    "; memory
+
+TOKEN=$(request POST /api/auth/login "{\"email\":\"$SMOKE_EMAIL\",\"password\":\"$SMOKE_PASSWORD\"}" | json_field token)
+[ -n "$TOKEN" ] || fail "login returned no token"
+request GET /api/auth/me >/dev/null
+echo "auth            ok"
+
+TODAY=$(date +%F)
+CHALLENGE=$(request POST /api/challenges \
+    "{\"name\":\"Smoke test\",\"goals\":{\"RUN\":10},\"startAt\":\"$TODAY\",\"endAt\":\"$(date -d '+6 days' +%F)\"}" \
+    | json_field id)
+[ -n "$CHALLENGE" ] || fail "challenge creation returned no id"
+echo "create          ok ($CHALLENGE)"
+
+request GET "/api/challenges/$CHALLENGE/progress" >/dev/null
+request GET /api/challenges/my >/dev/null
+echo "progress        ok"
+request DELETE "/api/challenges/$CHALLENGE" >/dev/null
+
+echo -n "after requests: "; memory
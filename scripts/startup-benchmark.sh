@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first 200 on /api/health, plain fat jar vs AOT + CDS.
+#
+#   ./mvnw -Pfast-start package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# Needs the database from application.yml (or DB_* / SPRING_* env vars) and the usual
+# STRAVA_CLIENT_ID / STRAVA_CLIENT_SECRET. Uses the JVM flags from the Dockerfile.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=$(ls target/achiever-backend-*.jar | grep -v original | head -1)
+JVM_OPTS=(-Xmx384m -Xms128m -XX:+UseSerialGC)
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+now_ms() { date +%s%3N; }
+
+# Launch "$@" and print milliseconds until /api/health answers 200
+time_to_first_200() {
+    local start pid
+    start=$(now_ms)
+    "$@" --server.port="$PORT" >"$WORK/app.log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "localhost:$PORT/api/health")" = 200 ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited, see log:" >&2
+            tail -20 "$WORK/app.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    echo $(($(now_ms) - start))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+report() {
+    local name=$1
+    shift
+    local times=()
+    for _ in $(seq "$RUNS"); do
+        times+=("$(time_to_first_200 "$@")")
+    done
+    printf '%s\n' "${times[@]}" | sort -n | awk -v name="$name" '
+        { t[NR] = $1 }
+        END { printf "%-10s min %6d ms  median %6d ms  max %6d ms  (%d runs)\n", name, t[1], t[int((NR + 1) / 2)], t[NR], NR }'
+}
+
+echo "Extracting $JAR and recording the CDS archive..."
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$WORK/application" >/dev/null
+APP_JAR="$WORK/application/$(basename "$JAR")"
+"$JAVA" "${JVM_OPTS[@]}" -XX:ArchiveClassesAtExit="$WORK/application/app.jsa" \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -Dspring.profiles.active=training \
+    -jar "$APP_JAR" >"$WORK/training.log" 2>&1
+
+report "fat jar" "$JAVA" "${JVM_OPTS[@]}" -jar "$JAR"
+report "aot+cds" "$JAVA" "${JVM_OPTS[@]}" -XX:SharedArchiveFile="$WORK/application/app.jsa" \
+    -Dspring.aot.enabled=true -jar "$APP_JAR"
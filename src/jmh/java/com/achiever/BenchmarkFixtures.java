@@ -0,0 +1,76 @@
+package com.achiever;
+
+import com.achiever.entity.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detached entities shaped like a loaded challenge, for benchmarks of the mapping code
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * An active run+ride challenge; every participant has goals for both sports
+     */
+    public static Challenge challenge(int participants) {
+        User creator = user(0);
+        Challenge challenge = Challenge.builder()
+                .id(UUID.randomUUID())
+                .createdBy(creator)
+                .name("Benchmark challenge")
+                .inviteCode("BENCH123")
+                .sportTypes("RIDE,RUN")
+                .startAt(LocalDate.of(2026, 1, 5))
+                .endAt(LocalDate.of(2026, 1, 11))
+                .status(ChallengeStatus.ACTIVE)
+                .createdAt(Instant.parse("2026-01-04T12:00:00Z"))
+                .build();
+        for (int i = 0; i < participants; i++) {
+            challenge.getParticipants().add(ChallengeParticipant.builder()
+                    .id(UUID.randomUUID())
+                    .challenge(challenge)
+                    .user(i == 0 ? creator : user(i))
+                    .goalRunKm(new BigDecimal("20.00"))
+                    .goalRideKm(new BigDecimal("100.00"))
+                    .build());
+        }
+        return challenge;
+    }
+
+    /**
+     * The latest progress row per participant, in participant order
+     */
+    public static List<DailyProgress> progress(Challenge challenge) {
+        List<DailyProgress> progress = new ArrayList<>();
+        int i = 0;
+        for (ChallengeParticipant participant : challenge.getParticipants()) {
+            DailyProgress row = DailyProgress.builder()
+                    .challenge(challenge)
+                    .user(participant.getUser())
+                    .date(challenge.getEndAt())
+                    .build();
+            row.setDistanceMeters(SportType.RUN, 4_000 * (i % 6));
+            row.setDistanceMeters(SportType.RIDE, 25_000 * (i % 5));
+            progress.add(row);
+            i++;
+        }
+        return progress;
+    }
+
+    private static User user(int n) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("runner" + n)
+                .email("runner" + n + "@example.com")
+                .timezone("Europe/Berlin")
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.achiever.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in JwtAuthFilter.
+ * {@code validateThenParse} is the previous path: two parses, each with a new parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs384";
+
+    private SecretKey key;
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncached = new JwtUtils(SECRET, 3_600_000, 0);
+        cached = new JwtUtils(SECRET, 3_600_000, 10_000);
+        token = cached.generateToken(UUID.randomUUID(), "runner@example.com");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public UUID validateThenParse() {
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        return UUID.fromString(Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Benchmark
+    public Optional<UUID> verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Optional<UUID> verifyCached() {
+        return cached.verify(token);
+    }
+}
@@ -0,0 +1,66 @@
+package com.achiever.dto;
+
+import com.achiever.BenchmarkFixtures;
+import com.achiever.entity.Challenge;
+import com.achiever.entity.ChallengeParticipant;
+import com.achiever.entity.DailyProgress;
+import com.achiever.entity.SportType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the progress response body, the most polled payload
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChallengeProgressDTOBenchmark {
+
+    @Param({"2", "10"})
+    private int participants;
+
+    private ObjectMapper objectMapper;
+    private ChallengeProgressDTO dto;
+
+    @Setup
+    public void setUp() {
+        // Same modules and date format as the Boot-configured mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Challenge challenge = BenchmarkFixtures.challenge(participants);
+        List<DailyProgress> progress = BenchmarkFixtures.progress(challenge);
+
+        List<ParticipantProgressDTO> rows = new ArrayList<>();
+        int i = 0;
+        for (ChallengeParticipant participant : challenge.getParticipants()) {
+            DailyProgress row = progress.get(i++);
+            Map<SportType, Integer> distances = new EnumMap<>(SportType.class);
+            Map<SportType, Integer> percents = new EnumMap<>(SportType.class);
+            for (Map.Entry<SportType, BigDecimal> goal : participant.getGoals().entrySet()) {
+                int meters = row.getDistanceMeters(goal.getKey());
+                distances.put(goal.getKey(), meters);
+                percents.put(goal.getKey(), Math.min(100, meters / goal.getValue().intValue() / 10));
+            }
+            rows.add(new ParticipantProgressDTO(participant.getUser().getId(), participant.getUser().getUsername(),
+                    participant.getGoals(), distances, percents, 50));
+        }
+        dto = new ChallengeProgressDTO(challenge.getId(), challenge.getStatus(), challenge.getSportTypeSet(),
+                challenge.getStartAt(), challenge.getEndAt(), 86_400, rows);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+}
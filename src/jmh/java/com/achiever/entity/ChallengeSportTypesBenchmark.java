@@ -0,0 +1,42 @@
+package com.achiever.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting the comma-separated sport_types column, done for every challenge response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChallengeSportTypesBenchmark {
+
+    @Param({"RUN", "RIDE,RUN,SWIM,WALK"})
+    private String sportTypes;
+
+    private Challenge challenge;
+    private Set<SportType> sportTypeSet;
+
+    @Setup
+    public void setUp() {
+        challenge = Challenge.builder().sportTypes(sportTypes).build();
+        sportTypeSet = EnumSet.copyOf(challenge.getSportTypeSet());
+    }
+
+    @Benchmark
+    public Set<SportType> getSportTypeSet() {
+        return challenge.getSportTypeSet();
+    }
+
+    @Benchmark
+    public String setSportTypeSet() {
+        challenge.setSportTypeSet(sportTypeSet);
+        return challenge.getSportTypes();
+    }
+}
@@ -0,0 +1,56 @@
+package com.achiever.service;
+
+import com.achiever.BenchmarkFixtures;
+import com.achiever.dto.ChallengeDTO;
+import com.achiever.dto.ParticipantProgressDTO;
+import com.achiever.entity.Challenge;
+import com.achiever.entity.ChallengeParticipant;
+import com.achiever.entity.DailyProgress;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the challenge responses from loaded entities: {@code mapToDTO} for the
+ * challenge endpoints and the per-participant percentages of the progress endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChallengeServiceBenchmark {
+
+    @Param({"2", "10"})
+    private int participants;
+
+    private ChallengeService challengeService;
+    private Challenge challenge;
+    private List<DailyProgress> progress;
+
+    @Setup
+    public void setUp() {
+        // mapToDTO uses none of the collaborators
+        challengeService = new ChallengeService(null, null, null, null, null, null, null);
+        challenge = BenchmarkFixtures.challenge(participants);
+        progress = BenchmarkFixtures.progress(challenge);
+    }
+
+    @Benchmark
+    public ChallengeDTO mapToDTO() {
+        return challengeService.mapToDTO(challenge);
+    }
+
+    @Benchmark
+    public List<ParticipantProgressDTO> participantProgress() {
+        List<ParticipantProgressDTO> result = new ArrayList<>(participants);
+        int i = 0;
+        for (ChallengeParticipant participant : challenge.getParticipants()) {
+            result.add(ChallengeService.participantProgress(participant, progress.get(i++)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.achiever.strava;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalising Strava sport types, once per synced activity
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StravaSyncServiceBenchmark {
+
+    // A typical page mix, including an unmapped type
+    private final String[] sportTypes = {
+            "Run", "Ride", "TrailRun", "Walk", "VirtualRide", "Swim", "Hike", "WeightTraining"
+    };
+
+    /**
+     * One call per element of {@link #sportTypes}
+     */
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void mapSportType(Blackhole blackhole) {
+        for (String sportType : sportTypes) {
+            blackhole.consume(StravaSyncService.mapSportType(sportType));
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.achiever.loadtest;
+
+import com.achiever.config.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-model load: each virtual user is a seeded user with active challenges that runs
+ * a weighted mix of scenarios with exponential think time between them, then reports
+ * throughput and latency per request and the pool metrics from {@link PoolSampler}.
+ * Requests are only recorded after the ramp-up.
+ * <p>
+ * Scenarios: dashboard (me + active challenges), progress (one challenge's progress),
+ * notifications (unread count, every fifth time also the list), join (an open seeded
+ * challenge) and forfeit (leave a challenge joined earlier, else join).
+ * <p>
+ * Options: base-url (http://localhost:8080), users (50), duration (60 s), ramp-up (10 s),
+ * think-ms (1000), timeout (10 s), mix (dashboard=30,progress=35,notifications=25,join=5,forfeit=5),
+ * jwt-secret (JWT_SECRET), scrape-token (METRICS_SCRAPE_TOKEN), sample-ms (1000), db.*.
+ */
+final class Driver {
+
+    private static final String DEFAULT_JWT_SECRET = "your-256-bit-secret-key-change-in-production-please";
+    private static final Set<String> SCENARIOS = Set.of("dashboard", "progress", "notifications", "join", "forfeit");
+
+    private final Options options;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final int thinkMs;
+    private final Map<String, Integer> mix;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RequestStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> scenarios = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<OpenChallenge> openChallenges = new ConcurrentLinkedQueue<>();
+    private volatile long measureFromNanos;
+
+    private record SeededUser(UUID id, String email, List<UUID> activeChallenges) {
+    }
+
+    private record OpenChallenge(String inviteCode, UUID creatorId) {
+    }
+
+    /**
+     * Outcome counts and latency of one request type
+     */
+    private static final class RequestStats {
+        private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+
+    /**
+     * State of one virtual user between scenarios
+     */
+    private final class VirtualUser {
+        private final SeededUser user;
+        private final String authorization;
+        private final List<UUID> joined = new ArrayList<>();
+        private int notificationPolls;
+
+        private VirtualUser(SeededUser user, JwtUtils jwtUtils) {
+            this.user = user;
+            this.authorization = "Bearer " + jwtUtils.generateToken(user.id(), user.email());
+        }
+    }
+
+    Driver(Options options) {
+        this.options = options;
+        this.baseUrl = options.string("base-url", "http://localhost:8080");
+        this.timeout = options.duration("timeout", Duration.ofSeconds(10));
+        this.thinkMs = options.integer("think-ms", 1000);
+        this.mix = parseMix(options.string("mix", "dashboard=30,progress=35,notifications=25,join=5,forfeit=5"));
+    }
+
+    void run() throws Exception {
+        int users = options.integer("users", 50);
+        Duration duration = options.duration("duration", Duration.ofSeconds(60));
+        Duration rampUp = options.duration("ramp-up", Duration.ofSeconds(10));
+
+        List<SeededUser> seeded = loadSeed();
+        if (seeded.isEmpty()) {
+            throw new IllegalStateException("No seeded users with active challenges; run the seed command first");
+        }
+        JwtUtils jwtUtils = new JwtUtils(options.string("jwt-secret", Options.env("JWT_SECRET", DEFAULT_JWT_SECRET)),
+                duration.plus(rampUp).plusHours(1).toMillis(), 0);
+        System.out.printf("Driving %d virtual users (%d seeded users, %d open challenges) against %s: "
+                        + "%d s ramp-up, %d s measured, think time %d ms%n",
+                users, seeded.size(), openChallenges.size(), baseUrl, rampUp.toSeconds(), duration.toSeconds(), thinkMs);
+
+        PoolSampler sampler = new PoolSampler(client, baseUrl,
+                options.string("scrape-token", Options.env("METRICS_SCRAPE_TOKEN", "")),
+                Duration.ofMillis(options.integer("sample-ms", 1000)));
+
+        long start = System.nanoTime();
+        measureFromNanos = start + rampUp.toNanos();
+        long endNanos = measureFromNanos + duration.toNanos();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            VirtualUser vu = new VirtualUser(seeded.get(i % seeded.size()), jwtUtils);
+            long delayNanos = rampUp.toNanos() * i / users;
+            threads.add(Thread.ofVirtual().name("vu-" + i).start(() -> runUser(vu, start + delayNanos, endNanos)));
+        }
+
+        Thread.sleep(rampUp);
+        sampler.start();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sampler.stop();
+
+        report(System.out, duration);
+        sampler.report(System.out);
+    }
+
+    private void runUser(VirtualUser vu, long startNanos, long endNanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, startNanos - System.nanoTime()));
+            while (System.nanoTime() < endNanos) {
+                String scenario = pickScenario();
+                switch (scenario) {
+                    case "dashboard" -> dashboard(vu);
+                    case "progress" -> progress(vu);
+                    case "notifications" -> notifications(vu);
+                    case "join" -> join(vu);
+                    default -> forfeit(vu);
+                }
+                long think = (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * thinkMs);
+                long remaining = TimeUnit.NANOSECONDS.toMillis(endNanos - System.nanoTime());
+                Thread.sleep(Math.max(0, Math.min(Math.min(think, 5L * thinkMs), remaining)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dashboard(VirtualUser vu) throws InterruptedException {
+        count("dashboard");
+        send(vu, "GET", "/api/auth/me", "GET /api/auth/me", null);
+        send(vu, "GET", "/api/challenges/my/active", "GET /api/challenges/my/active", null);
+    }
+
+    private void progress(VirtualUser vu) throws InterruptedException {
+        count("progress");
+        List<UUID> challenges = vu.user.activeChallenges();
+        UUID challengeId = challenges.get(ThreadLocalRandom.current().nextInt(challenges.size()));
+        send(vu, "GET", "/api/challenges/" + challengeId + "/progress", "GET /api/challenges/{id}/progress", null);
+    }
+
+    private void notifications(VirtualUser vu) throws InterruptedException {
+        count("notifications");
+        send(vu, "GET", "/api/notifications/unread-count", "GET /api/notifications/unread-count", null);
+        if (++vu.notificationPolls % 5 == 0) {
+            send(vu, "GET", "/api/notifications", "GET /api/notifications", null);
+        }
+    }
+
+    private void join(VirtualUser vu) throws InterruptedException {
+        OpenChallenge open = openChallenges.poll();
+        if (open != null && open.creatorId().equals(vu.user.id())) {
+            // Cannot join your own challenge; leave it for someone else
+            openChallenges.add(open);
+            open = openChallenges.poll();
+        }
+        if (open == null || open.creatorId().equals(vu.user.id())) {
+            if (open != null) {
+                openChallenges.add(open);
+            }
+            count("join skipped (no open challenge)");
+            return;
+        }
+        count("join");
+        send(vu, "GET", "/api/challenges/invite/" + open.inviteCode(), "GET /api/challenges/invite/{code}", null);
+        String body = send(vu, "POST", "/api/challenges/invite/" + open.inviteCode() + "/join",
+                "POST /api/challenges/invite/{code}/join", "{\"goals\":{\"RUN\":30}}");
+        if (body != null) {
+            try {
+                vu.joined.add(UUID.fromString(objectMapper.readTree(body).path("id").asText()));
+            } catch (Exception e) {
+                // Not a challenge body; nothing to forfeit later
+            }
+        }
+    }
+
+    private void forfeit(VirtualUser vu) throws InterruptedException {
+        if (vu.joined.isEmpty()) {
+            join(vu);
+            return;
+        }
+        count("forfeit");
+        UUID challengeId = vu.joined.removeLast();
+        send(vu, "POST", "/api/challenges/" + challengeId + "/leave", "POST /api/challenges/{id}/leave", null);
+    }
+
+    /**
+     * @return the body of a 2xx response, otherwise null
+     */
+    private String send(VirtualUser vu, String method, String path, String name, String json)
+            throws InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", vu.authorization);
+        if (json != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long start = System.nanoTime();
+        int status = -1;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // Timeout or connection failure, counted below
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        if (start >= measureFromNanos) {
+            RequestStats requestStats = stats.computeIfAbsent(name, n -> new RequestStats());
+            requestStats.latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos),
+                    requestStats.latencyMicros.getHighestTrackableValue()));
+            if (status < 0) {
+                requestStats.failed.increment();
+            } else if (status == 503) {
+                requestStats.shed.increment();
+            } else if (status >= 500) {
+                requestStats.serverErrors.increment();
+            } else if (status >= 400) {
+                requestStats.clientErrors.increment();
+            }
+        }
+        return status >= 200 && status < 300 ? body : null;
+    }
+
+    private void count(String scenario) {
+        if (System.nanoTime() >= measureFromNanos) {
+            scenarios.computeIfAbsent(scenario, s -> new LongAdder()).increment();
+        }
+    }
+
+    private String pickScenario() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private void report(PrintStream out, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        out.println();
+        out.printf("%-40s %8s %8s %8s %8s %8s %8s %6s %6s %6s %6s%n", "Request", "count", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "max ms", "4xx", "5xx", "503", "failed");
+        Histogram all = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+        long errors = 0;
+        for (String name : stats.keySet().stream().sorted().toList()) {
+            RequestStats s = stats.get(name);
+            Histogram latency = s.latencyMicros.copy();
+            all.add(latency);
+            errors += s.clientErrors.sum() + s.serverErrors.sum() + s.shed.sum() + s.failed.sum();
+            printRow(out, name, latency, seconds, s.clientErrors.sum(), s.serverErrors.sum(), s.shed.sum(), s.failed.sum());
+        }
+        printRow(out, "All requests", all, seconds, -1, -1, -1, -1);
+        out.printf("Throughput %.1f req/s, %.2f%% not 2xx%n", all.getTotalCount() / seconds,
+                all.getTotalCount() > 0 ? 100.0 * errors / all.getTotalCount() : 0.0);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        scenarios.keySet().stream().sorted().forEach(s -> counts.put(s, scenarios.get(s).sum()));
+        out.println("Scenarios " + counts);
+        out.println();
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latency, double seconds,
+                                 long clientErrors, long serverErrors, long shed, long failed) {
+        out.printf("%-40s %8d %8.1f %8.1f %8.1f %8.1f %8.1f %6s %6s %6s %6s%n", name, latency.getTotalCount(),
+                latency.getTotalCount() / seconds, millis(latency, 50), millis(latency, 95), millis(latency, 99),
+                latency.getMaxValue() / 1000.0, blankIfNegative(clientErrors), blankIfNegative(serverErrors),
+                blankIfNegative(shed), blankIfNegative(failed));
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String blankIfNegative(long value) {
+        return value < 0 ? "" : Long.toString(value);
+    }
+
+    /**
+     * Seeded users in active challenges, and the open seeded challenges in random order
+     */
+    private List<SeededUser> loadSeed() throws SQLException {
+        String seededUsers = "u.email LIKE '%" + SyntheticData.EMAIL_DOMAIN + "'";
+        Map<UUID, SeededUser> users = new LinkedHashMap<>();
+        List<OpenChallenge> open = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(options.dbUrl(), options.dbUser(), options.dbPassword())) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT u.id, u.email, c.id FROM users u"
+                            + " JOIN challenge_participants p ON p.user_id = u.id AND p.forfeited_at IS NULL"
+                            + " JOIN challenges c ON c.id = p.challenge_id AND c.status = 'ACTIVE'"
+                            + " WHERE " + seededUsers + " ORDER BY u.email");
+                 ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    UUID userId = rows.getObject(1, UUID.class);
+                    String email = rows.getString(2);
+                    users.computeIfAbsent(userId, id -> new SeededUser(id, email, new ArrayList<>()))
+                            .activeChallenges().add(rows.getObject(3, UUID.class));
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT c.invite_code, c.created_by FROM challenges c JOIN users u ON u.id = c.created_by"
+                            + " WHERE c.status = 'PENDING' AND " + seededUsers
+                            + " AND (SELECT count(*) FROM challenge_participants p WHERE p.challenge_id = c.id) = 1");
+                 ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    open.add(new OpenChallenge(rows.getString(1), rows.getObject(2, UUID.class)));
+                }
+            }
+        }
+        Collections.shuffle(open);
+        openChallenges.addAll(open);
+        List<SeededUser> result = new ArrayList<>(users.values());
+        Collections.shuffle(result, new Random(1));
+        return result;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2 || !SCENARIOS.contains(parts[0].trim())) {
+                throw new IllegalArgumentException("Expected mix entries " + SCENARIOS + "=weight, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,184 @@
+package com.achiever.loadtest;
+
+import com.achiever.entity.UuidV7Generator;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares random (v4) and time-ordered (v7) primary keys on Postgres. Each kind gets a
+ * scratch copy of daily_progress (same columns and indexes, no foreign keys) seeded with
+ * the same rows, then times further batched inserts on top of it and reports throughput,
+ * WAL written and index sizes. The scratch tables are dropped afterwards.
+ * <p>
+ * Options: rows (1000000, seeded before measuring), inserts (200000), batch (500),
+ * random-seed (42), db.url, db.user, db.password.
+ */
+final class IdBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int PARTICIPANTS = 2000;
+
+    private enum Kind {
+        V4(UUID::randomUUID),
+        V7(UuidV7Generator::next);
+
+        private final Supplier<UUID> ids;
+
+        Kind(Supplier<UUID> ids) {
+            this.ids = ids;
+        }
+
+        String table() {
+            return "loadtest_ids_" + name().toLowerCase();
+        }
+    }
+
+    private record Result(double seedRowsPerSecond, double rowsPerSecond, long walBytes, long pkeyBytes,
+                          long indexBytes, long tableBytes) {
+    }
+
+    private final Options options;
+    private final int rows;
+    private final int inserts;
+    private final int batch;
+    private final UUID[][] participants = new UUID[PARTICIPANTS][];
+
+    IdBenchmark(Options options) {
+        this.options = options;
+        this.rows = options.integer("rows", 1_000_000);
+        this.inserts = options.integer("inserts", 200_000);
+        this.batch = options.integer("batch", 500);
+        // Both kinds get the same (challenge, user, date) rows, only the ids differ
+        Random random = new Random(options.integer("random-seed", 42));
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            participants[i] = new UUID[]{
+                    new UUID(random.nextLong(), random.nextLong()), new UUID(random.nextLong(), random.nextLong())};
+        }
+    }
+
+    void run() throws SQLException {
+        System.out.printf("Seeding %d rows per table, then timing %d inserts in batches of %d%n", rows, inserts, batch);
+        try (Connection connection = DriverManager.getConnection(options.dbUrl(), options.dbUser(), options.dbPassword())) {
+            connection.setAutoCommit(false);
+            Result[] results = new Result[Kind.values().length];
+            try {
+                for (Kind kind : Kind.values()) {
+                    results[kind.ordinal()] = measure(connection, kind);
+                }
+            } finally {
+                dropTables(connection);
+            }
+
+            System.out.println("ids  seed rows/s  insert rows/s  WAL MB  pkey MB  indexes MB  table MB");
+            for (Kind kind : Kind.values()) {
+                Result r = results[kind.ordinal()];
+                System.out.printf("%-4s %11.0f  %13.0f  %6.1f  %7.1f  %10.1f  %8.1f%n", kind.name().toLowerCase(),
+                        r.seedRowsPerSecond(), r.rowsPerSecond(), mb(r.walBytes()), mb(r.pkeyBytes()),
+                        mb(r.indexBytes()), mb(r.tableBytes()));
+            }
+        }
+    }
+
+    private Result measure(Connection connection, Kind kind) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + kind.table());
+            statement.execute("CREATE TABLE " + kind.table() + " (LIKE daily_progress INCLUDING DEFAULTS INCLUDING INDEXES)");
+        }
+        connection.commit();
+
+        double seedRate = insert(connection, kind, 0, rows);
+        checkpoint(connection);
+        long walBefore = walPosition(connection);
+        double rate = insert(connection, kind, rows, inserts);
+        long wal = walBytesSince(connection, walBefore);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + kind.table() + "_pkey'), "
+                     + "pg_indexes_size('" + kind.table() + "'), pg_relation_size('" + kind.table() + "')")) {
+            rs.next();
+            Result result = new Result(seedRate, rate, wal, rs.getLong(1), rs.getLong(2), rs.getLong(3));
+            connection.commit();
+            return result;
+        }
+    }
+
+    /**
+     * Inserts rows [from, from + count), committing every batch, and returns rows per second
+     */
+    private double insert(Connection connection, Kind kind, int from, int count) throws SQLException {
+        Timestamp updatedAt = new Timestamp(System.currentTimeMillis());
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + kind.table()
+                + " (id, challenge_id, user_id, date, distance_meters, progress_percent, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = from; i < from + count; i++) {
+                UUID[] participant = participants[i % PARTICIPANTS];
+                insert.setObject(1, kind.ids.get());
+                insert.setObject(2, participant[0]);
+                insert.setObject(3, participant[1]);
+                insert.setDate(4, Date.valueOf(FIRST_DAY.plusDays(i / PARTICIPANTS)));
+                insert.setInt(5, (i * 7919) % 20_000);
+                insert.setInt(6, (i / PARTICIPANTS) % 101);
+                insert.setTimestamp(7, updatedAt);
+                insert.addBatch();
+                if ((i - from + 1) % batch == 0 || i == from + count - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Starts the timed inserts with clean buffers, so both kinds pay their own full-page writes
+     */
+    private static void checkpoint(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+        } catch (SQLException e) {
+            // Needs superuser or pg_checkpoint; the WAL figures are then less comparable
+            System.out.println("CHECKPOINT not permitted: " + e.getMessage());
+        }
+        connection.commit();
+    }
+
+    private static long walPosition(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint")) {
+            rs.next();
+            long position = rs.getLong(1);
+            connection.commit();
+            return position;
+        }
+    }
+
+    private static long walBytesSince(Connection connection, long position) throws SQLException {
+        return walPosition(connection) - position;
+    }
+
+    private static void dropTables(Connection connection) throws SQLException {
+        connection.rollback();
+        try (Statement statement = connection.createStatement()) {
+            for (Kind kind : Kind.values()) {
+                statement.execute("DROP TABLE IF EXISTS " + kind.table());
+            }
+        }
+        connection.commit();
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.achiever.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Load-test harness: {@code seed}, {@code cleanup}, {@code stub}, {@code run} or {@code ids},
+ * followed by key=value options. See {@link Seeder}, {@link StravaStub}, {@link Driver} and
+ * {@link IdBenchmark} for the options and their defaults; scripts/load-test.sh runs the
+ * first four against a local build.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || "help".equals(args[0])) {
+            System.out.println("Usage: LoadTest seed|cleanup|stub|run|ids [key=value ...]");
+            return;
+        }
+        Options options = Options.parse(Arrays.copyOfRange(args, 1, args.length));
+        switch (args[0]) {
+            case "seed" -> new Seeder(options).seed();
+            case "cleanup" -> new Seeder(options).cleanup();
+            case "stub" -> {
+                StravaStub stub = StravaStub.start(options);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    stub.stop();
+                    System.out.printf("Strava stub served %d requests%n", stub.requests());
+                }));
+                Thread.currentThread().join();
+            }
+            case "run" -> new Driver(options).run();
+            case "ids" -> new IdBenchmark(options).run();
+            default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+    }
+}
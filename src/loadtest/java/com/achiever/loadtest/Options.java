@@ -0,0 +1,65 @@
+package com.achiever.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code key=value} command-line options; every option has a default
+ */
+final class Options {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int integer(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+
+    /**
+     * Seconds, or a java.time.Duration string such as PT90S
+     */
+    Duration duration(String key, Duration defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    /**
+     * JDBC settings, defaulting to the same DB_* variables as application.yml
+     */
+    String dbUrl() {
+        return string("db.url", "jdbc:postgresql://" + env("DB_HOST", "localhost") + ":" + env("DB_PORT", "5432")
+                + "/" + env("DB_NAME", "achiever") + "?reWriteBatchedInserts=true");
+    }
+
+    String dbUser() {
+        return string("db.user", env("DB_USERNAME", "postgres"));
+    }
+
+    String dbPassword() {
+        return string("db.password", env("DB_PASSWORD", "postgres"));
+    }
+
+    static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,159 @@
+package com.achiever.loadtest;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples connection pool and load-shedding metrics from /actuator/prometheus while the
+ * driver runs (needs the application's METRICS_SCRAPE_TOKEN). Gauges are summed over
+ * their label sets, counters are reported as the increase during the run.
+ */
+final class PoolSampler {
+
+    private static final String[] METRICS = {
+            "hikaricp_connections_active", "hikaricp_connections_pending", "hikaricp_connections_max",
+            "hikaricp_connections_acquire_seconds_count", "hikaricp_connections_acquire_seconds_sum",
+            "hikaricp_connections_timeout_total", "db_admission_queue", "db_admission_rejected_total",
+            "http_concurrency_rejected_total"
+    };
+
+    private final HttpClient client;
+    private final URI uri;
+    private final String token;
+    private final Duration interval;
+    private final List<Map<String, Double>> samples = new ArrayList<>();
+    private volatile boolean running;
+    private volatile String unavailable;
+    private Thread thread;
+
+    PoolSampler(HttpClient client, String baseUrl, String token, Duration interval) {
+        this.client = client;
+        this.uri = URI.create(baseUrl + "/actuator/prometheus");
+        this.token = token;
+        this.interval = interval;
+    }
+
+    void start() {
+        if (token == null || token.isEmpty()) {
+            unavailable = "no scrape-token (METRICS_SCRAPE_TOKEN)";
+            return;
+        }
+        running = true;
+        thread = Thread.ofVirtual().name("pool-sampler").start(() -> {
+            while (running && unavailable == null) {
+                sample();
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+        // Counters up to the end of the run
+        if (unavailable == null && token != null && !token.isEmpty()) {
+            sample();
+        }
+    }
+
+    void report(PrintStream out) {
+        out.println("Database pool");
+        if (unavailable != null || samples.size() < 2) {
+            out.println("  metrics unavailable: " + (unavailable != null ? unavailable : "too few samples"));
+            return;
+        }
+        Map<String, Double> first = samples.getFirst();
+        Map<String, Double> last = samples.getLast();
+        double max = last.getOrDefault("hikaricp_connections_max", 0.0);
+        double activeSum = 0;
+        double activeMax = 0;
+        double pendingSum = 0;
+        double pendingMax = 0;
+        double queueMax = 0;
+        int saturated = 0;
+        for (Map<String, Double> sample : samples) {
+            double active = sample.getOrDefault("hikaricp_connections_active", 0.0);
+            double pending = sample.getOrDefault("hikaricp_connections_pending", 0.0);
+            activeSum += active;
+            activeMax = Math.max(activeMax, active);
+            pendingSum += pending;
+            pendingMax = Math.max(pendingMax, pending);
+            queueMax = Math.max(queueMax, sample.getOrDefault("db_admission_queue", 0.0));
+            if (max > 0 && active >= max) {
+                saturated++;
+            }
+        }
+        double acquires = delta(first, last, "hikaricp_connections_acquire_seconds_count");
+        double acquireSeconds = delta(first, last, "hikaricp_connections_acquire_seconds_sum");
+
+        out.printf("  connections  active avg %.1f, max %.0f of %.0f; all in use in %.0f%% of %d samples%n",
+                activeSum / samples.size(), activeMax, max, 100.0 * saturated / samples.size(), samples.size());
+        out.printf("  waiting      pending avg %.1f, max %.0f; acquire mean %.2f ms over %.0f acquires, %.0f timeouts%n",
+                pendingSum / samples.size(), pendingMax, acquires > 0 ? acquireSeconds * 1000 / acquires : 0.0,
+                acquires, delta(first, last, "hikaricp_connections_timeout_total"));
+        out.printf("  shedding     admission queue max %.0f, %.0f rejected; %.0f requests shed by concurrency limits%n",
+                queueMax, delta(first, last, "db_admission_rejected_total"),
+                delta(first, last, "http_concurrency_rejected_total"));
+    }
+
+    private void sample() {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(5))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                unavailable = "/actuator/prometheus answered " + response.statusCode();
+                return;
+            }
+            samples.add(parse(response.body()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Skip the sample; the application may be momentarily overloaded
+        }
+    }
+
+    private static Map<String, Double> parse(String body) {
+        Map<String, Double> values = new HashMap<>();
+        for (String line : body.split("\n")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int nameEnd = line.indexOf('{');
+            int valueStart = line.lastIndexOf(' ');
+            if (nameEnd < 0) {
+                nameEnd = line.indexOf(' ');
+            }
+            if (nameEnd <= 0 || valueStart < 0) {
+                continue;
+            }
+            String name = line.substring(0, nameEnd);
+            for (String metric : METRICS) {
+                if (metric.equals(name)) {
+                    values.merge(name, Double.parseDouble(line.substring(valueStart + 1)), Double::sum);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static double delta(Map<String, Double> first, Map<String, Double> last, String metric) {
+        return last.getOrDefault(metric, 0.0) - first.getOrDefault(metric, 0.0);
+    }
+}
@@ -0,0 +1,399 @@
+package com.achiever.loadtest;
+
+import com.achiever.entity.ChallengeStatus;
+import com.achiever.entity.NotificationType;
+import com.achiever.entity.SportType;
+import com.achiever.loadtest.SyntheticData.Activity;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills the database with synthetic users (each with a Strava connection), months of
+ * activities, finished and active 1v1 challenges with their daily progress, open challenges
+ * for the driver to join, and notifications. Seeding replaces the previous seed.
+ * <p>
+ * Options: users (500), months (3), activities-per-week (4), active-per-user (2),
+ * open-challenges (users x 2), notifications-per-user (30), random-seed (42), db.url,
+ * db.user, db.password.
+ */
+final class Seeder {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String SEEDED_USERS = "SELECT id FROM users WHERE email LIKE '%" + SyntheticData.EMAIL_DOMAIN + "'";
+
+    private final Options options;
+    private final int users;
+    private final int months;
+    private final int activitiesPerWeek;
+    private final Random random;
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private final LocalDate firstDay;
+
+    /**
+     * Activities of each user by day, index 0 being {@link #firstDay}; seeded up to yesterday
+     */
+    private final Activity[][] activities;
+
+    private final List<SeedChallenge> challenges = new ArrayList<>();
+    private final List<List<UUID>> challengesByUser = new ArrayList<>();
+
+    private record SeedChallenge(UUID id, String inviteCode, int creator, int opponent, LocalDate startAt,
+                                 LocalDate endAt, ChallengeStatus status, boolean withRide, int weeks) {
+
+        BigDecimal runGoalKm() {
+            return BigDecimal.valueOf((withRide ? 15L : 25L) * weeks);
+        }
+
+        BigDecimal rideGoalKm() {
+            return withRide ? BigDecimal.valueOf(80L * weeks) : null;
+        }
+    }
+
+    Seeder(Options options) {
+        this.options = options;
+        this.users = options.integer("users", 500);
+        this.months = options.integer("months", 3);
+        this.activitiesPerWeek = options.integer("activities-per-week", 4);
+        this.random = new Random(options.integer("random-seed", 42));
+        this.firstDay = today.minusMonths(months);
+        this.activities = new Activity[users][];
+    }
+
+    void seed() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            int removed = deleteSeed(connection);
+            if (removed > 0) {
+                System.out.printf("Removed the previous seed (%d users)%n", removed);
+            }
+
+            planChallenges();
+            int userRows = insertUsers(connection);
+            int activityRows = insertActivities(connection);
+            int challengeRows = insertChallenges(connection);
+            int progressRows = insertProgress(connection);
+            int notificationRows = insertNotifications(connection);
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+
+            System.out.printf("Seeded %d users, %d activities over %d months, %d challenges, %d progress rows, "
+                            + "%d notifications in %.1f s%n",
+                    userRows, activityRows, months, challengeRows, progressRows, notificationRows,
+                    (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    void cleanup() throws SQLException {
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            int removed = deleteSeed(connection);
+            connection.commit();
+            System.out.printf("Removed %d seeded users and their data%n", removed);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(options.dbUrl(), options.dbUser(), options.dbPassword());
+    }
+
+    /**
+     * Challenges of seeded users cascade to participants, progress, standings and notifications
+     */
+    private int deleteSeed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM challenges WHERE created_by IN (" + SEEDED_USERS + ")"
+                    + " OR id IN (SELECT challenge_id FROM challenge_participants WHERE user_id IN (" + SEEDED_USERS + "))");
+            statement.executeUpdate("DELETE FROM strava_activities WHERE user_id IN (" + SEEDED_USERS + ")");
+            return statement.executeUpdate("DELETE FROM users WHERE id IN (" + SEEDED_USERS + ")");
+        }
+    }
+
+    private void planChallenges() {
+        for (int i = 0; i < users; i++) {
+            challengesByUser.add(new ArrayList<>());
+        }
+        int days = (int) (today.toEpochDay() - firstDay.toEpochDay());
+
+        // History: about two finished one-week challenges per user and month
+        for (int k = 0; k < users * months; k++) {
+            LocalDate startAt = firstDay.plusDays(random.nextInt(Math.max(1, days - 8)));
+            addChallenge(String.format("LH%07d", k), startAt, startAt.plusDays(6), ChallengeStatus.COMPLETED, true);
+        }
+        // Running now: one to four weeks long, started during the last week
+        int active = users * options.integer("active-per-user", 2) / 2;
+        for (int k = 0; k < active; k++) {
+            LocalDate startAt = today.minusDays(random.nextInt(7));
+            LocalDate endAt = startAt.plusDays(6 + 7L * random.nextInt(4));
+            addChallenge(String.format("LA%07d", k), startAt, endAt, ChallengeStatus.ACTIVE, true);
+        }
+        // Waiting for an opponent; the driver joins these
+        int open = options.integer("open-challenges", users * 2);
+        for (int k = 0; k < open; k++) {
+            addChallenge(String.format("LO%07d", k), today, today.plusDays(13), ChallengeStatus.PENDING, false);
+        }
+    }
+
+    private void addChallenge(String inviteCode, LocalDate startAt, LocalDate endAt, ChallengeStatus status,
+                              boolean withOpponent) {
+        int creator = random.nextInt(users);
+        int opponent = -1;
+        if (withOpponent && users > 1) {
+            opponent = (creator + 1 + random.nextInt(users - 1)) % users;
+        }
+        int weeks = (int) ((endAt.toEpochDay() - startAt.toEpochDay() + 1) / 7);
+        SeedChallenge challenge = new SeedChallenge(UUID.randomUUID(), inviteCode, creator, opponent, startAt, endAt,
+                status, random.nextInt(10) < 4, Math.max(1, weeks));
+        challenges.add(challenge);
+        challengesByUser.get(creator).add(challenge.id());
+        if (opponent >= 0) {
+            challengesByUser.get(opponent).add(challenge.id());
+        }
+    }
+
+    private int insertUsers(Connection connection) throws SQLException {
+        LocalDateTime createdAt = firstDay.minusDays(1).atStartOfDay();
+        try (PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO users (id, username, email, timezone, created_at) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement strava = connection.prepareStatement(
+                     "INSERT INTO strava_connection (user_id, athlete_id, access_token, refresh_token, expires_at, updated_at)"
+                             + " VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < users; i++) {
+                user.setObject(1, SyntheticData.userId(i));
+                user.setString(2, SyntheticData.username(i));
+                user.setString(3, SyntheticData.email(i));
+                user.setString(4, SyntheticData.TIMEZONES[i % SyntheticData.TIMEZONES.length]);
+                user.setObject(5, createdAt);
+                user.addBatch();
+
+                long athleteId = SyntheticData.athleteId(i);
+                strava.setObject(1, SyntheticData.userId(i));
+                strava.setLong(2, athleteId);
+                strava.setString(3, SyntheticData.accessToken(athleteId));
+                strava.setString(4, "lt-refresh-" + athleteId);
+                // Never expires during a run, so no token refreshes
+                strava.setObject(5, LocalDateTime.now().plusYears(10));
+                strava.setObject(6, createdAt);
+                strava.addBatch();
+            }
+            user.executeBatch();
+            strava.executeBatch();
+        }
+        return users;
+    }
+
+    private int insertActivities(Connection connection) throws SQLException {
+        int rows = 0;
+        LocalDate yesterday = today.minusDays(1);
+        int days = (int) (today.toEpochDay() - firstDay.toEpochDay());
+        // Months before the partitions the migration created would land in the default partition
+        try (PreparedStatement partitions = connection.prepareStatement(
+                "SELECT ensure_strava_activity_partitions(?, 3)")) {
+            partitions.setObject(1, firstDay);
+            partitions.execute();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO strava_activities (id, user_id, sport_code, name, start_date, distance_meters,"
+                        + " moving_time_seconds, synced_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < users; i++) {
+                activities[i] = new Activity[days];
+                for (Activity activity : SyntheticData.activities(SyntheticData.athleteId(i), firstDay, yesterday,
+                        activitiesPerWeek)) {
+                    activities[i][(int) (activity.startDate().toLocalDate().toEpochDay() - firstDay.toEpochDay())] = activity;
+                    insert.setLong(1, activity.id());
+                    insert.setObject(2, SyntheticData.userId(i));
+                    insert.setShort(3, SportType.valueOf(activity.sportType().toUpperCase()).code());
+                    insert.setString(4, activity.name());
+                    insert.setObject(5, activity.startDate());
+                    insert.setInt(6, activity.distanceMeters());
+                    insert.setInt(7, activity.movingTimeSeconds());
+                    insert.setObject(8, activity.startDate().plusHours(2).toLocalDateTime());
+                    insert.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    private int insertChallenges(Connection connection) throws SQLException {
+        try (PreparedStatement challenge = connection.prepareStatement(
+                "INSERT INTO challenges (id, created_by, invite_code, sport_types, start_at, end_at, status, created_at,"
+                        + " name, winner_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement participant = connection.prepareStatement(
+                     "INSERT INTO challenge_participants (id, challenge_id, user_id, joined_at, goal_run_km, goal_ride_km)"
+                             + " VALUES (?, ?, ?, ?, ?, ?)")) {
+            int rows = 0;
+            for (SeedChallenge c : challenges) {
+                LocalDateTime createdAt = c.startAt().minusDays(1).atTime(12, 0);
+                challenge.setObject(1, c.id());
+                challenge.setObject(2, SyntheticData.userId(c.creator()));
+                challenge.setString(3, c.inviteCode());
+                challenge.setString(4, c.withRide() ? "RIDE,RUN" : "RUN");
+                challenge.setObject(5, c.startAt());
+                challenge.setObject(6, c.endAt());
+                challenge.setString(7, c.status().name());
+                challenge.setObject(8, createdAt);
+                challenge.setString(9, c.weeks() + "-week " + (c.withRide() ? "run & ride" : "run") + " challenge");
+                challenge.setObject(10, c.status() == ChallengeStatus.COMPLETED ? winner(c) : null);
+                challenge.addBatch();
+
+                addParticipant(participant, c, c.creator(), createdAt);
+                if (c.opponent() >= 0) {
+                    addParticipant(participant, c, c.opponent(), createdAt.plusHours(2));
+                }
+                if (++rows % BATCH_SIZE == 0) {
+                    challenge.executeBatch();
+                    participant.executeBatch();
+                }
+            }
+            challenge.executeBatch();
+            participant.executeBatch();
+            return rows;
+        }
+    }
+
+    private static void addParticipant(PreparedStatement participant, SeedChallenge c, int user, LocalDateTime joinedAt)
+            throws SQLException {
+        participant.setObject(1, UUID.randomUUID());
+        participant.setObject(2, c.id());
+        participant.setObject(3, SyntheticData.userId(user));
+        participant.setObject(4, joinedAt);
+        participant.setBigDecimal(5, c.runGoalKm());
+        participant.setBigDecimal(6, c.rideGoalKm());
+        participant.addBatch();
+    }
+
+    /**
+     * Cumulative daily progress per participant up to yesterday, as the sync would have left it
+     */
+    private int insertProgress(Connection connection) throws SQLException {
+        int rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO daily_progress (id, challenge_id, user_id, date, distance_meters, run_meters, ride_meters,"
+                        + " swim_meters, walk_meters, progress_percent, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?)")) {
+            for (SeedChallenge c : challenges) {
+                if (c.status() == ChallengeStatus.PENDING) {
+                    continue;
+                }
+                for (int user : new int[]{c.creator(), c.opponent()}) {
+                    int run = 0;
+                    int ride = 0;
+                    for (LocalDate day = c.startAt(); !day.isAfter(c.endAt()) && day.isBefore(today); day = day.plusDays(1)) {
+                        Activity activity = activityOn(user, day);
+                        if (activity != null && activity.sportType().equals("Run")) {
+                            run += activity.distanceMeters();
+                        } else if (activity != null && activity.sportType().equals("Ride") && c.withRide()) {
+                            ride += activity.distanceMeters();
+                        }
+                        insert.setObject(1, UUID.randomUUID());
+                        insert.setObject(2, c.id());
+                        insert.setObject(3, SyntheticData.userId(user));
+                        insert.setObject(4, day);
+                        insert.setInt(5, run + ride);
+                        insert.setInt(6, run);
+                        insert.setInt(7, ride);
+                        insert.setInt(8, percent(c, run, ride));
+                        insert.setObject(9, day.atTime(23, 0));
+                        insert.addBatch();
+                        if (++rows % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    private int insertNotifications(Connection connection) throws SQLException {
+        int perUser = options.integer("notifications-per-user", 30);
+        NotificationType[] types = {
+                NotificationType.CHALLENGE_JOINED, NotificationType.CHALLENGE_STARTED,
+                NotificationType.CHALLENGE_COMPLETED, NotificationType.CHALLENGE_WON, NotificationType.CHALLENGE_LOST
+        };
+        long windowSeconds = (today.toEpochDay() - firstDay.toEpochDay()) * 86_400;
+        int rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO notifications (user_id, type, challenge_id, is_read, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < users; i++) {
+                List<UUID> userChallenges = challengesByUser.get(i);
+                for (int n = 0; n < perUser; n++) {
+                    insert.setObject(1, SyntheticData.userId(i));
+                    insert.setString(2, types[random.nextInt(types.length)].name());
+                    insert.setObject(3, userChallenges.isEmpty() ? null
+                            : userChallenges.get(random.nextInt(userChallenges.size())));
+                    // The newest few are unread
+                    insert.setBoolean(4, n < perUser - 3);
+                    insert.setObject(5, firstDay.atStartOfDay().plusSeconds(windowSeconds * (n + 1) / (perUser + 1)));
+                    insert.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    private Activity activityOn(int user, LocalDate day) {
+        int index = (int) (day.toEpochDay() - firstDay.toEpochDay());
+        return index >= 0 && index < activities[user].length ? activities[user][index] : null;
+    }
+
+    private UUID winner(SeedChallenge c) {
+        int creator = finalPercent(c, c.creator());
+        int opponent = finalPercent(c, c.opponent());
+        if (creator == opponent) {
+            return null;
+        }
+        return SyntheticData.userId(creator > opponent ? c.creator() : c.opponent());
+    }
+
+    private int finalPercent(SeedChallenge c, int user) {
+        int run = 0;
+        int ride = 0;
+        for (LocalDate day = c.startAt(); !day.isAfter(c.endAt()); day = day.plusDays(1)) {
+            Activity activity = activityOn(user, day);
+            if (activity != null && activity.sportType().equals("Run")) {
+                run += activity.distanceMeters();
+            } else if (activity != null && activity.sportType().equals("Ride")) {
+                ride += activity.distanceMeters();
+            }
+        }
+        return percent(c, run, c.withRide() ? ride : 0);
+    }
+
+    /**
+     * Average of the per-sport percentages, each capped at 100, as ChallengeService computes it
+     */
+    private static int percent(SeedChallenge c, int runMeters, int rideMeters) {
+        int run = Math.min(100, runMeters / (c.runGoalKm().intValue() * 10));
+        if (!c.withRide()) {
+            return run;
+        }
+        int ride = Math.min(100, rideMeters / (c.rideGoalKm().intValue() * 10));
+        return (run + ride) / 2;
+    }
+}
@@ -0,0 +1,192 @@
+package com.achiever.loadtest;
+
+import com.achiever.loadtest.SyntheticData.Activity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Strava API (token, athlete and activities endpoints) serving
+ * {@link SyntheticData} activities for the seeded athletes, with a configurable latency.
+ * Start the application with app.strava.api-base-url=http://localhost:PORT/api/v3 and
+ * spring.security.oauth2.client.provider.strava.token-uri=http://localhost:PORT/oauth/token.
+ * <p>
+ * Options: stub.port (8099), strava-latency-ms (150, +-50% jitter), activities-per-week (4).
+ */
+final class StravaStub {
+
+    private final HttpServer server;
+    private final int latencyMs;
+    private final int activitiesPerWeek;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AtomicLong requests = new AtomicLong();
+
+    private StravaStub(Options options) throws IOException {
+        this.latencyMs = options.integer("strava-latency-ms", 150);
+        this.activitiesPerWeek = options.integer("activities-per-week", 4);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", options.integer("stub.port", 8099)), 256);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/oauth/token", this::token);
+        server.createContext("/api/v3/athlete/activities", this::activities);
+        server.createContext("/api/v3/athlete", this::athlete);
+    }
+
+    static StravaStub start(Options options) throws IOException {
+        StravaStub stub = new StravaStub(options);
+        stub.server.start();
+        System.out.printf("Strava stub listening on http://localhost:%d (latency ~%d ms)%n",
+                stub.server.getAddress().getPort(), stub.latencyMs);
+        return stub;
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseQuery(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        long athleteId = SyntheticData.athleteIdFromToken(form.getOrDefault("refresh_token", "lt-" + form.get("code")));
+        if (athleteId < 0) {
+            respond(exchange, 400, Map.of("message", "Bad Request"));
+            return;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("token_type", "Bearer");
+        body.put("access_token", SyntheticData.accessToken(athleteId));
+        body.put("refresh_token", "lt-refresh-" + athleteId);
+        body.put("expires_at", Instant.now().plusSeconds(6 * 3600).getEpochSecond());
+        body.put("athlete", athleteBody(athleteId));
+        respond(exchange, 200, body);
+    }
+
+    private void athlete(HttpExchange exchange) throws IOException {
+        long athleteId = authenticate(exchange);
+        if (athleteId >= 0) {
+            respond(exchange, 200, athleteBody(athleteId));
+        }
+    }
+
+    private void activities(HttpExchange exchange) throws IOException {
+        long athleteId = authenticate(exchange);
+        if (athleteId < 0) {
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime after = epoch(query.get("after"), now.minusDays(30));
+        OffsetDateTime before = epoch(query.get("before"), now);
+        if (before.isAfter(now)) {
+            before = now;
+        }
+        // Everything fits on the first page
+        if (Integer.parseInt(query.getOrDefault("page", "1")) > 1 || !after.isBefore(before)) {
+            respond(exchange, 200, List.of());
+            return;
+        }
+
+        OffsetDateTime from = after;
+        OffsetDateTime to = before;
+        List<Map<String, Object>> body = SyntheticData.activities(athleteId, after.toLocalDate(),
+                        before.toLocalDate(), activitiesPerWeek).stream()
+                .filter(a -> a.startDate().isAfter(from) && a.startDate().isBefore(to))
+                .map(StravaStub::activityBody)
+                .toList();
+        respond(exchange, 200, body);
+    }
+
+    /**
+     * Athlete id of the bearer token, or -1 after answering 401
+     */
+    private long authenticate(HttpExchange exchange) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        long athleteId = authorization != null && authorization.startsWith("Bearer ")
+                ? SyntheticData.athleteIdFromToken(authorization.substring(7)) : -1;
+        if (athleteId < 0) {
+            respond(exchange, 401, Map.of("message", "Authorization Error"));
+        }
+        return athleteId;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            int jitter = latencyMs / 2;
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs - jitter + ThreadLocalRandom.current().nextInt(2 * jitter + 1));
+            }
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Object> athleteBody(long athleteId) {
+        Map<String, Object> athlete = new LinkedHashMap<>();
+        athlete.put("id", athleteId);
+        athlete.put("username", "athlete" + athleteId);
+        athlete.put("firstname", "Load");
+        athlete.put("lastname", "Test " + (athleteId - SyntheticData.ATHLETE_ID_BASE));
+        return athlete;
+    }
+
+    private static Map<String, Object> activityBody(Activity activity) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", activity.id());
+        body.put("name", activity.name());
+        body.put("type", activity.sportType());
+        body.put("sport_type", activity.sportType());
+        body.put("start_date", activity.startDate());
+        body.put("distance", (double) activity.distanceMeters());
+        body.put("moving_time", activity.movingTimeSeconds());
+        body.put("elapsed_time", activity.movingTimeSeconds() + 120);
+        return body;
+    }
+
+    private static OffsetDateTime epoch(String seconds, OffsetDateTime defaultValue) {
+        return seconds != null ? Instant.ofEpochSecond(Long.parseLong(seconds)).atOffset(ZoneOffset.UTC) : defaultValue;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> values = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return values;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+}
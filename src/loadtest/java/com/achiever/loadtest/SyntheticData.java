@@ -0,0 +1,106 @@
+package com.achiever.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic users and Strava activities. The seeder and the Strava stub both
+ * derive activities from here, so a sync against the stub finds the seeded history and
+ * only today's activities are new.
+ */
+final class SyntheticData {
+
+    /**
+     * Seeded users are recognised (and cleaned up) by this email domain
+     */
+    static final String EMAIL_DOMAIN = "@loadtest.invalid";
+
+    /**
+     * Far above real Strava athlete ids
+     */
+    static final long ATHLETE_ID_BASE = 9_000_000_000L;
+
+    static final String[] TIMEZONES = {
+            "America/Los_Angeles", "America/New_York", "Europe/London", "Europe/Berlin", "Asia/Tokyo"
+    };
+
+    /**
+     * One synthetic Strava activity; sport types are already in the form the app stores
+     */
+    record Activity(long id, String sportType, String name, OffsetDateTime startDate, int distanceMeters,
+                    int movingTimeSeconds) {
+    }
+
+    private SyntheticData() {
+    }
+
+    static UUID userId(int index) {
+        return UUID.nameUUIDFromBytes(("loadtest-user-" + index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String username(int index) {
+        return String.format("lt_user_%05d", index);
+    }
+
+    static String email(int index) {
+        return username(index) + EMAIL_DOMAIN;
+    }
+
+    static long athleteId(int index) {
+        return ATHLETE_ID_BASE + index;
+    }
+
+    static String accessToken(long athleteId) {
+        return "lt-" + athleteId;
+    }
+
+    /**
+     * Athlete id from a stub access token, or -1
+     */
+    static long athleteIdFromToken(String token) {
+        if (token == null || !token.startsWith("lt-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(token.lastIndexOf('-') + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Activities from {@code from} to {@code to} inclusive: on average {@code perWeek} a week,
+     * at most one a day, mostly runs with some rides and walks
+     */
+    static List<Activity> activities(long athleteId, LocalDate from, LocalDate to, int perWeek) {
+        List<Activity> activities = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            SplittableRandom random = new SplittableRandom(athleteId * 1_000_003L + day.toEpochDay());
+            if (random.nextInt(7) >= perWeek) {
+                continue;
+            }
+            int roll = random.nextInt(10);
+            String sportType = roll < 6 ? "Run" : roll < 9 ? "Ride" : "Walk";
+            int distance = switch (sportType) {
+                case "Run" -> 3_000 + random.nextInt(12_000);
+                case "Ride" -> 15_000 + random.nextInt(60_000);
+                default -> 2_000 + random.nextInt(6_000);
+            };
+            int paceSecondsPerKm = switch (sportType) {
+                case "Run" -> 300 + random.nextInt(120);
+                case "Ride" -> 100 + random.nextInt(40);
+                default -> 600 + random.nextInt(120);
+            };
+            OffsetDateTime start = day.atTime(6 + random.nextInt(12), random.nextInt(60)).atOffset(ZoneOffset.UTC);
+            activities.add(new Activity(athleteId * 100_000 + day.toEpochDay() % 100_000, sportType,
+                    "Synthetic " + sportType.toLowerCase(), start, distance, distance * paceSecondsPerKm / 1000));
+        }
+        return activities;
+    }
+}
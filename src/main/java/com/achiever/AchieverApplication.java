@@ -1,11 +1,14 @@
 package com.achiever;
 
+import com.achiever.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class AchieverApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,155 @@
+package com.achiever.config;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-style adaptive concurrency limit (after Netflix concurrency-limits' Gradient2).
+ * <p>
+ * Compares a fast-moving average of request latency with a slow-moving one. While they
+ * agree the limit grows by a small queue allowance; when recent requests get slower than
+ * the long-term baseline the limit shrinks in proportion, down to half per step.
+ * The limit only grows while at least half of it is in use, so an idle service does not
+ * drift up to the maximum.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private final Average shortRtt = new Average(10);
+    private final Average longRtt = new Average(600);
+    private double estimatedLimit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * @return false if the limit is reached; otherwise the caller must call
+     * {@link #onSuccess}, {@link #onDropped} or {@link #onIgnore} exactly once
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) estimatedLimit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The request completed normally in {@code rttNanos}
+     */
+    public void onSuccess(long rttNanos) {
+        lock.lock();
+        try {
+            int inFlightAtStart = inFlight;
+            inFlight--;
+            update(rttNanos, inFlightAtStart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The request was shed further down (e.g. no database connection): back off
+     */
+    public void onDropped() {
+        lock.lock();
+        try {
+            inFlight--;
+            estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_BACKOFF);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The request finished without a meaningful latency (e.g. a long-lived stream)
+     */
+    public void onIgnore() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtStart) {
+        double shortTerm = shortRtt.add(rttNanos);
+        double longTerm = longRtt.add(rttNanos);
+
+        // Recover quickly when latency improved for good, e.g. after a slow warm-up
+        if (longTerm / shortTerm > 2) {
+            longTerm = longRtt.scale(0.95);
+        }
+
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longTerm / shortTerm));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    /**
+     * Exponential moving average; a plain mean until the window has filled
+     */
+    private static final class Average {
+        private final int window;
+        private int count;
+        private double value;
+
+        private Average(int window) {
+            this.window = window;
+        }
+
+        private double add(double sample) {
+            if (count < window) {
+                count++;
+                value += (sample - value) / count;
+            } else {
+                value += (sample - value) * 2 / (window + 1);
+            }
+            return value;
+        }
+
+        private double scale(double factor) {
+            value *= factor;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.achiever.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Adaptive HTTP concurrency limits: cheap reads, expensive paths and everything else
+ * are limited separately, so a pile-up of syncs cannot starve the unread-count poll
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.http.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            @Value("${app.http.concurrency.cheap.paths:/api/notifications/unread-count,/api/health,/actuator/health}") String[] cheapPaths,
+            @Value("${app.http.concurrency.cheap.initial-limit:50}") int cheapInitial,
+            @Value("${app.http.concurrency.cheap.min-limit:10}") int cheapMin,
+            @Value("${app.http.concurrency.cheap.max-limit:200}") int cheapMax,
+            @Value("${app.http.concurrency.expensive.paths:/api/challenges/*/progress,/api/challenges/*/sync,/api/auth/strava/callback}") String[] expensivePaths,
+            @Value("${app.http.concurrency.expensive.initial-limit:4}") int expensiveInitial,
+            @Value("${app.http.concurrency.expensive.min-limit:1}") int expensiveMin,
+            @Value("${app.http.concurrency.expensive.max-limit:20}") int expensiveMax,
+            @Value("${app.http.concurrency.default.initial-limit:20}") int defaultInitial,
+            @Value("${app.http.concurrency.default.min-limit:4}") int defaultMin,
+            @Value("${app.http.concurrency.default.max-limit:100}") int defaultMax,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitFilter(
+                List.of(
+                        new ConcurrencyLimitFilter.Group("cheap", List.of(cheapPaths),
+                                new AdaptiveConcurrencyLimiter(cheapInitial, cheapMin, cheapMax)),
+                        new ConcurrencyLimitFilter.Group("expensive", List.of(expensivePaths),
+                                new AdaptiveConcurrencyLimiter(expensiveInitial, expensiveMin, expensiveMax))),
+                new ConcurrencyLimitFilter.Group("default", List.of(),
+                        new AdaptiveConcurrencyLimiter(defaultInitial, defaultMin, defaultMax)),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.achiever.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Sheds load before any work is done: each group of endpoints has its own
+ * {@link AdaptiveConcurrencyLimiter}, and a request over its group's limit gets 503
+ * with Retry-After. Requests that go async (the SSE stream) release their slot when the
+ * handler returns and do not feed latency samples.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Endpoints sharing one limit
+     */
+    public record Group(String name, List<String> paths, AdaptiveConcurrencyLimiter limiter) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Group> groups;
+    private final Group defaultGroup;
+    private final Map<String, Counter> rejected = new LinkedHashMap<>();
+
+    /**
+     * @param groups checked in order; requests matching none use {@code defaultGroup}
+     */
+    public ConcurrencyLimitFilter(List<Group> groups, Group defaultGroup, MeterRegistry meterRegistry) {
+        this.groups = groups;
+        this.defaultGroup = defaultGroup;
+        for (Group group : allGroups()) {
+            Gauge.builder("http.concurrency.limit", group.limiter(), AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in_flight", group.limiter(), AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            rejected.put(group.name(), Counter.builder("http.concurrency.rejected")
+                    .tag("group", group.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Group group = groupOf(request.getRequestURI());
+        AdaptiveConcurrencyLimiter limiter = group.limiter();
+        if (!limiter.tryAcquire()) {
+            rejected.get(group.name()).increment();
+            log.debug("[LIMIT] Shedding {} at limit {}", request.getRequestURI(), limiter.getLimit());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\","
+                    + "\"message\":\"Server busy, try again shortly\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed || request.isAsyncStarted()) {
+                limiter.onIgnore();
+            } else if (response.getStatus() == HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+                // Shed further down, e.g. by the database admission limiter
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+        }
+    }
+
+    Group groupOf(String path) {
+        for (Group group : groups) {
+            for (String pattern : group.paths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return defaultGroup;
+    }
+
+    private List<Group> allGroups() {
+        return Stream.concat(groups.stream(), Stream.of(defaultGroup)).toList();
+    }
+}
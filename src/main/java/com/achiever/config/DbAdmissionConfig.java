@@ -0,0 +1,49 @@
+package com.achiever.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts every pooled connection behind a {@link DbAdmissionLimiter} sized to the pool,
+ * with priorities set per request by {@link DbPriorityFilter}
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class DbAdmissionConfig {
+
+    @Bean
+    public DbAdmissionLimiter dbAdmissionLimiter(
+            @Value("${app.db.admission.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${app.db.admission.max-queue:50}") int maxQueue,
+            @Value("${app.db.admission.max-wait-ms:5000}") long maxWaitMillis,
+            MeterRegistry meterRegistry) {
+        return new DbAdmissionLimiter(permits, maxQueue, maxWaitMillis, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor dbAdmissionDataSourcePostProcessor(ObjectProvider<DbAdmissionLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DbAdmissionDataSource)) {
+                    return new DbAdmissionDataSource(dataSource, limiter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public DbPriorityFilter dbPriorityFilter(
+            @Value("${app.db.admission.high-priority-paths:/api/auth/**}") String[] highPriorityPaths,
+            @Value("${app.db.admission.low-priority-paths:}") String[] lowPriorityPaths) {
+        return new DbPriorityFilter(highPriorityPaths, lowPriorityPaths);
+    }
+}
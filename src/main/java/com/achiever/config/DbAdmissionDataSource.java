@@ -0,0 +1,87 @@
+package com.achiever.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes a {@link DbAdmissionLimiter} permit before borrowing a pooled connection and
+ * returns it when the connection is closed.
+ * <p>
+ * A thread that already holds a connection (e.g. a REQUIRES_NEW transaction inside
+ * another) is not limited again, so nested connections cannot deadlock on permits.
+ */
+public class DbAdmissionDataSource extends DelegatingDataSource {
+
+    private final DbAdmissionLimiter limiter;
+    private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+
+    public DbAdmissionDataSource(DataSource target, DbAdmissionLimiter limiter) {
+        super(target);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return admit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return admit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection admit(ConnectionSupplier supplier) throws SQLException {
+        int[] count = held.get();
+        boolean limited = count[0] == 0;
+        if (limited) {
+            limiter.acquire(DbAdmissionLimiter.currentPriority());
+        }
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            if (limited) {
+                limiter.release();
+            }
+            throw e;
+        }
+        count[0]++;
+        return wrap(connection, count, limited);
+    }
+
+    private Connection wrap(Connection target, int[] count, boolean limited) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        if (closed.compareAndSet(false, true)) {
+                            try {
+                                target.close();
+                            } finally {
+                                count[0]--;
+                                if (limited) {
+                                    limiter.release();
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,203 @@
+package com.achiever.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits at most {@code permits} threads to hold a database connection at once.
+ * <p>
+ * Waiters queue in priority order, first come first served within a priority, and a
+ * released permit is handed straight to the head of the queue. A caller is rejected at
+ * once when the queue is full (LOW priority already at half), or after {@code maxWait},
+ * instead of every virtual thread waiting out the pool's connection timeout.
+ * Uses {@link ReentrantLock} rather than {@code synchronized} so waiting virtual threads
+ * do not pin their carrier.
+ */
+@Slf4j
+public class DbAdmissionLimiter {
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    /**
+     * Thrown instead of waiting for a connection; mapped to 503 by GlobalExceptionHandler
+     */
+    public static class RejectedException extends SQLTransientConnectionException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private static final ThreadLocal<Priority> CURRENT_PRIORITY = new ThreadLocal<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparing((Waiter w) -> w.priority).thenComparingLong(w -> w.sequence));
+    private final int permits;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private int available;
+    private long sequence;
+
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public DbAdmissionLimiter(int permits, int maxQueue, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.permits = permits;
+        this.available = permits;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        for (Priority priority : Priority.values()) {
+            waitTimers.put(priority, Timer.builder("db.admission.wait")
+                    .description("Time spent waiting for a database connection permit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.rejectedQueueFull = Counter.builder("db.admission.rejected").tag("reason", "queue_full").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("db.admission.rejected").tag("reason", "timeout").register(meterRegistry);
+        Gauge.builder("db.admission.queue", this, DbAdmissionLimiter::queueLength)
+                .description("Threads waiting for a database connection permit")
+                .register(meterRegistry);
+        Gauge.builder("db.admission.in_use", this, DbAdmissionLimiter::inUse)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Priority for connections opened by the current thread; NORMAL when not set
+     */
+    public static Priority currentPriority() {
+        Priority priority = CURRENT_PRIORITY.get();
+        return priority != null ? priority : Priority.NORMAL;
+    }
+
+    public static void setCurrentPriority(Priority priority) {
+        if (priority == null) {
+            CURRENT_PRIORITY.remove();
+        } else {
+            CURRENT_PRIORITY.set(priority);
+        }
+    }
+
+    /**
+     * Whether a data access failure was caused by this limiter turning the caller away
+     */
+    public static boolean isRejection(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof RejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void acquire(Priority priority) throws RejectedException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (available > 0) {
+                available--;
+                waitTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            int limit = priority == Priority.LOW ? maxQueue / 2 : maxQueue;
+            if (waiters.size() >= limit) {
+                rejectedQueueFull.increment();
+                throw new RejectedException("Database busy: " + waiters.size() + " requests already waiting");
+            }
+
+            Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            long remaining = maxWaitNanos;
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        waiters.remove(waiter);
+                        rejectedTimeout.increment();
+                        throw new RejectedException("Database busy: no connection within "
+                                + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    releaseLocked();
+                } else {
+                    waiters.remove(waiter);
+                }
+                Thread.currentThread().interrupt();
+                throw new RejectedException("Interrupted while waiting for a database connection");
+            }
+        } finally {
+            lock.unlock();
+        }
+        waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queueLength() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inUse() {
+        lock.lock();
+        try {
+            return permits - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        Waiter next = waiters.poll();
+        if (next != null) {
+            next.granted = true;
+            next.condition.signal();
+        } else {
+            available++;
+        }
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Priority priority, long sequence, Condition condition) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.achiever.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Chooses the {@link DbAdmissionLimiter} priority for connections opened while handling
+ * a request: configured low-priority paths (polling) first, then configured
+ * high-priority paths and all writes, and NORMAL for other reads.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DbPriorityFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> highPriorityPaths;
+    private final List<String> lowPriorityPaths;
+
+    public DbPriorityFilter(String[] highPriorityPaths, String[] lowPriorityPaths) {
+        this.highPriorityPaths = List.of(highPriorityPaths);
+        this.lowPriorityPaths = List.of(lowPriorityPaths);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        DbAdmissionLimiter.setCurrentPriority(priorityOf(request));
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            // Rejected before a controller ran (e.g. loading the user in JwtAuthFilter)
+            if (!DbAdmissionLimiter.isRejection(e) || response.isCommitted()) {
+                throw e;
+            }
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\","
+                    + "\"message\":\"Database busy, try again shortly\"}");
+        } finally {
+            DbAdmissionLimiter.setCurrentPriority(null);
+        }
+    }
+
+    DbAdmissionLimiter.Priority priorityOf(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (matches(lowPriorityPaths, path)) {
+            return DbAdmissionLimiter.Priority.LOW;
+        }
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (!read || matches(highPriorityPaths, path)) {
+            return DbAdmissionLimiter.Priority.HIGH;
+        }
+        return DbAdmissionLimiter.Priority.NORMAL;
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package com.achiever.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs migrations on startup unless {@code app.flyway.migrate-on-start} is off, as in the
+ * CDS training run (profile "training"), which starts the context without a database.
+ * A property rather than spring.flyway.enabled because AOT fixes the Flyway beans at build time.
+ */
+@Configuration
+@Slf4j
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.flyway.migrate-on-start:true}") boolean migrateOnStart) {
+        return flyway -> {
+            if (migrateOnStart) {
+                flyway.migrate();
+            } else {
+                log.info("[FLYWAY] Skipping migrations on start");
+            }
+        };
+    }
+}
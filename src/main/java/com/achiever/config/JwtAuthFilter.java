@@ -2,6 +2,7 @@ package com.achiever.config;
 
 import com.achiever.entity.User;
 import com.achiever.repository.UserRepository;
+import com.achiever.service.UserPrincipalCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +27,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+
+    /**
+     * Prometheus sends the scrape token as a bearer token; SecurityConfig checks it, not JWT parsing
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + SecurityConfig.METRICS_PATH);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -35,10 +45,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = extractToken(request);
 
-        if (token != null && jwtUtils.validateToken(token)) {
-            UUID userId = jwtUtils.getUserIdFromToken(token);
+        UUID userId = token != null ? jwtUtils.verify(token).orElse(null) : null;
 
-            User user = userRepository.findById(userId).orElse(null);
+        if (userId != null) {
+            User user = userPrincipalCache.get(userId, userRepository::findById).orElse(null);
 
             if (user != null) {
                 UsernamePasswordAuthenticationToken authentication =
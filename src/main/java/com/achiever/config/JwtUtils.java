@@ -8,21 +8,39 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Issues and verifies API tokens.
+ * <p>
+ * Verification parses a token once with a shared (thread-safe) parser. Verified tokens
+ * are remembered by SHA-256 digest until they expire, so a client sending the same
+ * token on every request skips the signature check and JSON parsing.
+ */
 @Component
 @Slf4j
 public class JwtUtils {
 
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final int verifiedCacheSize;
+    private final ConcurrentHashMap<String, Verified> verified = new ConcurrentHashMap<>();
 
     public JwtUtils(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms}") long expirationMs) {
+            @Value("${app.jwt.expiration-ms}") long expirationMs,
+            @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedCacheSize = verifiedCacheSize;
     }
 
     public String generateToken(UUID userId, String email) {
@@ -38,26 +56,62 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * User id of a valid, unexpired token; empty if the token is invalid
+     */
+    public Optional<UUID> verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        Verified hit = verified.get(digest);
+        if (hit != null) {
+            if (hit.expiresAt > now) {
+                return Optional.of(hit.userId);
+            }
+            verified.remove(digest);
+        }
+
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            UUID userId = UUID.fromString(claims.getSubject());
+            if (claims.getExpiration() != null) {
+                remember(digest, new Verified(userId, claims.getExpiration().getTime()), now);
+            }
+            return Optional.of(userId);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @throws JwtException if the token is invalid
+     */
     public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verify(token).orElseThrow(() -> new JwtException("Invalid JWT token"));
+    }
 
-        return UUID.fromString(claims.getSubject());
+    int verifiedCacheSize() {
+        return verified.size();
     }
 
-    public boolean validateToken(String token) {
+    private void remember(String digest, Verified entry, long now) {
+        if (verified.size() >= verifiedCacheSize) {
+            verified.values().removeIf(v -> v.expiresAt <= now);
+        }
+        if (verified.size() < verifiedCacheSize) {
+            verified.put(digest, entry);
+        }
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
+
+    private record Verified(UUID userId, long expiresAt) {
+    }
 }
@@ -0,0 +1,82 @@
+package com.achiever.config;
+
+import com.achiever.dto.*;
+import com.achiever.jobs.MidnightSyncJobHandler;
+import com.achiever.jobs.NotificationFanoutJobHandler;
+import com.achiever.jobs.SyncPartitionJobHandler;
+import com.achiever.jobs.UserSyncJobHandler;
+import com.achiever.jobs.WeeklyResultsJobHandler;
+import com.achiever.service.NotificationStreamService;
+import com.achiever.strava.StravaActivityResponse;
+import com.achiever.strava.StravaAthleteResponse;
+import com.achiever.strava.StravaTokenResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection hints for a GraalVM native image ({@code -Pnative}) beyond what Spring AOT
+ * infers. Entities and typed controller signatures are covered by AOT; this adds types
+ * Jackson binds through {@code ResponseEntity<?>}, RestTemplate, job payloads and the
+ * notification stream, and the JJWT implementation classes that jjwt-api loads by name.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> JSON_TYPES = List.of(
+            // Strava API responses (RestTemplate)
+            StravaTokenResponse.class, StravaAthleteResponse.class, StravaActivityResponse.class,
+            // Request and response bodies, several behind ResponseEntity<?>
+            AuthResponse.class, ChallengeDTO.class, ChallengeProgressDTO.class, ChallengeResultsDTO.class,
+            CreateChallengeRequest.class, EmailCheckResponse.class, JoinChallengeRequest.class,
+            LoginRequest.class, NotificationDTO.class, NotificationPageDTO.class, ParticipantDTO.class,
+            ParticipantProgressDTO.class, ParticipantResultDTO.class, SetPasswordRequest.class,
+            UpdateChallengeRequest.class, UserDTO.class, WeekResultDTO.class,
+            // background_jobs.payload
+            MidnightSyncJobHandler.Payload.class, NotificationFanoutJobHandler.Payload.class,
+            SyncPartitionJobHandler.Payload.class, UserSyncJobHandler.Payload.class,
+            WeeklyResultsJobHandler.Payload.class,
+            // LISTEN/NOTIFY payload
+            NotificationStreamService.NotificationEvent.class);
+
+    /**
+     * Instantiated by jjwt-api through {@code Classes.newInstance}; the bridges are called statically
+     */
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            // Found through META-INF/services
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        bindingRegistrar.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.achiever.config;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -16,6 +20,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 @Configuration
@@ -23,11 +29,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    static final String METRICS_PATH = "/actuator/prometheus";
+
     private final JwtAuthFilter jwtAuthFilter;
 
     @Value("${app.frontend-url}")
     private String frontendUrl;
 
+    @Value("${app.metrics.scrape-token:}")
+    private String metricsScrapeToken;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -36,6 +47,8 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE completion) belong to a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Public endpoints
                         .requestMatchers(
                                 "/api/auth/**",
@@ -43,6 +56,9 @@ public class SecurityConfig {
                                 "/api/health",
                                 "/actuator/health"
                         ).permitAll()
+                        // Prometheus scrapes with the shared token instead of a user JWT
+                        .requestMatchers(METRICS_PATH).access((authentication, context) ->
+                                new AuthorizationDecision(isMetricsScrape(context.getRequest())))
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
@@ -51,12 +67,25 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Bearer {@code app.metrics.scrape-token}; never matches while the token is unset
+     */
+    private boolean isMetricsScrape(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (metricsScrapeToken.isBlank() || header == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(header.getBytes(StandardCharsets.UTF_8),
+                ("Bearer " + metricsScrapeToken).getBytes(StandardCharsets.UTF_8));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of(frontendUrl, "http://localhost:5173"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -4,12 +4,17 @@ import com.achiever.dto.*;
 import com.achiever.entity.User;
 import com.achiever.repository.UserRepository;
 import com.achiever.service.AuthService;
+import com.achiever.service.LoginAttemptLimiter;
+import com.achiever.service.PasswordHasher;
+import com.achiever.service.UserPrincipalCache;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.view.RedirectView;
 
@@ -25,7 +30,9 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Value("${spring.security.oauth2.client.registration.strava.client-id}")
     private String clientId;
@@ -98,22 +105,16 @@ public class AuthController {
      * Get current user
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authHeader) {
-        try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "No token provided"));
-            }
-
-            String token = authHeader.substring(7);
-            UUID userId = authService.validateTokenAndGetUserId(token);
-
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            return ResponseEntity.ok(UserDTO.fromUser(user));
-        } catch (Exception e) {
+    public ResponseEntity<?> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                            @AuthenticationPrincipal User user) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "No token provided"));
+        }
+        // The token was verified by JwtAuthFilter; no principal means it was invalid
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token"));
         }
+        return ResponseEntity.ok(UserDTO.fromUser(user));
     }
 
     @GetMapping("/check-email")
@@ -127,8 +128,15 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        Optional<User> userOpt = userRepository.findByEmail(request.getEmail().toLowerCase().trim());
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        String email = request.getEmail().toLowerCase().trim();
+
+        long retryAfter = loginAttemptLimiter.tryAcquire(email, httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+
+        Optional<User> userOpt = userRepository.findByEmail(email);
 
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(401).body(Map.of("error", "User not found"));
@@ -140,30 +148,46 @@ public class AuthController {
             return ResponseEntity.status(401).body(Map.of("error", "Password not set. Please login with Strava."));
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid password"));
         }
 
+        loginAttemptLimiter.reset(email);
         String token = authService.generateToken(user);
         return ResponseEntity.ok(Map.of("token", token));
     }
 
     @PostMapping("/set-password")
     public ResponseEntity<?> setPassword(@RequestBody SetPasswordRequest request,
-                                         @RequestHeader("Authorization") String authHeader) {
-        try {
-            String token = authHeader.replace("Bearer ", "");
-            UUID userId = authService.validateTokenAndGetUserId(token);
-
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+                                         @AuthenticationPrincipal User principal,
+                                         HttpServletRequest httpRequest) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
+        }
+        UUID userId = principal.getId();
 
-            user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
-            userRepository.save(user);
+        long retryAfter = loginAttemptLimiter.tryAcquire(userId.toString(), httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
 
-            return ResponseEntity.ok(Map.of("message", "Password set successfully"));
-        } catch (Exception e) {
+        // Load the managed user; saving the cached principal would merge stale state
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
         }
+
+        User user = userOpt.get();
+        user.setPasswordHash(passwordHasher.encode(request.getPassword()));
+        userRepository.save(user);
+        userPrincipalCache.invalidate(userId);
+
+        return ResponseEntity.ok(Map.of("message", "Password set successfully"));
+    }
+
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("error", "Too many attempts. Try again later."));
     }
 }
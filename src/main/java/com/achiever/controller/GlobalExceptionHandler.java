@@ -1,8 +1,12 @@
 package com.achiever.controller;
 
+import com.achiever.config.DbAdmissionLimiter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 @Slf4j
@@ -49,6 +54,19 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejected(RejectedExecutionException ex) {
+        return serviceUnavailable(ex.getMessage());
+    }
+
+    @ExceptionHandler({DataAccessException.class, TransactionException.class})
+    public ResponseEntity<ErrorResponse> handleDataAccess(RuntimeException ex) {
+        if (DbAdmissionLimiter.isRejection(ex)) {
+            return serviceUnavailable("Database busy, try again shortly");
+        }
+        return handleGeneral(ex);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(
             MethodArgumentNotValidException ex) {
@@ -81,4 +99,17 @@ public class GlobalExceptionHandler {
                         Instant.now()
                 ));
     }
+
+    private ResponseEntity<ErrorResponse> serviceUnavailable(String message) {
+        log.warn("Overloaded: {}", message);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorResponse(
+                        503,
+                        "Service Unavailable",
+                        message,
+                        Instant.now()
+                ));
+    }
 }
@@ -1,14 +1,19 @@
 package com.achiever.controller;
 
 import com.achiever.dto.NotificationDTO;
+import com.achiever.dto.NotificationPageDTO;
 import com.achiever.entity.User;
 import com.achiever.service.NotificationService;
+import com.achiever.service.NotificationStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -16,14 +21,40 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
     /**
-     * Get all notifications for current user
+     * Get notifications for current user, newest first, in the language of Accept-Language.
+     * The body stays a plain list; the cursor for the next page is in the X-Next-Cursor header.
      */
     @GetMapping
-    public ResponseEntity<List<NotificationDTO>> getNotifications(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(notificationService.getUserNotifications(user.getId()));
+    public ResponseEntity<List<NotificationDTO>> getNotifications(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + NotificationService.DEFAULT_PAGE_SIZE) int limit,
+            Locale locale) {
+        NotificationPageDTO page = notificationService.getUserNotifications(user.getId(), cursor, limit, locale);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.notifications());
+    }
+
+    /**
+     * Stream new notifications as server-sent events ("notification" events carrying a NotificationDTO).
+     * Reconnecting with Last-Event-ID replays what was missed; a "resync" event means too much
+     * was missed and the client should reload the list.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationStreamService.subscribe(user.getId(), lastEventId);
     }
 
     /**
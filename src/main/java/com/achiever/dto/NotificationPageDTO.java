@@ -0,0 +1,8 @@
+package com.achiever.dto;
+
+import java.util.List;
+
+public record NotificationPageDTO(
+        List<NotificationDTO> notifications,
+        String nextCursor
+) {}
@@ -0,0 +1,8 @@
+package com.achiever.entity;
+
+public enum BackgroundJobStatus {
+    PENDING,    // Waiting for run_at (new or retrying after backoff)
+    RUNNING,    // Claimed by a worker
+    DONE,       // Finished successfully
+    DEAD        // Gave up after max_attempts
+}
@@ -0,0 +1,9 @@
+package com.achiever.entity;
+
+public enum BackgroundJobType {
+    USER_SYNC,              // Fetch a user's Strava activities and update their progress
+    SYNC_PARTITION,         // Sync the users hashed into one partition of the nightly sync
+    NOTIFICATION_FANOUT,    // Create notifications for a batch of challenges
+    MIDNIGHT_SYNC,          // Daily status transitions / sync / completion run
+    WEEKLY_RESULTS          // Weekly standings for active challenges
+}
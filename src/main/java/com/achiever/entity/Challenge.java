@@ -20,7 +20,7 @@ import java.util.UUID;
 public class Challenge {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -60,6 +60,11 @@ public class Challenge {
     @JoinColumn(name = "winner_id")
     private User winner;
 
+    // Set by ChallengeArchivalService once the daily_progress rows are compacted into
+    // challenge_progress_summaries; never written through the entity
+    @Column(name = "progress_archived_at", insertable = false, updatable = false)
+    private Instant progressArchivedAt;
+
 
     public void addParticipant(ChallengeParticipant participant) {
         participants.add(participant);
@@ -0,0 +1,77 @@
+package com.achiever.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Final progress of a participant in a finished challenge, kept after its daily_progress
+ * rows are archived (see ChallengeArchivalService)
+ */
+@Entity
+@Table(name = "challenge_progress_summaries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"challenge_id", "user_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChallengeProgressSummary {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "challenge_id", nullable = false)
+    private Challenge challenge;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Date of the daily_progress row it was taken from
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(name = "distance_meters", nullable = false)
+    private Integer distanceMeters;
+
+    @Column(name = "run_meters", nullable = false)
+    private Integer runMeters;
+
+    @Column(name = "ride_meters", nullable = false)
+    private Integer rideMeters;
+
+    @Column(name = "swim_meters", nullable = false)
+    private Integer swimMeters;
+
+    @Column(name = "walk_meters", nullable = false)
+    private Integer walkMeters;
+
+    @Column(name = "progress_percent", nullable = false)
+    private Integer progressPercent;
+
+    @Column(name = "archived_at", nullable = false)
+    @Builder.Default
+    private Instant archivedAt = Instant.now();
+
+    /**
+     * The final day's progress, for code that reads DailyProgress
+     */
+    public DailyProgress toDailyProgress() {
+        return DailyProgress.builder()
+                .challenge(challenge)
+                .user(user)
+                .date(lastDate)
+                .distanceMeters(distanceMeters)
+                .runMeters(runMeters)
+                .rideMeters(rideMeters)
+                .swimMeters(swimMeters)
+                .walkMeters(walkMeters)
+                .progressPercent(progressPercent)
+                .build();
+    }
+}
@@ -17,7 +17,7 @@ import java.util.UUID;
 public class ChallengeWeekResult {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,18 +27,21 @@ public class ChallengeWeekResult {
     @Column(name = "week_start", nullable = false)
     private LocalDate weekStart;
 
+    // Legacy two-participant columns - null unless the challenge has exactly 2 participants.
+    // Per-participant results live in challenge_week_standings, written by
+    // ChallengeWeekResultRepository.insertWeekResultsForActiveChallenges.
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_a_id", nullable = false)
+    @JoinColumn(name = "user_a_id")
     private User userA;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_b_id", nullable = false)
+    @JoinColumn(name = "user_b_id")
     private User userB;
 
-    @Column(name = "user_a_percent", nullable = false)
+    @Column(name = "user_a_percent")
     private Integer userAPercent;
 
-    @Column(name = "user_b_percent", nullable = false)
+    @Column(name = "user_b_percent")
     private Integer userBPercent;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -19,7 +19,7 @@ import java.util.UUID;
 public class DailyProgress {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,6 @@
+package com.achiever.entity;
+
+public enum JobChunkStatus {
+    COMPLETED,  // Committed, skipped when the run is resumed
+    FAILED      // Rolled back, retried when the run is resumed
+}
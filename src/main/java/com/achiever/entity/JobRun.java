@@ -0,0 +1,55 @@
+package com.achiever.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "job_runs",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"job_name", "run_key"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRun {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    // Identifies one logical run, e.g. the date of a nightly job
+    @Column(name = "run_key", nullable = false, length = 50)
+    private String runKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private JobRunStatus status = JobRunStatus.RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    @Builder.Default
+    private Instant startedAt = Instant.now();
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "chunks_completed", nullable = false)
+    @Builder.Default
+    private Integer chunksCompleted = 0;
+
+    @Column(name = "chunks_failed", nullable = false)
+    @Builder.Default
+    private Integer chunksFailed = 0;
+
+    @Column(name = "items_processed", nullable = false)
+    @Builder.Default
+    private Integer itemsProcessed = 0;
+}
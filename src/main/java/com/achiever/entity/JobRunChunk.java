@@ -0,0 +1,47 @@
+package com.achiever.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "job_run_chunks",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"job_run_id", "chunk_key"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRunChunk {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_run_id", nullable = false)
+    private JobRun jobRun;
+
+    @Column(name = "chunk_key", nullable = false, length = 100)
+    private String chunkKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobChunkStatus status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 1;
+
+    @Column(name = "items_processed", nullable = false)
+    @Builder.Default
+    private Integer itemsProcessed = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,7 @@
+package com.achiever.entity;
+
+public enum JobRunStatus {
+    RUNNING,    // Started, not all chunks processed yet (resumed on startup)
+    COMPLETED,  // Every chunk completed
+    FAILED      // Finished, but at least one chunk failed
+}
@@ -2,8 +2,11 @@ package com.achiever.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -16,7 +19,7 @@ import java.util.UUID;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -31,7 +34,16 @@ public class Notification {
     @JoinColumn(name = "challenge_id")
     private Challenge challenge;
 
-    @Column(nullable = false)
+    // Who caused the notification (joined, left, forfeited), rendered as {actor}
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "actor_id")
+    private User actor;
+
+    // Extra template values, e.g. {"count": 3} for a digest
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> params;
+
+    // Pre-rendered text of notifications created before templates; null for new rows
     private String message;
 
     @Column(name = "is_read", nullable = false)
@@ -0,0 +1,46 @@
+package com.achiever.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Message template for a notification type in one language (see V15)
+ */
+@Entity
+@Table(name = "notification_templates")
+@IdClass(NotificationTemplate.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationTemplate {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private NotificationType type;
+
+    @Id
+    @Column(length = 10)
+    private String locale;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String template;
+
+    // Used when one notification stands for several ({count})
+    @Column(name = "digest_template", columnDefinition = "TEXT")
+    private String digestTemplate;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private NotificationType type;
+        private String locale;
+    }
+}
@@ -2,6 +2,7 @@ package com.achiever.entity;
 
 public enum NotificationType {
     CHALLENGE_JOINED,       // Opponent joined your challenge
+    CHALLENGE_LEFT,         // Opponent left your scheduled challenge
     CHALLENGE_STARTED,      // Challenge became ACTIVE
     CHALLENGE_COMPLETED,    // Challenge ended naturally
     CHALLENGE_WON,          // You won
@@ -1,8 +1,24 @@
 package com.achiever.entity;
 
 public enum SportType {
-    RUN,
-    RIDE,
-    SWIM,
-    WALK
+    RUN(1),
+    RIDE(2),
+    SWIM(3),
+    WALK(4);
+
+    // strava_activities.sport_code of sports no challenge counts
+    public static final short OTHER_CODE = 0;
+
+    private final short code;
+
+    SportType(int code) {
+        this.code = (short) code;
+    }
+
+    /**
+     * Stored in strava_activities.sport_code
+     */
+    public short code() {
+        return code;
+    }
 }
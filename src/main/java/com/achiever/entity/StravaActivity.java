@@ -2,6 +2,8 @@ package com.achiever.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.Instant;
 import java.time.OffsetDateTime;
 
@@ -12,7 +14,7 @@ import java.time.OffsetDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class StravaActivity {
+public class StravaActivity implements Persistable<Long> {
 
     @Id
     private Long id; // Strava's activity ID
@@ -21,8 +23,8 @@ public class StravaActivity {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(name = "sport_type", nullable = false, length = 20)
-    private String sportType; // Strava's sport type string
+    @Column(name = "sport_code", nullable = false)
+    private short sportCode; // SportType.code(), or SportType.OTHER_CODE
 
     @Column(length = 255)
     private String name;
@@ -39,4 +41,23 @@ public class StravaActivity {
     @Column(name = "synced_at", nullable = false)
     @Builder.Default
     private Instant syncedAt = Instant.now();
+
+    // The id comes from Strava, so save() can't tell new activities apart by a null id
+    // and would merge (select, then insert) each one
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -15,7 +15,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(unique = true, nullable = false, length = 50)
@@ -35,6 +35,8 @@ public class User {
     @Builder.Default
     private Instant createdAt = Instant.now();
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Eager as without bytecode enhancement Hibernate loads the inverse side regardless;
+    // enhanced (-Pnative) builds would otherwise leave it unloaded outside the session
+    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     private StravaConnection stravaConnection;
 }
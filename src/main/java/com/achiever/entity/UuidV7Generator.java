@@ -0,0 +1,49 @@
+package com.achiever.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562): 48-bit Unix milliseconds, a 12-bit counter and 62 random bits.
+ * New ids sort after older ones, so primary key inserts append to the right edge of the
+ * B-tree instead of splitting random pages like v4 ids do. The counter keeps ids from
+ * this JVM strictly increasing within a millisecond and across clock steps back.
+ * Uuid_generate_v7() (V17) is the database-side counterpart for SQL inserts.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Last (millis << 12 | counter) handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        // A counter overflow moves on to the next millisecond
+        long tick = LAST.updateAndGet(last -> Math.max(last + 1, epochMillis << 12));
+        long msb = (tick >>> 12) << 16 | 0x7000L | (tick & 0xFFF);
+        long lsb = RANDOM.nextLong() >>> 2 | Long.MIN_VALUE;
+        return new UUID(msb, lsb);
+    }
+}
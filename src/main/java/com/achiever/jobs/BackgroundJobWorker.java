@@ -0,0 +1,176 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.ClusterLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the background_jobs queue and runs claimed jobs on virtual threads,
+ * at most {@code app.jobs.concurrency} at a time per instance.
+ */
+@Component
+@Slf4j
+public class BackgroundJobWorker {
+
+    private static final Duration DONE_RETENTION = Duration.ofDays(3);
+    private static final String MAINTENANCE_LOCK = "job-queue-maintenance";
+
+    private final BackgroundJobService jobService;
+    private final ClusterLockService clusterLockService;
+    private final Map<BackgroundJobType, JobHandler> handlers = new EnumMap<>(BackgroundJobType.class);
+    private final TransactionTemplate jobTransaction;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration lockTimeout;
+    private final Semaphore slots;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("job-worker-", 0).factory());
+    private final String workerId = workerId();
+
+    public BackgroundJobWorker(BackgroundJobService jobService,
+                               ClusterLockService clusterLockService,
+                               List<JobHandler> handlers,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.jobs.enabled:true}") boolean enabled,
+                               @Value("${app.jobs.concurrency:2}") int concurrency,
+                               @Value("${app.jobs.lock-timeout-minutes:5}") long lockTimeoutMinutes) {
+        this.jobService = jobService;
+        this.clusterLockService = clusterLockService;
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+        this.jobTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.lockTimeout = Duration.ofMinutes(lockTimeoutMinutes);
+        this.slots = new Semaphore(concurrency);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled || slots.availablePermits() == 0) {
+            return;
+        }
+
+        List<BackgroundJob> jobs;
+        try {
+            jobs = jobService.claim(workerId, slots.availablePermits());
+        } catch (Exception e) {
+            log.warn("[QUEUE] Failed to claim jobs: {}", e.getMessage());
+            return;
+        }
+
+        for (BackgroundJob job : jobs) {
+            slots.acquireUninterruptibly();
+            running.add(job.getId());
+            executor.execute(() -> {
+                try {
+                    execute(job);
+                } finally {
+                    running.remove(job.getId());
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Keep locks of long-running jobs fresh, requeue jobs abandoned by dead workers
+     * and drop old finished jobs. Heartbeats are per instance; the cleanup only needs
+     * to run on one.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.maintenance-interval-ms:60000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!running.isEmpty()) {
+                jobService.heartbeat(workerId, List.copyOf(running));
+            }
+            clusterLockService.runExclusively(MAINTENANCE_LOCK, () -> {
+                jobService.releaseStale(lockTimeout);
+                jobService.purgeDone(DONE_RETENTION);
+            });
+        } catch (Exception e) {
+            log.warn("[QUEUE] Maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    void execute(BackgroundJob job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+
+        try {
+            JobHandler handler = handlers.get(job.getType());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for job type " + job.getType());
+            }
+
+            if (handler.transactional()) {
+                jobTransaction.executeWithoutResult(status -> {
+                    handler.handle(job);
+                    jobService.markDone(job);
+                });
+            } else {
+                handler.handle(job);
+                jobService.markDone(job);
+            }
+            outcome = "done";
+        } catch (Exception e) {
+            outcome = markFailed(job, e);
+        }
+
+        sample.stop(Timer.builder("jobs.duration")
+                .tag("type", job.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private String markFailed(BackgroundJob job, Exception error) {
+        try {
+            return jobService.markFailed(job, error) ? "retried" : "dead";
+        } catch (Exception e) {
+            // The lock will go stale and the job will be retried
+            log.error("[QUEUE] Could not record failure of job {}", job.getId(), e);
+            return "error";
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("[QUEUE] {} job(s) still running at shutdown, they will be retried", running.size());
+        }
+    }
+
+    private static String workerId() {
+        // "pid@hostname"
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        return name.length() > 100 ? name.substring(0, 100) : name;
+    }
+}
@@ -0,0 +1,23 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+
+/**
+ * Executes one type of background job. Throwing marks the job failed and
+ * schedules a retry with backoff, so handlers must be safe to run again.
+ */
+public interface JobHandler {
+
+    BackgroundJobType type();
+
+    void handle(BackgroundJob job);
+
+    /**
+     * Whether the handler's work and marking the job done commit in one transaction.
+     * Long jobs that commit in chunks of their own return false.
+     */
+    default boolean transactional() {
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.entity.JobRunStatus;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.ChallengeSchedulerService;
+import com.achiever.service.JobRunService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Run the midnight job for a date. Failed chunks fail the queue job, so the run is
+ * retried with backoff and only the unfinished chunks are redone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MidnightSyncJobHandler implements JobHandler {
+
+    public record Payload(LocalDate date) {}
+
+    private final BackgroundJobService jobService;
+    private final JobRunService jobRunService;
+    private final ChallengeSchedulerService schedulerService;
+
+    @Override
+    public BackgroundJobType type() {
+        return BackgroundJobType.MIDNIGHT_SYNC;
+    }
+
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        LocalDate date = jobService.readPayload(job, Payload.class).date();
+        if (jobRunService.isCompleted(ChallengeSchedulerService.MIDNIGHT_SYNC_JOB, date.toString())) {
+            log.info("[QUEUE] Midnight sync for {} already completed", date);
+            return;
+        }
+
+        if (schedulerService.midnightSync(date) == JobRunStatus.FAILED) {
+            throw new IllegalStateException("Midnight sync for " + date + " has failed chunks");
+        }
+    }
+
+    public static String dedupeKey(LocalDate date) {
+        return ChallengeSchedulerService.MIDNIGHT_SYNC_JOB + ":" + date;
+    }
+}
@@ -0,0 +1,98 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.entity.Challenge;
+import com.achiever.entity.User;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.UserRepository;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.NotificationService;
+import com.fasterxml.jackson.annotation.JsonAlias;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outbox worker for notifications: expands a challenge event into one notification per
+ * recipient, written as a batch.
+ * Runs in the same transaction that marks the job done, so an event is notified once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationFanoutJobHandler implements JobHandler {
+
+    /**
+     * Challenge events that produce notifications
+     */
+    public enum Event {
+        CHALLENGE_JOINED,
+        CHALLENGE_LEFT,
+        CHALLENGE_STARTED,
+        CHALLENGE_COMPLETED,
+        CHALLENGE_FORFEITED,
+        CHALLENGE_EXPIRED
+    }
+
+    /**
+     * @param actorId the user who joined, left or forfeited; null for status changes
+     */
+    public record Payload(@JsonAlias("notificationType") Event event, List<UUID> challengeIds, UUID actorId) {
+
+        public Payload(Event event, List<UUID> challengeIds) {
+            this(event, challengeIds, null);
+        }
+    }
+
+    private final BackgroundJobService jobService;
+    private final ChallengeRepository challengeRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+
+    @Override
+    public BackgroundJobType type() {
+        return BackgroundJobType.NOTIFICATION_FANOUT;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        Payload payload = jobService.readPayload(job, Payload.class);
+        User actor = payload.actorId() != null ? userRepository.findById(payload.actorId()).orElse(null) : null;
+
+        List<Challenge> challenges = challengeRepository.findAllByIdWithParticipants(payload.challengeIds());
+
+        switch (payload.event()) {
+            // Batches from the scheduler: one user may get several, which are coalesced
+            case CHALLENGE_EXPIRED -> notificationService.notifyChallengesExpired(challenges);
+            case CHALLENGE_STARTED -> notificationService.notifyChallengesStarted(challenges);
+            default -> challenges.forEach(challenge -> notifyChallengeEvent(payload.event(), challenge, actor));
+        }
+        log.info("[QUEUE] Sent {} notifications for {} challenges", payload.event(), payload.challengeIds().size());
+    }
+
+    private void notifyChallengeEvent(Event event, Challenge challenge, User actor) {
+        switch (event) {
+            case CHALLENGE_COMPLETED -> notificationService.notifyChallengeCompleted(challenge, challenge.getWinner());
+            case CHALLENGE_JOINED -> {
+                if (actor != null) {
+                    notificationService.notifyOpponentJoined(challenge.getCreatedBy(), actor, challenge);
+                }
+            }
+            case CHALLENGE_LEFT -> {
+                if (actor != null) {
+                    notificationService.notifyOpponentLeft(actor, challenge);
+                }
+            }
+            case CHALLENGE_FORFEITED -> {
+                if (actor != null && challenge.getWinner() != null) {
+                    notificationService.notifyOpponentForfeited(actor, challenge.getWinner(), challenge);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported notification event " + event);
+        }
+    }
+}
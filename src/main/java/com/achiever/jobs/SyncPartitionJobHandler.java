@@ -0,0 +1,69 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.repository.ChallengeParticipantRepository;
+import com.achiever.repository.ChallengeParticipantRepository.SyncTarget;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.strava.StravaSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Nightly Strava sync for the users hashed into one partition. Partitions are separate
+ * queue jobs, so every instance's workers take a share of the sync.
+ * Each user is synced once (covering all their active challenges) and commits on its own;
+ * a failed user is handed to a USER_SYNC job instead of failing the whole partition.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyncPartitionJobHandler implements JobHandler {
+
+    public record Payload(LocalDate date, int partition, int partitions) {}
+
+    private final BackgroundJobService jobService;
+    private final ChallengeParticipantRepository participantRepository;
+    private final StravaSyncService stravaSyncService;
+
+    @Override
+    public BackgroundJobType type() {
+        return BackgroundJobType.SYNC_PARTITION;
+    }
+
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        Payload payload = jobService.readPayload(job, Payload.class);
+        List<SyncTarget> targets = participantRepository.findSyncTargetsInPartition(
+                payload.partition(), payload.partitions());
+
+        int synced = 0;
+        for (SyncTarget target : targets) {
+            try {
+                stravaSyncService.syncActivitiesForDateRange(target.getUserId(), target.getFromDate(), payload.date());
+                synced++;
+            } catch (Exception e) {
+                log.warn("[QUEUE] Sync failed for user {}, retrying separately: {}", target.getUserId(), e.getMessage());
+                jobService.enqueue(BackgroundJobType.USER_SYNC,
+                        new UserSyncJobHandler.Payload(target.getUserId(), target.getFromDate(), payload.date()),
+                        UserSyncJobHandler.dedupeKey(target.getUserId(), target.getFromDate()));
+            }
+        }
+
+        log.info("[QUEUE] Sync partition {}/{} for {}: {} of {} users synced",
+                payload.partition() + 1, payload.partitions(), payload.date(), synced, targets.size());
+    }
+
+    public static String dedupeKey(LocalDate date, int partition) {
+        return "sync-partition:" + date + ":" + partition;
+    }
+}
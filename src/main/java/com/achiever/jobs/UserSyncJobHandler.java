@@ -0,0 +1,43 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.strava.StravaSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Fetch a user's Strava activities for a date range and update progress in their active challenges.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSyncJobHandler implements JobHandler {
+
+    public record Payload(UUID userId, LocalDate fromDate, LocalDate toDate) {}
+
+    private final BackgroundJobService jobService;
+    private final StravaSyncService stravaSyncService;
+
+    @Override
+    public BackgroundJobType type() {
+        return BackgroundJobType.USER_SYNC;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        Payload payload = jobService.readPayload(job, Payload.class);
+        stravaSyncService.syncActivitiesForDateRange(payload.userId(), payload.fromDate(), payload.toDate());
+        log.info("[QUEUE] Synced Strava for user {} from {} to {}",
+                payload.userId(), payload.fromDate(), payload.toDate());
+    }
+
+    public static String dedupeKey(UUID userId, LocalDate fromDate) {
+        return "user-sync:" + userId + ":" + fromDate;
+    }
+}
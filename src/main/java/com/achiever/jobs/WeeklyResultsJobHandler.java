@@ -0,0 +1,55 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.entity.JobRunStatus;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.ChallengeSchedulerService;
+import com.achiever.service.JobRunService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Compute weekly results for the week starting on the payload's Monday.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WeeklyResultsJobHandler implements JobHandler {
+
+    public record Payload(LocalDate weekStart) {}
+
+    private final BackgroundJobService jobService;
+    private final JobRunService jobRunService;
+    private final ChallengeSchedulerService schedulerService;
+
+    @Override
+    public BackgroundJobType type() {
+        return BackgroundJobType.WEEKLY_RESULTS;
+    }
+
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+
+    @Override
+    public void handle(BackgroundJob job) {
+        LocalDate weekStart = jobService.readPayload(job, Payload.class).weekStart();
+        if (jobRunService.isCompleted(ChallengeSchedulerService.WEEKLY_RESULTS_JOB, weekStart.toString())) {
+            log.info("[QUEUE] Weekly results for {} already completed", weekStart);
+            return;
+        }
+
+        if (schedulerService.calculateWeeklyResults(weekStart) == JobRunStatus.FAILED) {
+            throw new IllegalStateException("Weekly results for " + weekStart + " failed");
+        }
+    }
+
+    public static String dedupeKey(LocalDate weekStart) {
+        return ChallengeSchedulerService.WEEKLY_RESULTS_JOB + ":" + weekStart;
+    }
+}
@@ -0,0 +1,115 @@
+package com.achiever.repository;
+
+import com.achiever.entity.BackgroundJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, UUID> {
+
+    /**
+     * Insert a job unless a PENDING/RUNNING job with the same dedupe key exists.
+     *
+     * @return 1 if inserted, 0 if deduplicated
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO background_jobs (id, type, payload, dedupe_key, status, attempts, max_attempts, run_at, created_at)
+        VALUES (uuid_generate_v7(), :type, :payload, :dedupeKey, 'PENDING', 0, :maxAttempts,
+                NOW() + make_interval(secs => :delaySeconds), NOW())
+        ON CONFLICT (dedupe_key) WHERE status IN ('PENDING', 'RUNNING') DO NOTHING
+        """, nativeQuery = true)
+    int enqueue(String type, String payload, String dedupeKey, int maxAttempts, long delaySeconds);
+
+    /**
+     * Claim up to :limit due jobs for this worker.
+     * SKIP LOCKED lets several workers (and app instances) claim concurrently without
+     * blocking on or double-claiming each other's rows.
+     */
+    @Query(value = """
+        UPDATE background_jobs j
+        SET status = 'RUNNING', locked_at = NOW(), locked_by = :workerId, attempts = j.attempts + 1
+        WHERE j.id IN (
+            SELECT id FROM background_jobs
+            WHERE status = 'PENDING' AND run_at <= NOW()
+            ORDER BY run_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING j.*
+        """, nativeQuery = true)
+    List<BackgroundJob> claim(String workerId, int limit);
+
+    @Modifying
+    @Query(value = """
+        UPDATE background_jobs
+        SET status = 'DONE', finished_at = NOW(), locked_at = NULL, last_error = NULL
+        WHERE id = :id
+        """, nativeQuery = true)
+    void markDone(UUID id);
+
+    @Modifying
+    @Query(value = """
+        UPDATE background_jobs
+        SET status = 'PENDING', run_at = NOW() + make_interval(secs => :delaySeconds),
+            locked_at = NULL, locked_by = NULL, last_error = :error
+        WHERE id = :id
+        """, nativeQuery = true)
+    void scheduleRetry(UUID id, long delaySeconds, String error);
+
+    @Modifying
+    @Query(value = """
+        UPDATE background_jobs
+        SET status = 'DEAD', finished_at = NOW(), locked_at = NULL, last_error = :error
+        WHERE id = :id
+        """, nativeQuery = true)
+    void markDead(UUID id, String error);
+
+    /**
+     * Refresh the lock of jobs a live worker is still running.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE background_jobs
+        SET locked_at = NOW()
+        WHERE id IN (:ids) AND locked_by = :workerId AND status = 'RUNNING'
+        """, nativeQuery = true)
+    void heartbeat(String workerId, Collection<UUID> ids);
+
+    /**
+     * Give up on stale jobs whose worker died during their last attempt.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE background_jobs
+        SET status = 'DEAD', finished_at = NOW(), locked_at = NULL, last_error = :error
+        WHERE status = 'RUNNING' AND locked_at < NOW() - make_interval(secs => :lockTimeoutSeconds)
+          AND attempts >= max_attempts
+        """, nativeQuery = true)
+    int markStaleDead(long lockTimeoutSeconds, String error);
+
+    /**
+     * Return jobs whose worker died (machine stopped, redeploy) to the queue, with the
+     * same backoff as {@link #scheduleRetry}: base * 2^(attempts - 1), capped at max.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE background_jobs
+        SET status = 'PENDING', locked_at = NULL, locked_by = NULL, last_error = :error,
+            run_at = NOW() + make_interval(secs => LEAST(
+                :baseDelaySeconds * power(2, LEAST(GREATEST(attempts - 1, 0), 16)), :maxDelaySeconds))
+        WHERE status = 'RUNNING' AND locked_at < NOW() - make_interval(secs => :lockTimeoutSeconds)
+          AND attempts < max_attempts
+        """, nativeQuery = true)
+    int releaseStale(long lockTimeoutSeconds, long baseDelaySeconds, long maxDelaySeconds, String error);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM background_jobs
+        WHERE status = 'DONE' AND finished_at < NOW() - make_interval(secs => :retentionSeconds)
+        """, nativeQuery = true)
+    int purgeDone(long retentionSeconds);
+}
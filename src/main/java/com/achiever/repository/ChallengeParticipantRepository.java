@@ -3,6 +3,7 @@ package com.achiever.repository;
 import com.achiever.entity.ChallengeParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,4 +24,26 @@ public interface ChallengeParticipantRepository extends JpaRepository<ChallengeP
         WHERE p.challenge.status = 'ACTIVE'
         """)
     List<UUID> findActiveParticipantUserIds();
+
+    /**
+     * Users with a Strava connection and a non-forfeited place in an ACTIVE challenge,
+     * restricted to those whose id hashes into the given partition.
+     * fromDate is the earliest start of their active challenges.
+     */
+    @Query(value = """
+        SELECT p.user_id AS userId, MIN(c.start_at) AS fromDate
+        FROM challenge_participants p
+        JOIN challenges c ON c.id = p.challenge_id
+        JOIN strava_connection s ON s.user_id = p.user_id
+        WHERE c.status = 'ACTIVE'
+          AND p.forfeited_at IS NULL
+          AND mod(abs(hashtext(p.user_id::text)::bigint), :partitions) = :partition
+        GROUP BY p.user_id
+        """, nativeQuery = true)
+    List<SyncTarget> findSyncTargetsInPartition(int partition, int partitions);
+
+    interface SyncTarget {
+        UUID getUserId();
+        LocalDate getFromDate();
+    }
 }
@@ -0,0 +1,47 @@
+package com.achiever.repository;
+
+import com.achiever.entity.ChallengeProgressSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ChallengeProgressSummaryRepository extends JpaRepository<ChallengeProgressSummary, UUID> {
+
+    @Query("SELECT s FROM ChallengeProgressSummary s WHERE s.challenge.id = :challengeId")
+    List<ChallengeProgressSummary> findByChallengeId(UUID challengeId);
+
+    /**
+     * Summarise each participant's latest daily_progress row of the given challenges.
+     * A row newer than an existing summary (progress written after an earlier run)
+     * replaces it, so running again is harmless.
+     *
+     * @return number of summaries written
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO challenge_progress_summaries (id, challenge_id, user_id, last_date, distance_meters,
+                                                  run_meters, ride_meters, swim_meters, walk_meters,
+                                                  progress_percent, archived_at)
+        SELECT uuid_generate_v7(), latest.*, NOW()
+        FROM (
+            SELECT DISTINCT ON (challenge_id, user_id)
+                   challenge_id, user_id, date, distance_meters, COALESCE(run_meters, 0),
+                   COALESCE(ride_meters, 0), COALESCE(swim_meters, 0), COALESCE(walk_meters, 0),
+                   progress_percent
+            FROM daily_progress
+            WHERE challenge_id IN :challengeIds
+            ORDER BY challenge_id, user_id, date DESC
+        ) latest
+        ON CONFLICT (challenge_id, user_id) DO UPDATE
+        SET last_date = EXCLUDED.last_date, distance_meters = EXCLUDED.distance_meters,
+            run_meters = EXCLUDED.run_meters, ride_meters = EXCLUDED.ride_meters,
+            swim_meters = EXCLUDED.swim_meters, walk_meters = EXCLUDED.walk_meters,
+            progress_percent = EXCLUDED.progress_percent, archived_at = EXCLUDED.archived_at
+        WHERE EXCLUDED.last_date >= challenge_progress_summaries.last_date
+        """, nativeQuery = true)
+    int summarizeLatestProgress(Collection<UUID> challengeIds);
+}
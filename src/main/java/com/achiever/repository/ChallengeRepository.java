@@ -2,9 +2,13 @@ package com.achiever.repository;
 
 import com.achiever.entity.Challenge;
 import com.achiever.entity.ChallengeStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,17 +20,78 @@ public interface ChallengeRepository extends JpaRepository<Challenge, UUID> {
     @Query("SELECT c FROM Challenge c LEFT JOIN FETCH c.participants WHERE c.id = :id")
     Optional<Challenge> findByIdWithParticipants(UUID id);
 
+    /**
+     * Locks the challenge row until the transaction ends, so concurrent jobs can't both complete it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Challenge c WHERE c.id = :id")
+    Optional<Challenge> findByIdForUpdate(UUID id);
+
     @Query("SELECT c FROM Challenge c LEFT JOIN FETCH c.participants WHERE c.inviteCode = :code")
     Optional<Challenge> findByInviteCodeWithParticipants(String code);
 
     List<Challenge> findByStatus(ChallengeStatus status);
 
+    @Query("""
+        SELECT DISTINCT c FROM Challenge c
+        JOIN FETCH c.createdBy
+        LEFT JOIN FETCH c.participants p
+        LEFT JOIN FETCH p.user
+        WHERE c.id IN :ids
+        """)
+    List<Challenge> findAllByIdWithParticipants(Collection<UUID> ids);
+
+    /**
+     * PENDING -> EXPIRED for every challenge whose end date passed without an opponent.
+     * Returns the ids of the transitioned challenges.
+     */
+    @Query(value = """
+        UPDATE challenges SET status = 'EXPIRED'
+        WHERE status = 'PENDING' AND end_at < :today
+        RETURNING id
+        """, nativeQuery = true)
+    List<UUID> expirePendingEndedBefore(LocalDate today);
+
+    /**
+     * SCHEDULED -> ACTIVE for every challenge whose start date has been reached.
+     * Returns the ids of the transitioned challenges.
+     */
+    @Query(value = """
+        UPDATE challenges SET status = 'ACTIVE'
+        WHERE status = 'SCHEDULED' AND start_at <= :today
+        RETURNING id
+        """, nativeQuery = true)
+    List<UUID> activateScheduledStartedBy(LocalDate today);
+
+    /**
+     * Finished challenges that ended before the cutoff and still have daily_progress rows
+     * to archive, oldest first
+     */
+    @Query(value = """
+        SELECT id FROM challenges
+        WHERE progress_archived_at IS NULL AND status IN ('COMPLETED', 'EXPIRED', 'CANCELLED')
+        AND end_at < :cutoff
+        ORDER BY end_at
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findIdsToArchiveEndedBefore(LocalDate cutoff, int limit);
+
+    @Modifying
+    @Query(value = "UPDATE challenges SET progress_archived_at = NOW() WHERE id IN :ids", nativeQuery = true)
+    int markProgressArchived(Collection<UUID> ids);
+
     @Query("SELECT c FROM Challenge c WHERE c.status = :status AND c.startAt <= :date")
     List<Challenge> findByStatusAndStartAtBefore(ChallengeStatus status, LocalDate date);
 
     @Query("SELECT c FROM Challenge c WHERE c.status = :status AND c.endAt < :date")
     List<Challenge> findByStatusAndEndAtBefore(ChallengeStatus status, LocalDate date);
 
+    @Query("SELECT c.id FROM Challenge c WHERE c.status = :status")
+    List<UUID> findIdsByStatus(ChallengeStatus status);
+
+    @Query("SELECT c.id FROM Challenge c WHERE c.status = :status AND c.endAt < :date")
+    List<UUID> findIdsByStatusAndEndAtBefore(ChallengeStatus status, LocalDate date);
+
     @Query("""
         SELECT DISTINCT c FROM Challenge c
         JOIN c.participants p
@@ -42,4 +107,15 @@ public interface ChallengeRepository extends JpaRepository<Challenge, UUID> {
         ORDER BY c.createdAt DESC
         """)
     List<Challenge> findByParticipantUserIdAndStatus(UUID userId, ChallengeStatus status);
+
+    /**
+     * Names only, for rendering notifications of many challenges at once
+     */
+    @Query("SELECT c.id AS id, c.name AS name FROM Challenge c WHERE c.id IN :ids")
+    List<ChallengeName> findNamesByIdIn(Collection<UUID> ids);
+
+    interface ChallengeName {
+        UUID getId();
+        String getName();
+    }
 }
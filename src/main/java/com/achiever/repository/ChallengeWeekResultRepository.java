@@ -2,6 +2,8 @@ package com.achiever.repository;
 
 import com.achiever.entity.ChallengeWeekResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +16,56 @@ public interface ChallengeWeekResultRepository extends JpaRepository<ChallengeWe
     Optional<ChallengeWeekResult> findByChallengeIdAndWeekStart(UUID challengeId, LocalDate weekStart);
 
     boolean existsByChallengeIdAndWeekStart(UUID challengeId, LocalDate weekStart);
+
+    /**
+     * Compute the week for every ACTIVE challenge in one statement.
+     * Each participant's latest daily_progress up to asOf is ranked within its challenge
+     * and stored in challenge_week_standings; challenges that got new standings also get a
+     * challenge_week_results row (winner = sole rank 1, otherwise tie). Weeks that were
+     * already computed are left untouched (ON CONFLICT DO NOTHING), so re-running is safe.
+     *
+     * @return number of challenges whose week result was inserted
+     */
+    @Modifying
+    @Query(value = """
+        WITH latest AS (
+            SELECT dp.challenge_id, dp.user_id, dp.progress_percent,
+                   ROW_NUMBER() OVER (PARTITION BY dp.challenge_id, dp.user_id ORDER BY dp.date DESC) AS rn
+            FROM daily_progress dp
+            JOIN challenges c ON c.id = dp.challenge_id
+            WHERE c.status = 'ACTIVE' AND dp.date <= :asOf
+        ),
+        standings AS (
+            SELECT cp.challenge_id, cp.user_id, cp.joined_at,
+                   COALESCE(l.progress_percent, 0) AS progress_percent,
+                   RANK() OVER (PARTITION BY cp.challenge_id ORDER BY COALESCE(l.progress_percent, 0) DESC) AS rank
+            FROM challenge_participants cp
+            JOIN challenges c ON c.id = cp.challenge_id
+            LEFT JOIN latest l ON l.challenge_id = cp.challenge_id AND l.user_id = cp.user_id AND l.rn = 1
+            WHERE c.status = 'ACTIVE'
+        ),
+        inserted AS (
+            INSERT INTO challenge_week_standings (id, challenge_id, week_start, user_id, progress_percent, rank, computed_at)
+            SELECT uuid_generate_v7(), s.challenge_id, :weekStart, s.user_id, s.progress_percent, s.rank, NOW()
+            FROM standings s
+            ON CONFLICT (challenge_id, week_start, user_id) DO NOTHING
+            RETURNING challenge_id
+        )
+        INSERT INTO challenge_week_results (id, challenge_id, week_start,
+                                            user_a_id, user_b_id, user_a_percent, user_b_percent,
+                                            winner_user_id, computed_at)
+        SELECT uuid_generate_v7(), s.challenge_id, :weekStart,
+               CASE WHEN COUNT(*) = 2 THEN (ARRAY_AGG(s.user_id ORDER BY s.joined_at))[1] END,
+               CASE WHEN COUNT(*) = 2 THEN (ARRAY_AGG(s.user_id ORDER BY s.joined_at))[2] END,
+               CASE WHEN COUNT(*) = 2 THEN (ARRAY_AGG(s.progress_percent ORDER BY s.joined_at))[1] END,
+               CASE WHEN COUNT(*) = 2 THEN (ARRAY_AGG(s.progress_percent ORDER BY s.joined_at))[2] END,
+               CASE WHEN COUNT(*) FILTER (WHERE s.rank = 1) = 1
+                    THEN (ARRAY_AGG(s.user_id) FILTER (WHERE s.rank = 1))[1] END,
+               NOW()
+        FROM standings s
+        WHERE s.challenge_id IN (SELECT DISTINCT challenge_id FROM inserted)
+        GROUP BY s.challenge_id
+        ON CONFLICT (challenge_id, week_start) DO NOTHING
+        """, nativeQuery = true)
+    int insertWeekResultsForActiveChallenges(LocalDate weekStart, LocalDate asOf);
 }
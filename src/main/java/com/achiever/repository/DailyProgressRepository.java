@@ -2,10 +2,12 @@ package com.achiever.repository;
 
 import com.achiever.entity.DailyProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,4 +36,18 @@ public interface DailyProgressRepository extends JpaRepository<DailyProgress, UU
 
     @Query("SELECT dp FROM DailyProgress dp WHERE dp.challenge.id = :challengeId AND dp.user.id = :userId ORDER BY dp.date DESC LIMIT 1")
     Optional<DailyProgress> findLatestByChallengeIdAndUserId(@Param("challengeId") UUID challengeId, @Param("userId") UUID userId);
+
+    /**
+     * Delete up to :batchSize daily rows of the given challenges
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM daily_progress
+        WHERE id IN (
+            SELECT id FROM daily_progress
+            WHERE challenge_id IN :challengeIds
+            LIMIT :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteBatchByChallengeIds(Collection<UUID> challengeIds, int batchSize);
 }
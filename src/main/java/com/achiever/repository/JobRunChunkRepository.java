@@ -0,0 +1,22 @@
+package com.achiever.repository;
+
+import com.achiever.entity.JobChunkStatus;
+import com.achiever.entity.JobRunChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface JobRunChunkRepository extends JpaRepository<JobRunChunk, UUID> {
+
+    Optional<JobRunChunk> findByJobRunIdAndChunkKey(UUID jobRunId, String chunkKey);
+
+    @Query("SELECT c.chunkKey FROM JobRunChunk c WHERE c.jobRun.id = :jobRunId AND c.status = 'COMPLETED'")
+    List<String> findCompletedChunkKeys(UUID jobRunId);
+
+    int countByJobRunIdAndStatus(UUID jobRunId, JobChunkStatus status);
+
+    @Query("SELECT COALESCE(SUM(c.itemsProcessed), 0) FROM JobRunChunk c WHERE c.jobRun.id = :jobRunId AND c.status = 'COMPLETED'")
+    int sumItemsProcessed(UUID jobRunId);
+}
@@ -0,0 +1,15 @@
+package com.achiever.repository;
+
+import com.achiever.entity.JobRun;
+import com.achiever.entity.JobRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface JobRunRepository extends JpaRepository<JobRun, UUID> {
+
+    Optional<JobRun> findByJobNameAndRunKey(String jobName, String runKey);
+
+    List<JobRun> findByStatusOrderByStartedAt(JobRunStatus status);
+}
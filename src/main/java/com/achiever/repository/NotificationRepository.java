@@ -1,21 +1,110 @@
 package com.achiever.repository;
 
 import com.achiever.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
-    List<Notification> findByUserIdOrderByCreatedAtDesc(UUID userId);
+    /**
+     * First page of a user's notifications, newest first
+     */
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.user.id = :userId
+        ORDER BY n.createdAt DESC, n.id DESC
+        """)
+    List<Notification> findLatestByUserId(UUID userId, Limit limit);
+
+    /**
+     * Next page after the cursor (createdAt, id) of the last notification already returned
+     */
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.user.id = :userId
+          AND (n.createdAt, n.id) < (:createdAt, :id)
+        ORDER BY n.createdAt DESC, n.id DESC
+        """)
+    List<Notification> findByUserIdBefore(UUID userId, Instant createdAt, UUID id, Limit limit);
+
+    /**
+     * Notifications created after the cursor (createdAt, id), oldest first.
+     * Used to replay what an SSE client missed while disconnected.
+     */
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.user.id = :userId
+          AND (n.createdAt, n.id) > (:createdAt, :id)
+        ORDER BY n.createdAt, n.id
+        """)
+    List<Notification> findByUserIdAfter(UUID userId, Instant createdAt, UUID id, Limit limit);
 
     long countByUserIdAndReadFalse(UUID userId);
 
     @Modifying
     @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
     void markAllAsRead(@Param("userId") UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Postgres NOTIFY of each payload on the channel, in one statement.
+     * Delivered to listeners only when the current transaction commits.
+     */
+    @Transactional
+    @Query(value = "SELECT count(pg_notify(:channel, payload)) FROM unnest(CAST(:payloads AS TEXT[])) AS payload", nativeQuery = true)
+    long publishEvents(String channel, String[] payloads);
+
+    /**
+     * Delete up to :batchSize read notifications created before the cutoff
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM notifications
+        WHERE (id, created_at) IN (
+            SELECT id, created_at FROM notifications
+            WHERE is_read = true AND created_at < :cutoff
+            LIMIT :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteReadCreatedBefore(LocalDateTime cutoff, int batchSize);
+
+    /**
+     * Delete up to :batchSize notifications of the default partition created before the cutoff,
+     * read or not. Dropping monthly partitions never reaches these rows.
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM notifications_default
+        WHERE (id, created_at) IN (
+            SELECT id, created_at FROM notifications_default
+            WHERE created_at < :cutoff
+            LIMIT :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteDefaultPartitionCreatedBefore(LocalDateTime cutoff, int batchSize);
+
+    /**
+     * Create the monthly partitions from fromMonth up to monthsAhead months after the current one
+     *
+     * @return number of partitions created
+     */
+    @Query(value = "SELECT ensure_notification_partitions(CAST(:fromMonth AS DATE), :monthsAhead)", nativeQuery = true)
+    int ensurePartitions(LocalDate fromMonth, int monthsAhead);
+
+    /**
+     * Drop monthly partitions that end before the cutoff, read or not
+     *
+     * @return number of partitions dropped
+     */
+    @Query(value = "SELECT drop_notification_partitions_before(:cutoff)", nativeQuery = true)
+    int dropPartitionsBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,7 @@
+package com.achiever.repository;
+
+import com.achiever.entity.NotificationTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, NotificationTemplate.Key> {
+}
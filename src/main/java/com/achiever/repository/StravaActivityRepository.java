@@ -3,8 +3,11 @@ package com.achiever.repository;
 import com.achiever.entity.StravaActivity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface StravaActivityRepository extends JpaRepository<StravaActivity, Long> {
@@ -12,30 +15,47 @@ public interface StravaActivityRepository extends JpaRepository<StravaActivity,
     List<StravaActivity> findByUserIdOrderByStartDateDesc(UUID userId);
 
     @Query("""
-        SELECT a FROM StravaActivity a 
-        WHERE a.user.id = :userId 
-        AND a.sportType = :sportType 
-        AND a.startDate >= :startDate 
+        SELECT a FROM StravaActivity a
+        WHERE a.user.id = :userId
+        AND a.sportCode = :sportCode
+        AND a.startDate >= :startDate
         AND a.startDate < :endDate
         """)
-    List<StravaActivity> findByUserIdAndSportTypeAndDateRange(
-            UUID userId, 
-            String sportType, 
-            OffsetDateTime startDate, 
+    List<StravaActivity> findByUserIdAndSportCodeAndDateRange(
+            UUID userId,
+            short sportCode,
+            OffsetDateTime startDate,
             OffsetDateTime endDate);
 
+    /**
+     * Index-only scan of idx_activities_user_sport_date, pruned to the range's monthly partitions
+     */
     @Query("""
-        SELECT COALESCE(SUM(a.distanceMeters), 0) FROM StravaActivity a 
-        WHERE a.user.id = :userId 
-        AND a.sportType = :sportType 
-        AND a.startDate >= :startDate 
+        SELECT COALESCE(SUM(a.distanceMeters), 0) FROM StravaActivity a
+        WHERE a.user.id = :userId
+        AND a.sportCode = :sportCode
+        AND a.startDate >= :startDate
         AND a.startDate < :endDate
         """)
-    int sumDistanceByUserAndSportTypeAndDateRange(
-            UUID userId, 
-            String sportType, 
-            OffsetDateTime startDate, 
+    int sumDistanceByUserAndSportCodeAndDateRange(
+            UUID userId,
+            short sportCode,
+            OffsetDateTime startDate,
             OffsetDateTime endDate);
 
     boolean existsById(Long id);
+
+    /**
+     * Not limited by start date, which Strava lets users edit; probes each partition's primary key
+     */
+    @Query("SELECT a.id FROM StravaActivity a WHERE a.id IN :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Create the monthly partitions from fromMonth up to monthsAhead months after the current one
+     *
+     * @return number of partitions created
+     */
+    @Query(value = "SELECT ensure_strava_activity_partitions(CAST(:fromMonth AS DATE), :monthsAhead)", nativeQuery = true)
+    int ensurePartitions(LocalDate fromMonth, int monthsAhead);
 }
@@ -3,6 +3,8 @@ package com.achiever.repository;
 import com.achiever.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,4 +20,30 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.stravaConnection WHERE u.id = :id")
     Optional<User> findByIdWithStravaConnection(UUID id);
+
+    /**
+     * Highest numeric suffix among usernames "base" (0) and "base" + digits, or null if
+     * none is taken. One index range scan on idx_users_username_prefix (V16).
+     *
+     * @param prefix base with LIKE wildcards escaped, followed by %
+     */
+    @Query(value = """
+            SELECT MAX(CASE WHEN username = :base THEN 0
+                            ELSE CAST(SUBSTRING(username FROM CHAR_LENGTH(:base) + 1) AS INTEGER) END)
+            FROM users
+            WHERE username LIKE :prefix ESCAPE '\\'
+              AND (username = :base OR REGEXP_LIKE(SUBSTRING(username FROM CHAR_LENGTH(:base) + 1), '^[0-9]{1,9}$'))
+            """, nativeQuery = true)
+    Integer findMaxUsernameSuffix(String base, String prefix);
+
+    /**
+     * Usernames only, for rendering notifications of many users at once
+     */
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.id IN :ids")
+    List<Username> findUsernamesByIdIn(Collection<UUID> ids);
+
+    interface Username {
+        UUID getId();
+        String getUsername();
+    }
 }
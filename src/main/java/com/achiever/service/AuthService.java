@@ -17,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +27,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final StravaConnectionRepository stravaConnectionRepository;
     private final JwtUtils jwtUtils;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Transactional
     public AuthResponse handleStravaCallback(String code, String pendingEmail) {
@@ -60,6 +60,7 @@ public class AuthService {
             user = createNewUser(athlete, tokenResponse, emailToUse);
             log.info("New user created: {}", user.getId());
         }
+        userPrincipalCache.invalidate(user.getId());
 
         String token = jwtUtils.generateToken(user.getId(), user.getEmail());
 
@@ -98,13 +99,6 @@ public class AuthService {
         return jwtUtils.generateToken(user.getId(), user.getEmail());
     }
 
-    /**
-     * Validate token and extract user ID
-     */
-    public UUID validateTokenAndGetUserId(String token) {
-        return jwtUtils.getUserIdFromToken(token);
-    }
-
     private void updateStravaTokens(StravaConnection connection, StravaTokenResponse tokens) {
         connection.setAccessToken(tokens.getAccessToken());
         connection.setRefreshToken(tokens.getRefreshToken());
@@ -118,12 +112,10 @@ public class AuthService {
                 ? athlete.getFirstname().toLowerCase()
                 : "user";
 
-        String username = base;
-        int counter = 1;
-        while (userRepository.existsByUsername(username)) {
-            username = base + counter++;
-        }
-        return username;
+        // One query for the highest "base<n>" taken, instead of probing base1, base2, ...
+        String prefix = base.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        Integer maxSuffix = userRepository.findMaxUsernameSuffix(base, prefix);
+        return maxSuffix == null ? base : base + (maxSuffix + 1);
     }
 
     private UserDTO mapToUserDTO(User user) {
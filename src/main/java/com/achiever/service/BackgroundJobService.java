@@ -0,0 +1,152 @@
+package com.achiever.service;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.repository.BackgroundJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable job queue on the background_jobs table.
+ * Jobs are picked up by {@link com.achiever.jobs.BackgroundJobWorker}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackgroundJobService {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String STALE_ERROR = "Worker stopped without finishing the job";
+
+    private final BackgroundJobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Enqueue a job to run as soon as a worker is free.
+     * Joins the caller's transaction, so the job is only visible if the caller commits.
+     *
+     * @return false if a live job with the same dedupe key already exists
+     */
+    @Transactional
+    public boolean enqueue(BackgroundJobType type, Object payload, String dedupeKey) {
+        return enqueue(type, payload, dedupeKey, Duration.ZERO);
+    }
+
+    @Transactional
+    public boolean enqueue(BackgroundJobType type, Object payload, String dedupeKey, Duration delay) {
+        boolean inserted = jobRepository.enqueue(type.name(), writePayload(payload), dedupeKey,
+                DEFAULT_MAX_ATTEMPTS, delay.toSeconds()) > 0;
+        if (inserted) {
+            log.debug("[QUEUE] Enqueued {} ({})", type, dedupeKey);
+        } else {
+            log.debug("[QUEUE] {} ({}) already queued", type, dedupeKey);
+        }
+        return inserted;
+    }
+
+    /**
+     * Claim due jobs for a worker. The claim commits immediately; the job then stays
+     * RUNNING under this worker until it is marked done/failed or its lock goes stale.
+     */
+    @Transactional
+    public List<BackgroundJob> claim(String workerId, int limit) {
+        return jobRepository.claim(workerId, limit);
+    }
+
+    @Transactional
+    public void markDone(BackgroundJob job) {
+        jobRepository.markDone(job.getId());
+    }
+
+    /**
+     * Retry with exponential backoff, or give up once max attempts are used.
+     *
+     * @return true if the job was retried, false if it is now DEAD
+     */
+    @Transactional
+    public boolean markFailed(BackgroundJob job, Exception error) {
+        String message = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+
+        if (job.getAttempts() >= job.getMaxAttempts()) {
+            jobRepository.markDead(job.getId(), message);
+            log.error("[QUEUE] {} job {} failed permanently after {} attempts: {}",
+                    job.getType(), job.getId(), job.getAttempts(), message);
+            return false;
+        }
+
+        Duration delay = backoff(job.getAttempts());
+        jobRepository.scheduleRetry(job.getId(), delay.toSeconds(), message);
+        log.warn("[QUEUE] {} job {} failed (attempt {}/{}), retrying in {}s: {}",
+                job.getType(), job.getId(), job.getAttempts(), job.getMaxAttempts(), delay.toSeconds(), message);
+        return true;
+    }
+
+    @Transactional
+    public void heartbeat(String workerId, Collection<UUID> jobIds) {
+        jobRepository.heartbeat(workerId, jobIds);
+    }
+
+    /**
+     * Requeue jobs whose worker stopped without finishing them, with the usual backoff.
+     * A job that was on its last attempt is marked DEAD instead.
+     */
+    @Transactional
+    public int releaseStale(Duration lockTimeout) {
+        int dead = jobRepository.markStaleDead(lockTimeout.toSeconds(), STALE_ERROR);
+        if (dead > 0) {
+            log.error("[QUEUE] {} stale job(s) failed permanently after their last attempt", dead);
+        }
+        int released = jobRepository.releaseStale(lockTimeout.toSeconds(),
+                BASE_BACKOFF.toSeconds(), MAX_BACKOFF.toSeconds(), STALE_ERROR);
+        if (released > 0) {
+            log.warn("[QUEUE] Released {} stale job(s)", released);
+        }
+        return released;
+    }
+
+    @Transactional
+    public int purgeDone(Duration retention) {
+        return jobRepository.purgeDone(retention.toSeconds());
+    }
+
+    public <T> T readPayload(BackgroundJob job, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(job.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload for " + job.getType() + " job " + job.getId(), e);
+        }
+    }
+
+    /**
+     * 30s, 1m, 2m, 4m, ... capped at one hour.
+     */
+    static Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 16);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << exponent);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private String writePayload(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize job payload " + payload, e);
+        }
+    }
+
+    private String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
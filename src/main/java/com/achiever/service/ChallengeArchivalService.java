@@ -0,0 +1,110 @@
+package com.achiever.service;
+
+import com.achiever.repository.ChallengeProgressSummaryRepository;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.DailyProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps daily_progress down to running and recently finished challenges. A challenge
+ * finished (COMPLETED, EXPIRED, CANCELLED) for a while is archived:
+ * - each participant's latest row becomes a challenge_progress_summaries row,
+ * - the challenge's daily rows are deleted in small batches,
+ * - the challenge is marked archived.
+ */
+@Service
+@Slf4j
+public class ChallengeArchivalService {
+
+    static final String MAINTENANCE_LOCK = "challenge-progress-archival";
+
+    private final ChallengeRepository challengeRepository;
+    private final DailyProgressRepository progressRepository;
+    private final ChallengeProgressSummaryRepository summaryRepository;
+    private final ClusterLockService clusterLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int afterDays;
+    private final int challengesPerRun;
+    private final int challengesPerBatch;
+    private final int deleteBatchSize;
+    private final int maxDeleteBatches;
+
+    public ChallengeArchivalService(ChallengeRepository challengeRepository,
+                                    DailyProgressRepository progressRepository,
+                                    ChallengeProgressSummaryRepository summaryRepository,
+                                    ClusterLockService clusterLockService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.progress-archival.after-days:7}") int afterDays,
+                                    @Value("${app.progress-archival.challenges-per-run:1000}") int challengesPerRun,
+                                    @Value("${app.progress-archival.challenges-per-batch:50}") int challengesPerBatch,
+                                    @Value("${app.progress-archival.delete-batch-size:1000}") int deleteBatchSize,
+                                    @Value("${app.progress-archival.max-delete-batches:200}") int maxDeleteBatches) {
+        this.challengeRepository = challengeRepository;
+        this.progressRepository = progressRepository;
+        this.summaryRepository = summaryRepository;
+        this.clusterLockService = clusterLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.challengesPerRun = challengesPerRun;
+        this.challengesPerBatch = challengesPerBatch;
+        this.deleteBatchSize = deleteBatchSize;
+        this.maxDeleteBatches = maxDeleteBatches;
+    }
+
+    @Scheduled(cron = "0 50 3 * * *")
+    public void runArchival() {
+        clusterLockService.runExclusively(MAINTENANCE_LOCK, () ->
+                archiveEndedBefore(LocalDate.now(ZoneOffset.UTC).minusDays(afterDays)));
+    }
+
+    /**
+     * Summaries are committed before any daily row is deleted, so readers always find one
+     * or the other. Each delete batch commits on its own; once maxDeleteBatches are used
+     * the run stops and the next one continues with the same challenges.
+     *
+     * @return number of challenges archived
+     */
+    int archiveEndedBefore(LocalDate cutoff) {
+        List<UUID> challengeIds = transactionTemplate.execute(status ->
+                challengeRepository.findIdsToArchiveEndedBefore(cutoff, challengesPerRun));
+        if (challengeIds == null || challengeIds.isEmpty()) {
+            return 0;
+        }
+
+        int archived = 0;
+        int deletedRows = 0;
+        int deleteBatches = 0;
+        for (int from = 0; from < challengeIds.size(); from += challengesPerBatch) {
+            List<UUID> batch = challengeIds.subList(from, Math.min(from + challengesPerBatch, challengeIds.size()));
+            transactionTemplate.execute(status -> summaryRepository.summarizeLatestProgress(batch));
+
+            boolean allDeleted = false;
+            while (!allDeleted && deleteBatches < maxDeleteBatches) {
+                Integer deleted = transactionTemplate.execute(status ->
+                        progressRepository.deleteBatchByChallengeIds(batch, deleteBatchSize));
+                deleteBatches++;
+                deletedRows += deleted != null ? deleted : 0;
+                allDeleted = deleted == null || deleted < deleteBatchSize;
+            }
+            if (!allDeleted) {
+                break;
+            }
+            transactionTemplate.execute(status -> challengeRepository.markProgressArchived(batch));
+            archived += batch.size();
+        }
+
+        log.info("[ARCHIVAL] Archived progress of {} of {} challenge(s) ended before {}, deleted {} daily rows",
+                archived, challengeIds.size(), cutoff, deletedRows);
+        return archived;
+    }
+}
@@ -1,125 +1,205 @@
 package com.achiever.service;
 
 import com.achiever.entity.*;
+import com.achiever.jobs.MidnightSyncJobHandler;
+import com.achiever.jobs.NotificationFanoutJobHandler;
+import com.achiever.jobs.SyncPartitionJobHandler;
+import com.achiever.jobs.WeeklyResultsJobHandler;
 import com.achiever.repository.*;
 import com.achiever.strava.StravaSyncService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.time.temporal.TemporalAdjusters;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChallengeSchedulerService {
 
+    public static final String MIDNIGHT_SYNC_JOB = "midnight-sync";
+    public static final String WEEKLY_RESULTS_JOB = "weekly-results";
+    static final String SCHEDULER_LOCK = "challenge-scheduler";
+
     private final ChallengeRepository challengeRepository;
-    private final ChallengeParticipantRepository participantRepository;
-    private final DailyProgressRepository progressRepository;
     private final ChallengeWeekResultRepository resultRepository;
     private final ChallengeService challengeService;
     private final StravaSyncService stravaSyncService;
     private final NotificationService notificationService;
+    private final JobRunService jobRunService;
+    private final BackgroundJobService backgroundJobService;
+    private final ClusterLockService clusterLockService;
+
+    private static final int NOTIFICATION_BATCH_SIZE = 100;
+
+    @Value("${app.jobs.sync-partitions:8}")
+    private int syncPartitions;
 
     // ============================================================
     // DAILY MIDNIGHT JOB
     // ============================================================
 
+    /**
+     * Only enqueues the run; a queue worker on any instance executes it.
+     * Every instance fires the cron, but only the one holding the scheduler lock enqueues.
+     */
     @Scheduled(cron = "0 0 0 * * *")
-    @Transactional
     public void midnightSync() {
+        clusterLockService.runExclusively(SCHEDULER_LOCK, () -> enqueueMidnightSync(LocalDate.now()));
+    }
+
+    /**
+     * Every step runs in chunks with their own transaction (see {@link JobRunService}),
+     * so one failing challenge no longer rolls back the whole night and no
+     * connection or row lock is held for the duration of the job.
+     */
+    public JobRunStatus midnightSync(LocalDate today) {
         log.info("=== Starting midnight sync job ===");
-        LocalDate today = LocalDate.now();
+        JobRunContext run = jobRunService.start(MIDNIGHT_SYNC_JOB, today.toString());
 
-        processStatusTransitions(today);
-        syncAllActiveChallenges();
-        completeExpiredChallenges(today);
+        processStatusTransitions(run, today);
+        syncActiveParticipants(run, today);
+        completeExpiredChallenges(run, today);
 
+        JobRunStatus status = jobRunService.finish(run);
         log.info("=== Midnight sync job finished ===");
+        return status;
     }
 
-    protected void processStatusTransitions(LocalDate today) {
-        // PENDING → EXPIRED
-        List<Challenge> pending = challengeRepository.findByStatus(ChallengeStatus.PENDING);
-        for (Challenge challenge : pending) {
-            if (challenge.getEndAt().isBefore(today)) {
-                challenge.setStatus(ChallengeStatus.EXPIRED);
-                challengeRepository.save(challenge);
-                log.info("[CRON] Challenge {} '{}' expired (no opponent)",
-                        challenge.getId(), challenge.getName());
-                notificationService.notifyChallengeExpired(challenge);
-            }
+    private void enqueueMidnightSync(LocalDate date) {
+        backgroundJobService.enqueue(BackgroundJobType.MIDNIGHT_SYNC,
+                new MidnightSyncJobHandler.Payload(date), MidnightSyncJobHandler.dedupeKey(date));
+    }
+
+    protected void processStatusTransitions(JobRunContext run, LocalDate today) {
+        // Bulk updates and their notification jobs commit together, so a crash can't
+        // lose the ids of challenges that were already transitioned
+        jobRunService.runChunk(run, "transitions", () -> {
+            // PENDING → EXPIRED
+            List<UUID> expired = challengeRepository.expirePendingEndedBefore(today);
+            enqueueNotifications(NotificationFanoutJobHandler.Event.CHALLENGE_EXPIRED, expired);
+
+            // SCHEDULED → ACTIVE
+            List<UUID> activated = challengeRepository.activateScheduledStartedBy(today);
+            enqueueNotifications(NotificationFanoutJobHandler.Event.CHALLENGE_STARTED, activated);
+
+            log.info("[CRON] Status transitions: {} expired, {} activated", expired.size(), activated.size());
+            return expired.size() + activated.size();
+        });
+    }
+
+    /**
+     * One fan-out job per batch of transitioned challenges.
+     */
+    private void enqueueNotifications(NotificationFanoutJobHandler.Event event, List<UUID> challengeIds) {
+        for (int from = 0; from < challengeIds.size(); from += NOTIFICATION_BATCH_SIZE) {
+            List<UUID> batch = challengeIds.subList(from, Math.min(from + NOTIFICATION_BATCH_SIZE, challengeIds.size()));
+            backgroundJobService.enqueue(BackgroundJobType.NOTIFICATION_FANOUT,
+                    new NotificationFanoutJobHandler.Payload(event, List.copyOf(batch)), null);
         }
+    }
 
-        // SCHEDULED → ACTIVE
-        List<Challenge> scheduled = challengeRepository.findByStatus(ChallengeStatus.SCHEDULED);
-        for (Challenge challenge : scheduled) {
-            if (!challenge.getStartAt().isAfter(today)) {
-                challenge.setStatus(ChallengeStatus.ACTIVE);
-                challengeRepository.save(challenge);
-                log.info("[CRON] Challenge {} '{}' activated",
-                        challenge.getId(), challenge.getName());
-                notificationService.notifyChallengeStarted(challenge);
+    /**
+     * Split the Strava sync of all active participants into hash partitions of users,
+     * one queue job each, so the sync scales out with the number of instances.
+     */
+    protected void syncActiveParticipants(JobRunContext run, LocalDate today) {
+        jobRunService.runChunk(run, "enqueue-sync", () -> {
+            for (int partition = 0; partition < syncPartitions; partition++) {
+                backgroundJobService.enqueue(BackgroundJobType.SYNC_PARTITION,
+                        new SyncPartitionJobHandler.Payload(today, partition, syncPartitions),
+                        SyncPartitionJobHandler.dedupeKey(today, partition));
             }
-        }
+            log.info("[CRON] Queued sync of active participants in {} partitions", syncPartitions);
+            return syncPartitions;
+        });
     }
 
-    protected void syncAllActiveChallenges() {
-        List<Challenge> active = challengeRepository.findByStatus(ChallengeStatus.ACTIVE);
-        log.info("[CRON] Syncing {} active challenges", active.size());
+    /**
+     * Sync one participant of an active challenge right before it is completed.
+     * Forfeited participants and users without a Strava connection are skipped.
+     */
+    int syncParticipant(UUID challengeId, UUID userId) {
+        return challengeRepository.findByIdWithParticipants(challengeId)
+                .filter(challenge -> challenge.getStatus() == ChallengeStatus.ACTIVE)
+                .map(challenge -> syncParticipant(challenge, userId))
+                .orElse(0);
+    }
+
+    protected void completeExpiredChallenges(JobRunContext run, LocalDate today) {
+        List<UUID> ended = challengeRepository.findIdsByStatusAndEndAtBefore(ChallengeStatus.ACTIVE, today);
 
-        for (Challenge challenge : active) {
-            syncChallengeParticipants(challenge);
+        for (UUID challengeId : ended) {
+            // Final sync is best effort: one chunk per participant, so a Strava failure only
+            // loses that participant's sync and the challenge completes with the progress we have
+            for (UUID userId : finalSyncUserIds(challengeId)) {
+                jobRunService.runChunk(run, "final-sync:" + challengeId + ":" + userId,
+                        () -> syncParticipant(challengeId, userId));
+            }
+
+            // Runs for two dates may overlap, so the row lock decides which one completes it
+            jobRunService.runChunk(run, "complete:" + challengeId, () ->
+                    challengeRepository.findByIdForUpdate(challengeId)
+                            .filter(challenge -> challenge.getStatus() == ChallengeStatus.ACTIVE)
+                            .flatMap(challenge -> challengeRepository.findByIdWithParticipants(challengeId))
+                            .map(this::completeChallenge)
+                            .orElse(0));
         }
     }
 
-    protected void completeExpiredChallenges(LocalDate today) {
-        List<Challenge> active = challengeRepository.findByStatus(ChallengeStatus.ACTIVE);
-
-        for (Challenge challenge : active) {
-            if (challenge.getEndAt().isBefore(today)) {
-                syncChallengeParticipants(challenge);
+    private int completeChallenge(Challenge challenge) {
+        User winner = challengeService.determineWinner(challenge);
+        challenge.setWinner(winner);
+        challenge.setStatus(ChallengeStatus.COMPLETED);
+        challengeRepository.save(challenge);
 
-                User winner = challengeService.determineWinner(challenge);
-                challenge.setWinner(winner);
-                challenge.setStatus(ChallengeStatus.COMPLETED);
-                challengeRepository.save(challenge);
+        log.info("[CRON] Challenge {} '{}' completed. Winner: {}",
+                challenge.getId(),
+                challenge.getName(),
+                winner != null ? winner.getUsername() : "TIE");
 
-                log.info("[CRON] Challenge {} '{}' completed. Winner: {}",
-                        challenge.getId(),
-                        challenge.getName(),
-                        winner != null ? winner.getUsername() : "TIE");
+        notificationService.enqueue(NotificationFanoutJobHandler.Event.CHALLENGE_COMPLETED, challenge, null);
+        return 1;
+    }
 
-                notificationService.notifyChallengeCompleted(challenge, winner);
-            }
-        }
+    private List<UUID> finalSyncUserIds(UUID challengeId) {
+        return challengeRepository.findByIdWithParticipants(challengeId)
+                .filter(challenge -> challenge.getStatus() == ChallengeStatus.ACTIVE)
+                .map(challenge -> challenge.getParticipants().stream()
+                        .filter(participant -> !participant.hasForfeited())
+                        .map(participant -> participant.getUser().getId())
+                        .toList())
+                .orElse(List.of());
     }
 
-    private void syncChallengeParticipants(Challenge challenge) {
+    /**
+     * A failed sync propagates, so the chunk is recorded as failed and only
+     * this participant's progress is rolled back.
+     */
+    private int syncParticipant(Challenge challenge, UUID userId) {
         for (ChallengeParticipant participant : challenge.getParticipants()) {
-            if (participant.hasForfeited()) {
+            User user = participant.getUser();
+            if (!user.getId().equals(userId) || participant.hasForfeited()) {
                 continue;
             }
-
-            User user = participant.getUser();
             if (user.getStravaConnection() == null) {
-                continue;
+                return 0;
             }
 
-            try {
-                stravaSyncService.syncAndUpdateProgress(user, challenge);
-                log.debug("[CRON] Synced user {} in challenge {}",
-                        user.getUsername(), challenge.getId());
-            } catch (Exception e) {
-                log.warn("[CRON] Sync failed for user {} in challenge {}: {}",
-                        user.getUsername(), challenge.getId(), e.getMessage());
-            }
+            stravaSyncService.syncAndUpdateProgress(user, challenge);
+            log.debug("[CRON] Synced user {} in challenge {}", user.getUsername(), challenge.getId());
+            return 1;
         }
+        return 0;
     }
 
     // ============================================================
@@ -127,71 +207,80 @@ public class ChallengeSchedulerService {
     // ============================================================
 
     @Scheduled(cron = "0 5 0 * * MON")
-    @Transactional
     public void calculateWeeklyResults() {
-        log.info("[CRON] Starting weekly results calculation");
-
-        LocalDate weekEnd = LocalDate.now().minusDays(1);
-        LocalDate weekStart = weekEnd.minusDays(6);
+        clusterLockService.runExclusively(SCHEDULER_LOCK,
+                () -> enqueueWeeklyResults(lastCompletedWeekStart(LocalDate.now())));
+    }
 
-        List<Challenge> activeChallenges = challengeRepository.findByStatus(ChallengeStatus.ACTIVE);
+    /**
+     * All active challenges are computed by a single set-based statement
+     * (see {@link ChallengeWeekResultRepository#insertWeekResultsForActiveChallenges}).
+     * Standings are taken as of the Monday the job runs, so the midnight sync's
+     * snapshot of Sunday's activities is included and a resumed run gives the same result.
+     */
+    public JobRunStatus calculateWeeklyResults(LocalDate weekStart) {
+        log.info("[CRON] Starting weekly results calculation for week of {}", weekStart);
+        JobRunContext run = jobRunService.start(WEEKLY_RESULTS_JOB, weekStart.toString());
+
+        jobRunService.runChunk(run, "week-results", () -> {
+            int calculated = resultRepository.insertWeekResultsForActiveChallenges(weekStart, weekStart.plusDays(7));
+            log.info("[CRON] Weekly results calculated for {} challenges", calculated);
+            return calculated;
+        });
+
+        return jobRunService.finish(run);
+    }
 
-        int calculated = 0;
-        for (Challenge challenge : activeChallenges) {
-            if (resultRepository.existsByChallengeIdAndWeekStart(challenge.getId(), weekStart)) {
-                continue;
-            }
-            calculateWeekResult(challenge, weekStart);
-            calculated++;
-        }
+    private void enqueueWeeklyResults(LocalDate weekStart) {
+        backgroundJobService.enqueue(BackgroundJobType.WEEKLY_RESULTS,
+                new WeeklyResultsJobHandler.Payload(weekStart), WeeklyResultsJobHandler.dedupeKey(weekStart));
+    }
 
-        log.info("[CRON] Weekly results calculated for {} challenges", calculated);
+    private static LocalDate lastCompletedWeekStart(LocalDate today) {
+        return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
     }
 
-    private void calculateWeekResult(Challenge challenge, LocalDate weekStart) {
-        List<ChallengeParticipant> participants = participantRepository
-                .findByChallengeId(challenge.getId());
+    // ============================================================
+    // CATCH-UP AFTER CRASH / STOPPED MACHINE
+    // ============================================================
 
-        if (participants.size() != 2) {
-            log.warn("Challenge {} doesn't have exactly 2 participants", challenge.getId());
-            return;
+    /**
+     * Enqueue scheduled runs that were missed while no instance was running, and runs
+     * that were interrupted mid-way. Completed chunks are skipped, so only the
+     * remaining work is redone; dedupe keys keep several instances from doubling up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpMissedRuns() {
+        try {
+            clusterLockService.runExclusively(SCHEDULER_LOCK, () -> catchUpMissedRuns(LocalDate.now()));
+        } catch (Exception e) {
+            log.error("[JOB] Failed to enqueue missed runs", e);
         }
+    }
 
-        ChallengeParticipant participantA = participants.get(0);
-        ChallengeParticipant participantB = participants.get(1);
+    void catchUpMissedRuns(LocalDate today) {
+        try {
+            if (!jobRunService.isCompleted(MIDNIGHT_SYNC_JOB, today.toString())) {
+                log.info("[JOB] Midnight sync for {} has not completed, enqueueing", today);
+                enqueueMidnightSync(today);
+            }
 
-        int percentA = getLatestProgressPercent(challenge.getId(), participantA.getUser().getId());
-        int percentB = getLatestProgressPercent(challenge.getId(), participantB.getUser().getId());
+            LocalDate weekStart = lastCompletedWeekStart(today);
+            if (!jobRunService.isCompleted(WEEKLY_RESULTS_JOB, weekStart.toString())) {
+                log.info("[JOB] Weekly results for {} have not completed, enqueueing", weekStart);
+                enqueueWeeklyResults(weekStart);
+            }
 
-        User winner = null;
-        if (percentA > percentB) {
-            winner = participantA.getUser();
-        } else if (percentB > percentA) {
-            winner = participantB.getUser();
+            for (JobRun run : jobRunService.findInterruptedRuns()) {
+                LocalDate runDate = LocalDate.parse(run.getRunKey());
+                switch (run.getJobName()) {
+                    case MIDNIGHT_SYNC_JOB -> enqueueMidnightSync(runDate);
+                    case WEEKLY_RESULTS_JOB -> enqueueWeeklyResults(runDate);
+                    default -> log.warn("[JOB] Unknown interrupted job {}, not resuming", run.getJobName());
+                }
+            }
+        } catch (Exception e) {
+            log.error("[JOB] Failed to enqueue missed runs", e);
         }
-
-        ChallengeWeekResult result = ChallengeWeekResult.builder()
-                .challenge(challenge)
-                .weekStart(weekStart)
-                .userA(participantA.getUser())
-                .userB(participantB.getUser())
-                .userAPercent(percentA)
-                .userBPercent(percentB)
-                .winner(winner)
-                .build();
-
-        resultRepository.save(result);
-
-        log.info("[CRON] Week result for challenge {}: A={}%, B={}%, winner={}",
-                challenge.getId(), percentA, percentB,
-                winner != null ? winner.getUsername() : "TIE");
-    }
-
-    private int getLatestProgressPercent(java.util.UUID challengeId, java.util.UUID userId) {
-        return progressRepository
-                .findByChallengeIdAndUserId(challengeId, userId).stream()
-                .max(Comparator.comparing(DailyProgress::getDate))
-                .map(DailyProgress::getProgressPercent)
-                .orElse(0);
     }
-}
\ No newline at end of file
+}
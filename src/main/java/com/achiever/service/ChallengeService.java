@@ -2,6 +2,8 @@ package com.achiever.service;
 
 import com.achiever.dto.*;
 import com.achiever.entity.*;
+import com.achiever.jobs.NotificationFanoutJobHandler.Event;
+import com.achiever.jobs.UserSyncJobHandler;
 import com.achiever.repository.*;
 import com.achiever.strava.StravaSyncService;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +27,10 @@ public class ChallengeService {
     private final ChallengeRepository challengeRepository;
     private final ChallengeParticipantRepository participantRepository;
     private final DailyProgressRepository progressRepository;
+    private final ChallengeProgressSummaryRepository summaryRepository;
     private final StravaSyncService stravaSyncService;
     private final NotificationService notificationService;
+    private final BackgroundJobService backgroundJobService;
 
     private static final String INVITE_CODE_CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
     private static final int INVITE_CODE_LENGTH = 8;
@@ -200,26 +204,18 @@ public class ChallengeService {
         }
 
         // Notify creator that opponent joined
-        notificationService.notifyOpponentJoined(challenge.getCreatedBy(), user, challenge);
+        notificationService.enqueue(Event.CHALLENGE_JOINED, challenge, user);
 
         // If challenge became ACTIVE immediately, notify both
         if (challenge.getStatus() == ChallengeStatus.ACTIVE) {
-            notificationService.notifyChallengeStarted(challenge);
+            notificationService.enqueue(Event.CHALLENGE_STARTED, challenge, null);
         }
 
-        // Sync Strava data for joining user if challenge is already active
+        // Sync Strava data for joining user in the background if challenge is already active
         if (challenge.getStatus() == ChallengeStatus.ACTIVE && user.getStravaConnection() != null) {
-            try {
-                stravaSyncService.syncActivitiesForDateRange(
-                        user.getId(),
-                        challenge.getStartAt(),
-                        today
-                );
-                log.info("Synced Strava for joining user {} from {} to {}",
-                        user.getUsername(), challenge.getStartAt(), today);
-            } catch (Exception e) {
-                log.warn("Failed to sync Strava for joining user {}: {}", user.getUsername(), e.getMessage());
-            }
+            backgroundJobService.enqueue(BackgroundJobType.USER_SYNC,
+                    new UserSyncJobHandler.Payload(user.getId(), challenge.getStartAt(), today),
+                    UserSyncJobHandler.dedupeKey(user.getId(), challenge.getStartAt()));
         }
 
         return mapToDTO(challenge);
@@ -252,9 +248,7 @@ public class ChallengeService {
             challengeRepository.save(challenge);
 
             // Notify creator that opponent left
-            String challengeName = challenge.getName() != null ? challenge.getName() : "Challenge";
-            notificationService.notify(challenge.getCreatedBy(), NotificationType.CHALLENGE_JOINED, challenge,
-                    user.getUsername() + " left \"" + challengeName + "\". Waiting for a new opponent.");
+            notificationService.enqueue(Event.CHALLENGE_LEFT, challenge, user);
 
             log.info("User {} left scheduled challenge {}, status reverted to PENDING", user.getId(), challengeId);
 
@@ -282,7 +276,7 @@ public class ChallengeService {
 
             // Notify opponent they won
             if (opponent != null) {
-                notificationService.notifyOpponentForfeited(user, opponent, challenge);
+                notificationService.enqueue(Event.CHALLENGE_FORFEITED, challenge, user);
             }
 
             log.info("User {} forfeited challenge {}. Winner: {}",
@@ -335,52 +329,15 @@ public class ChallengeService {
         Set<UUID> syncedUserIds = new HashSet<>();
         syncStravaForParticipants(challenge, syncedUserIds);
 
-        List<DailyProgress> currentProgress = progressRepository
-                .findCurrentProgressByChallengeId(challengeId);
+        List<DailyProgress> currentProgress = currentProgress(challenge);
 
         Set<SportType> challengeSports = challenge.getSportTypeSet();
 
         List<ParticipantProgressDTO> participantProgress = challenge.getParticipants().stream()
-                .map(p -> {
-                    DailyProgress progress = currentProgress.stream()
-                            .filter(dp -> dp.getUser().getId().equals(p.getUser().getId()))
-                            .findFirst()
-                            .orElse(null);
-
-                    Map<SportType, BigDecimal> goals = p.getGoals();
-                    Map<SportType, Integer> distances = new HashMap<>();
-                    Map<SportType, Integer> sportPercents = new HashMap<>();
-
-                    // Calculate progress for each sport that participant selected
-                    for (SportType sport : goals.keySet()) {
-                        int distance = progress != null ? progress.getDistanceMeters(sport) : 0;
-                        distances.put(sport, distance);
-
-                        BigDecimal goalKm = goals.get(sport);
-                        int percent = 0;
-                        if (goalKm != null && goalKm.compareTo(BigDecimal.ZERO) > 0) {
-                            int goalMeters = goalKm.multiply(BigDecimal.valueOf(1000)).intValue();
-                            percent = Math.min(100, (int) ((distance * 100L) / goalMeters));
-                        }
-                        sportPercents.put(sport, percent);
-                    }
-
-                    // Calculate overall progress as average of all sports (capped at 100 each)
-                    int overallPercent = sportPercents.isEmpty() ? 0 :
-                            (int) sportPercents.values().stream()
-                                    .mapToInt(Integer::intValue)
-                                    .average()
-                                    .orElse(0);
-
-                    return new ParticipantProgressDTO(
-                            p.getUser().getId(),
-                            p.getUser().getUsername(),
-                            goals,
-                            distances,
-                            sportPercents,
-                            overallPercent
-                    );
-                })
+                .map(p -> participantProgress(p, currentProgress.stream()
+                        .filter(dp -> dp.getUser().getId().equals(p.getUser().getId()))
+                        .findFirst()
+                        .orElse(null)))
                 .toList();
 
         // Calculate time remaining
@@ -397,6 +354,60 @@ public class ChallengeService {
         );
     }
 
+    /**
+     * Latest progress rows of a challenge. Finished challenges may have been archived
+     * into one summary per participant (ChallengeArchivalService).
+     */
+    private List<DailyProgress> currentProgress(Challenge challenge) {
+        if (challenge.getStatus() == ChallengeStatus.COMPLETED || challenge.getStatus() == ChallengeStatus.EXPIRED
+                || challenge.getStatus() == ChallengeStatus.CANCELLED) {
+            List<ChallengeProgressSummary> summaries = summaryRepository.findByChallengeId(challenge.getId());
+            if (!summaries.isEmpty()) {
+                return summaries.stream().map(ChallengeProgressSummary::toDailyProgress).toList();
+            }
+        }
+        return progressRepository.findCurrentProgressByChallengeId(challenge.getId());
+    }
+
+    /**
+     * Per-sport and overall progress of a participant; {@code progress} is null before any activity
+     */
+    static ParticipantProgressDTO participantProgress(ChallengeParticipant p, DailyProgress progress) {
+        Map<SportType, BigDecimal> goals = p.getGoals();
+        Map<SportType, Integer> distances = new HashMap<>();
+        Map<SportType, Integer> sportPercents = new HashMap<>();
+
+        // Calculate progress for each sport that participant selected
+        for (SportType sport : goals.keySet()) {
+            int distance = progress != null ? progress.getDistanceMeters(sport) : 0;
+            distances.put(sport, distance);
+
+            BigDecimal goalKm = goals.get(sport);
+            int percent = 0;
+            if (goalKm != null && goalKm.compareTo(BigDecimal.ZERO) > 0) {
+                int goalMeters = goalKm.multiply(BigDecimal.valueOf(1000)).intValue();
+                percent = Math.min(100, (int) ((distance * 100L) / goalMeters));
+            }
+            sportPercents.put(sport, percent);
+        }
+
+        // Calculate overall progress as average of all sports (capped at 100 each)
+        int overallPercent = sportPercents.isEmpty() ? 0 :
+                (int) sportPercents.values().stream()
+                        .mapToInt(Integer::intValue)
+                        .average()
+                        .orElse(0);
+
+        return new ParticipantProgressDTO(
+                p.getUser().getId(),
+                p.getUser().getUsername(),
+                goals,
+                distances,
+                sportPercents,
+                overallPercent
+        );
+    }
+
     /**
      * Get user's challenges with lazy status update
      */
@@ -454,7 +465,7 @@ public class ChallengeService {
             challenge.setStatus(ChallengeStatus.EXPIRED);
             changed = true;
             log.info("Challenge {} expired (no opponent joined)", challenge.getId());
-            notificationService.notifyChallengeExpired(challenge);
+            notificationService.enqueue(Event.CHALLENGE_EXPIRED, challenge, null);
         }
 
         // SCHEDULED -> ACTIVE (start date reached)
@@ -462,7 +473,7 @@ public class ChallengeService {
             challenge.setStatus(ChallengeStatus.ACTIVE);
             changed = true;
             log.info("Challenge {} activated (lazy)", challenge.getId());
-            notificationService.notifyChallengeStarted(challenge);
+            notificationService.enqueue(Event.CHALLENGE_STARTED, challenge, null);
         }
 
         // ACTIVE -> COMPLETED (end date passed)
@@ -477,7 +488,7 @@ public class ChallengeService {
             log.info("Challenge {} completed (lazy), winner: {}",
                     challenge.getId(),
                     winner != null ? winner.getUsername() : "tie");
-            notificationService.notifyChallengeCompleted(challenge, winner);
+            notificationService.enqueue(Event.CHALLENGE_COMPLETED, challenge, null);
         }
 
         if (changed) {
@@ -631,7 +642,7 @@ public class ChallengeService {
         return sportCount > 0 ? totalPercent / sportCount : 0;
     }
 
-    private ChallengeDTO mapToDTO(Challenge challenge) {
+    ChallengeDTO mapToDTO(Challenge challenge) {
         List<ParticipantDTO> participants = challenge.getParticipants().stream()
                 .map(p -> new ParticipantDTO(
                         p.getUser().getId(),
@@ -0,0 +1,57 @@
+package com.achiever.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cluster-wide mutual exclusion using Postgres session-level advisory locks.
+ * The lock is held on a dedicated connection while the work runs, and Postgres
+ * releases it automatically if the instance holding it dies.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterLockService {
+
+    private final DataSource dataSource;
+
+    /**
+     * Run the work only if no other instance holds the named lock.
+     *
+     * @return false if another instance holds the lock and the work was skipped
+     */
+    public boolean runExclusively(String lockName, Runnable work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(hashtext(?))", lockName)) {
+                log.debug("[LOCK] {} is held by another instance", lockName);
+                return false;
+            }
+            try {
+                work.run();
+                return true;
+            } finally {
+                if (!advisoryLock(connection, "SELECT pg_advisory_unlock(hashtext(?))", lockName)) {
+                    log.warn("[LOCK] {} was not held when releasing it", lockName);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Advisory lock " + lockName + " failed", e);
+        }
+    }
+
+    private boolean advisoryLock(Connection connection, String sql, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, lockName);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.achiever.service;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Handle for an in-progress job run.
+ * completedChunks is loaded once when the run starts (or resumes) so chunks
+ * that already committed are skipped without a query each.
+ */
+public record JobRunContext(
+        UUID id,
+        String jobName,
+        String runKey,
+        Instant startedAt,
+        Set<String> completedChunks
+) {}
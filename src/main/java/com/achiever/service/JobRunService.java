@@ -0,0 +1,192 @@
+package com.achiever.service;
+
+import com.achiever.entity.*;
+import com.achiever.repository.JobRunChunkRepository;
+import com.achiever.repository.JobRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs background jobs as a sequence of independently committed chunks and keeps
+ * a ledger of them in job_runs / job_run_chunks.
+ */
+@Service
+@Slf4j
+public class JobRunService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobRunRepository jobRunRepository;
+    private final JobRunChunkRepository chunkRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry meterRegistry;
+
+    public JobRunService(JobRunRepository jobRunRepository,
+                         JobRunChunkRepository chunkRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.jobRunRepository = jobRunRepository;
+        this.chunkRepository = chunkRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Start a run, or resume it if a run with the same key already exists.
+     */
+    public JobRunContext start(String jobName, String runKey) {
+        return chunkTransaction.execute(status -> {
+            JobRun run = jobRunRepository.findByJobNameAndRunKey(jobName, runKey)
+                    .orElseGet(() -> JobRun.builder()
+                            .jobName(jobName)
+                            .runKey(runKey)
+                            .build());
+
+            boolean resumed = run.getId() != null;
+            run.setStatus(JobRunStatus.RUNNING);
+            run.setFinishedAt(null);
+            run = jobRunRepository.save(run);
+
+            List<String> completed = resumed
+                    ? chunkRepository.findCompletedChunkKeys(run.getId())
+                    : List.of();
+
+            if (resumed) {
+                log.info("[JOB] Resuming {} run {} ({} chunks already completed)",
+                        jobName, runKey, completed.size());
+            } else {
+                log.info("[JOB] Starting {} run {}", jobName, runKey);
+            }
+
+            return new JobRunContext(run.getId(), jobName, runKey, Instant.now(), new HashSet<>(completed));
+        });
+    }
+
+    /**
+     * Run one chunk in its own transaction.
+     * The chunk's COMPLETED ledger row commits together with its work, so a chunk is
+     * never applied twice. On failure the work is rolled back and the chunk is recorded
+     * as FAILED in a separate transaction; it will be retried when the run is resumed.
+     *
+     * @return true if the chunk is done (now or previously), false if it failed
+     */
+    public boolean runChunk(JobRunContext run, String chunkKey, IntSupplier work) {
+        if (run.completedChunks().contains(chunkKey)) {
+            chunkCounter(run, "skipped").increment();
+            return true;
+        }
+
+        try {
+            Integer items = chunkTransaction.execute(status -> {
+                int processed = work.getAsInt();
+                recordChunk(run, chunkKey, JobChunkStatus.COMPLETED, processed, null);
+                return processed;
+            });
+            run.completedChunks().add(chunkKey);
+            chunkCounter(run, "completed").increment();
+            if (items != null && items > 0) {
+                Counter.builder("scheduler.job.items")
+                        .tag("job", run.jobName())
+                        .register(meterRegistry)
+                        .increment(items);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("[JOB] {} run {} chunk {} failed: {}",
+                    run.jobName(), run.runKey(), chunkKey, e.getMessage());
+            chunkCounter(run, "failed").increment();
+            chunkTransaction.executeWithoutResult(status ->
+                    recordChunk(run, chunkKey, JobChunkStatus.FAILED, 0, e.toString()));
+            return false;
+        }
+    }
+
+    /**
+     * Close the run: aggregate chunk counts into the ledger and publish metrics.
+     *
+     * @return FAILED if any chunk is still failed, COMPLETED otherwise
+     */
+    public JobRunStatus finish(JobRunContext run) {
+        return chunkTransaction.execute(status -> {
+            JobRun jobRun = jobRunRepository.findById(run.id()).orElseThrow();
+
+            int completed = chunkRepository.countByJobRunIdAndStatus(run.id(), JobChunkStatus.COMPLETED);
+            int failed = chunkRepository.countByJobRunIdAndStatus(run.id(), JobChunkStatus.FAILED);
+            int items = chunkRepository.sumItemsProcessed(run.id());
+            Instant finishedAt = Instant.now();
+
+            jobRun.setStatus(failed > 0 ? JobRunStatus.FAILED : JobRunStatus.COMPLETED);
+            jobRun.setFinishedAt(finishedAt);
+            jobRun.setDurationMs(Duration.between(jobRun.getStartedAt(), finishedAt).toMillis());
+            jobRun.setChunksCompleted(completed);
+            jobRun.setChunksFailed(failed);
+            jobRun.setItemsProcessed(items);
+            jobRunRepository.save(jobRun);
+
+            // Duration of this attempt; the ledger keeps the total since the run first started
+            Timer.builder("scheduler.job.duration")
+                    .tag("job", run.jobName())
+                    .tag("status", jobRun.getStatus().name())
+                    .register(meterRegistry)
+                    .record(Duration.between(run.startedAt(), finishedAt));
+
+            log.info("[JOB] {} run {} finished: {} in {} ms, {} chunks completed, {} failed, {} items",
+                    run.jobName(), run.runKey(), jobRun.getStatus(), jobRun.getDurationMs(),
+                    completed, failed, items);
+            return jobRun.getStatus();
+        });
+    }
+
+    public boolean isCompleted(String jobName, String runKey) {
+        return jobRunRepository.findByJobNameAndRunKey(jobName, runKey)
+                .map(run -> run.getStatus() == JobRunStatus.COMPLETED)
+                .orElse(false);
+    }
+
+    /**
+     * Runs interrupted by a crash or redeploy (still RUNNING in the ledger)
+     */
+    public List<JobRun> findInterruptedRuns() {
+        return jobRunRepository.findByStatusOrderByStartedAt(JobRunStatus.RUNNING);
+    }
+
+    private void recordChunk(JobRunContext run, String chunkKey, JobChunkStatus status, int items, String error) {
+        JobRunChunk chunk = chunkRepository.findByJobRunIdAndChunkKey(run.id(), chunkKey)
+                .map(existing -> {
+                    existing.setAttempts(existing.getAttempts() + 1);
+                    return existing;
+                })
+                .orElseGet(() -> JobRunChunk.builder()
+                        .jobRun(jobRunRepository.getReferenceById(run.id()))
+                        .chunkKey(chunkKey)
+                        .build());
+
+        chunk.setStatus(status);
+        chunk.setItemsProcessed(items);
+        chunk.setError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+        chunk.setUpdatedAt(Instant.now());
+        chunkRepository.save(chunk);
+    }
+
+    private Counter chunkCounter(JobRunContext run, String outcome) {
+        return Counter.builder("scheduler.job.chunks")
+                .tag("job", run.jobName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.achiever.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts password attempts per email (or user) and per client IP in fixed windows,
+ * so repeated guesses are turned away before any BCrypt work is done.
+ * <p>
+ * Counters live in memory on each instance. When more than {@code max-keys} keys are
+ * active, new keys are not tracked rather than locking everyone out; the hashing pool
+ * in {@link PasswordHasher} still bounds the CPU spent.
+ */
+@Component
+@Slf4j
+public class LoginAttemptLimiter {
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final int perAccount;
+    private final int perIp;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final Clock clock;
+    private final Counter throttled;
+
+    @Autowired
+    public LoginAttemptLimiter(@Value("${app.auth.attempts.per-account:10}") int perAccount,
+                               @Value("${app.auth.attempts.per-ip:50}") int perIp,
+                               @Value("${app.auth.attempts.window-seconds:900}") long windowSeconds,
+                               @Value("${app.auth.attempts.max-keys:100000}") int maxKeys,
+                               MeterRegistry meterRegistry) {
+        this(perAccount, perIp, Duration.ofSeconds(windowSeconds), maxKeys, Clock.systemUTC(), meterRegistry);
+    }
+
+    LoginAttemptLimiter(int perAccount, int perIp, Duration window, int maxKeys, Clock clock,
+                        MeterRegistry meterRegistry) {
+        this.perAccount = perAccount;
+        this.perIp = perIp;
+        this.windowMillis = window.toMillis();
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.throttled = Counter.builder("auth.attempts.throttled")
+                .description("Password attempts rejected before hashing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count an attempt.
+     *
+     * @param account normalized email, or the user id for authenticated calls
+     * @return 0 if the attempt may go ahead, otherwise seconds until it may be retried
+     */
+    public long tryAcquire(String account, String ip) {
+        long now = clock.millis();
+        long wait = Math.max(acquire("ip:" + ip, perIp, now), acquire("account:" + account, perAccount, now));
+        if (wait > 0) {
+            throttled.increment();
+            log.warn("[AUTH] Throttled password attempt from {}", ip);
+        }
+        return wait;
+    }
+
+    /**
+     * The account signed in; forget its earlier failures
+     */
+    public void reset(String account) {
+        windows.remove("account:" + account);
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    private long acquire(String key, int limit, long now) {
+        Window window = windows.get(key);
+        if (window == null || window.endsAt <= now) {
+            if (window == null && windows.size() >= maxKeys) {
+                windows.values().removeIf(w -> w.endsAt <= now);
+                if (windows.size() >= maxKeys) {
+                    return 0;
+                }
+            }
+            window = windows.compute(key, (k, current) ->
+                    current == null || current.endsAt <= now ? new Window(now + windowMillis) : current);
+        }
+        synchronized (window) {
+            if (window.attempts >= limit) {
+                return Math.max(1, (window.endsAt - now + 999) / 1000);
+            }
+            window.attempts++;
+            return 0;
+        }
+    }
+
+    private static final class Window {
+        private final long endsAt;
+        private int attempts;
+
+        private Window(long endsAt) {
+            this.endsAt = endsAt;
+        }
+    }
+}
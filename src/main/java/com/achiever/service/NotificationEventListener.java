@@ -0,0 +1,115 @@
+package com.achiever.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Receives notification events published by any instance (Postgres LISTEN) and hands
+ * them to the local SSE streams.
+ * <p>
+ * Uses its own connection outside the Hikari pool so the small pool is not reduced
+ * by a connection that is held open forever.
+ */
+@Service
+@Slf4j
+public class NotificationEventListener {
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final NotificationStreamService notificationStreamService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private volatile boolean running;
+    private Thread thread;
+
+    public NotificationEventListener(DataSourceProperties dataSourceProperties,
+                                     NotificationStreamService notificationStreamService,
+                                     ObjectMapper objectMapper,
+                                     @Value("${app.notifications.stream.listen:true}") boolean enabled) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.notificationStreamService = notificationStreamService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofVirtual().name("notification-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + NotificationStreamService.CHANNEL);
+                }
+                log.info("[STREAM] Listening for notification events");
+                if (reconnecting) {
+                    // Events sent while we were disconnected are lost; let clients replay them
+                    notificationStreamService.disconnectAll();
+                }
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("[STREAM] Notification listener disconnected: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            notificationStreamService.dispatch(
+                    objectMapper.readValue(payload, NotificationStreamService.NotificationEvent.class));
+        } catch (IOException e) {
+            log.warn("[STREAM] Ignoring malformed notification event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.achiever.service;
+
+import com.achiever.dto.NotificationDTO;
+import com.achiever.entity.Notification;
+import com.achiever.entity.NotificationTemplate;
+import com.achiever.entity.NotificationType;
+import com.achiever.entity.User;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.NotificationTemplateRepository;
+import com.achiever.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Turns stored notifications (type, challenge, actor, params) into display text.
+ * Templates are cached in memory and reloaded periodically; challenge names and
+ * usernames are fetched once per batch of notifications.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRenderer {
+
+    public static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
+    private static final String DEFAULT_CHALLENGE_NAME = "Challenge";
+    private static final String DEFAULT_ACTOR_NAME = "Your opponent";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
+    private final NotificationTemplateRepository templateRepository;
+    private final ChallengeRepository challengeRepository;
+    private final UserRepository userRepository;
+
+    private volatile Map<NotificationTemplate.Key, NotificationTemplate> templates;
+
+    /**
+     * Render notifications whose challenge and actor may be unloaded proxies
+     */
+    public List<NotificationDTO> render(List<Notification> notifications, Locale locale) {
+        Set<UUID> challengeIds = new HashSet<>();
+        Set<UUID> actorIds = new HashSet<>();
+        for (Notification n : notifications) {
+            if (n.getChallenge() != null) challengeIds.add(n.getChallenge().getId());
+            if (n.getActor() != null && n.getMessage() == null) actorIds.add(n.getActor().getId());
+        }
+
+        Map<UUID, String> challengeNames = challengeIds.isEmpty() ? Map.of() :
+                challengeRepository.findNamesByIdIn(challengeIds).stream()
+                        .filter(c -> c.getName() != null)
+                        .collect(Collectors.toMap(ChallengeRepository.ChallengeName::getId, ChallengeRepository.ChallengeName::getName));
+        Map<UUID, String> actorNames = actorIds.isEmpty() ? Map.of() :
+                userRepository.findUsernamesByIdIn(actorIds).stream()
+                        .filter(u -> u.getUsername() != null)
+                        .collect(Collectors.toMap(UserRepository.Username::getId, UserRepository.Username::getUsername));
+
+        return notifications.stream()
+                .map(n -> toDTO(n, challengeNames, actorNames, locale))
+                .toList();
+    }
+
+    /**
+     * Render notifications that were just created, with their challenge and actor loaded
+     */
+    public List<NotificationDTO> renderLoaded(List<Notification> notifications, Locale locale) {
+        Map<UUID, String> challengeNames = new HashMap<>();
+        Map<UUID, String> actorNames = new HashMap<>();
+        for (Notification n : notifications) {
+            if (n.getChallenge() != null && n.getChallenge().getName() != null) {
+                challengeNames.put(n.getChallenge().getId(), n.getChallenge().getName());
+            }
+            User actor = n.getActor();
+            if (actor != null && actor.getUsername() != null) {
+                actorNames.put(actor.getId(), actor.getUsername());
+            }
+        }
+        return notifications.stream()
+                .map(n -> toDTO(n, challengeNames, actorNames, locale))
+                .toList();
+    }
+
+    /**
+     * Pick up template edits without a restart
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.template-refresh-ms:600000}")
+    public void reloadTemplates() {
+        templates = templateRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(t -> new NotificationTemplate.Key(t.getType(), t.getLocale()),
+                        Function.identity()));
+        log.debug("[NOTIFY] Loaded {} notification templates", templates.size());
+    }
+
+    private NotificationDTO toDTO(Notification n, Map<UUID, String> challengeNames, Map<UUID, String> actorNames,
+                                  Locale locale) {
+        UUID challengeId = n.getChallenge() != null ? n.getChallenge().getId() : null;
+        String challengeName = challengeId != null ? challengeNames.get(challengeId) : null;
+        String message = n.getMessage();
+
+        if (message == null) {
+            Map<String, Object> values = new HashMap<>();
+            if (n.getParams() != null) {
+                values.putAll(n.getParams());
+            }
+            values.put("challenge", challengeName != null ? challengeName : DEFAULT_CHALLENGE_NAME);
+            values.put("actor", n.getActor() != null
+                    ? actorNames.getOrDefault(n.getActor().getId(), DEFAULT_ACTOR_NAME) : DEFAULT_ACTOR_NAME);
+            message = fill(template(n.getType(), locale, values.containsKey("count")), values);
+        }
+
+        return new NotificationDTO(
+                n.getId(),
+                n.getType(),
+                challengeId,
+                challengeName,
+                message,
+                n.isRead(),
+                n.getCreatedAt()
+        );
+    }
+
+    private String template(NotificationType type, Locale locale, boolean digest) {
+        Map<NotificationTemplate.Key, NotificationTemplate> loaded = templates;
+        if (loaded == null) {
+            reloadTemplates();
+            loaded = templates;
+        }
+        NotificationTemplate template = loaded.get(new NotificationTemplate.Key(type, locale.getLanguage()));
+        if (template == null) {
+            template = loaded.get(new NotificationTemplate.Key(type, DEFAULT_LOCALE.getLanguage()));
+        }
+        if (template == null) {
+            log.warn("[NOTIFY] No template for {}", type);
+            return type.name();
+        }
+        return digest && template.getDigestTemplate() != null ? template.getDigestTemplate() : template.getTemplate();
+    }
+
+    /**
+     * Single pass, so a name that contains "{...}" is not substituted again
+     */
+    private static String fill(String template, Map<String, Object> values) {
+        return PLACEHOLDER.matcher(template).replaceAll(match -> {
+            Object value = values.get(match.group(1));
+            return Matcher.quoteReplacement(value != null ? value.toString() : match.group());
+        });
+    }
+}
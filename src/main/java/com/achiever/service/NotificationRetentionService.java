@@ -0,0 +1,132 @@
+package com.achiever.service;
+
+import com.achiever.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps the notifications table bounded:
+ * - creates upcoming monthly partitions,
+ * - deletes read notifications past the read retention in small batches,
+ * - drops monthly partitions past the overall retention, and deletes expired rows
+ *   from the default partition.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService {
+
+    static final String MAINTENANCE_LOCK = "notification-retention";
+    private static final int PARTITION_MONTHS_AHEAD = 3;
+
+    private final NotificationRepository notificationRepository;
+    private final ClusterLockService clusterLockService;
+    private final UnreadCountCache unreadCountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int readRetentionDays;
+    private final int retentionDays;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public NotificationRetentionService(NotificationRepository notificationRepository,
+                                        ClusterLockService clusterLockService,
+                                        UnreadCountCache unreadCountCache,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.notifications.read-retention-days:90}") int readRetentionDays,
+                                        @Value("${app.notifications.retention-days:365}") int retentionDays,
+                                        @Value("${app.notifications.purge-batch-size:1000}") int batchSize,
+                                        @Value("${app.notifications.purge-max-batches:100}") int maxBatches) {
+        this.notificationRepository = notificationRepository;
+        this.clusterLockService = clusterLockService;
+        this.unreadCountCache = unreadCountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readRetentionDays = readRetentionDays;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Make sure the current month has a partition right after a deploy
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            clusterLockService.runExclusively(MAINTENANCE_LOCK, this::ensurePartitions);
+        } catch (Exception e) {
+            log.error("[RETENTION] Failed to create notification partitions", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void runRetention() {
+        clusterLockService.runExclusively(MAINTENANCE_LOCK, () -> {
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            ensurePartitions();
+            purgeReadNotifications(now.minusDays(readRetentionDays));
+            dropExpiredPartitions(now.minusDays(retentionDays));
+        });
+    }
+
+    void ensurePartitions() {
+        Integer created = transactionTemplate.execute(status ->
+                notificationRepository.ensurePartitions(LocalDate.now(ZoneOffset.UTC), PARTITION_MONTHS_AHEAD));
+        if (created != null && created > 0) {
+            log.info("[RETENTION] Created {} notification partition(s)", created);
+        }
+    }
+
+    int purgeReadNotifications(LocalDateTime cutoff) {
+        int total = deleteInBatches(() -> notificationRepository.deleteReadCreatedBefore(cutoff, batchSize));
+        log.info("[RETENTION] Deleted {} read notifications created before {}", total, cutoff);
+        return total;
+    }
+
+    /**
+     * Drops the monthly partitions past the cutoff and deletes the expired rows that
+     * ended up in the default partition.
+     */
+    int dropExpiredPartitions(LocalDateTime cutoff) {
+        Integer dropped = transactionTemplate.execute(status -> notificationRepository.dropPartitionsBefore(cutoff));
+        if (dropped != null && dropped > 0) {
+            log.info("[RETENTION] Dropped {} notification partition(s) ending before {}", dropped, cutoff);
+        }
+        int deleted = deleteInBatches(() ->
+                notificationRepository.deleteDefaultPartitionCreatedBefore(cutoff, batchSize));
+        if (deleted > 0) {
+            log.info("[RETENTION] Deleted {} notifications created before {} from the default partition",
+                    deleted, cutoff);
+        }
+        if ((dropped != null && dropped > 0) || deleted > 0) {
+            // These may have included unread notifications
+            unreadCountCache.invalidateAll();
+        }
+        return dropped != null ? dropped : 0;
+    }
+
+    /**
+     * Each batch commits on its own, so no long transaction or large lock set is held.
+     * Stops after maxBatches; the rest is picked up by the next run.
+     */
+    private int deleteInBatches(IntSupplier deleteBatch) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer deleted = transactionTemplate.execute(status -> deleteBatch.getAsInt());
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
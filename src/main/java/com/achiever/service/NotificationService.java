@@ -1,53 +1,107 @@
 package com.achiever.service;
 
-import com.achiever.dto.NotificationDTO;
+import com.achiever.dto.NotificationPageDTO;
 import com.achiever.entity.*;
+import com.achiever.jobs.NotificationFanoutJobHandler;
 import com.achiever.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
+    private final UnreadCountCache unreadCountCache;
+    private final NotificationStreamService notificationStreamService;
+    private final BackgroundJobService backgroundJobService;
+    private final NotificationRenderer notificationRenderer;
+
+    /**
+     * Record a challenge event in the outbox (the background job queue) as part of the
+     * caller's transaction. A queue worker creates the notifications afterwards, so
+     * user-facing requests do not pay for one insert per recipient.
+     */
+    public void enqueue(NotificationFanoutJobHandler.Event event, Challenge challenge, User actor) {
+        backgroundJobService.enqueue(BackgroundJobType.NOTIFICATION_FANOUT,
+                new NotificationFanoutJobHandler.Payload(event, List.of(challenge.getId()), actor != null ? actor.getId() : null),
+                actor == null ? "notify:" + event + ":" + challenge.getId() : null);
+    }
 
     /**
      * Create a notification for a user
+     *
+     * @param actor the user who caused it (joined, left, forfeited), or null
      */
-    public void notify(User user, NotificationType type, Challenge challenge, String message) {
-        Notification notification = Notification.builder()
-                .user(user)
-                .type(type)
-                .challenge(challenge)
-                .message(message)
-                .build();
-        notificationRepository.save(notification);
-        log.info("Notification created for user {}: {} - {}", user.getUsername(), type, message);
+    public void notify(User user, NotificationType type, Challenge challenge, User actor) {
+        createNotifications(List.of(build(user, type, challenge, actor)));
     }
 
     /**
-     * Get all notifications for a user
+     * Insert the notifications as one JDBC batch, then announce them to open streams
+     * and unread counters. Several notifications of the same type for one user are
+     * stored as a single digest ("3 challenges have started!").
      */
-    @Transactional(readOnly = true)
-    public List<NotificationDTO> getUserNotifications(UUID userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-                .map(this::mapToDTO)
-                .toList();
+    public void createNotifications(List<Notification> notifications) {
+        notifications = coalesce(notifications);
+        if (notifications.isEmpty()) {
+            return;
+        }
+        notificationRepository.saveAll(notifications);
+        notificationStreamService.publish(notifications);
+
+        List<UUID> userIds = notifications.stream().map(n -> n.getUser().getId()).toList();
+        afterCommit(() -> userIds.forEach(unreadCountCache::increment));
+        // A batch may mix types (winner and losers of a challenge), so count per type
+        log.info("Created {} notification(s): {}", notifications.size(), notifications.stream()
+                .collect(Collectors.groupingBy(Notification::getType,
+                        () -> new EnumMap<>(NotificationType.class), Collectors.counting())));
     }
 
     /**
-     * Get unread count
+     * Get a page of notifications for a user, newest first.
+     * Pass the previous page's nextCursor to continue; it is null on the last page.
      */
     @Transactional(readOnly = true)
+    public NotificationPageDTO getUserNotifications(UUID userId, String cursor, int limit, Locale locale) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        // One extra row tells whether there is a next page
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findLatestByUserId(userId, fetch);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            notifications = notificationRepository.findByUserIdBefore(userId, position.createdAt(), position.id(), fetch);
+        }
+
+        boolean hasMore = notifications.size() > pageSize;
+        List<Notification> page = hasMore ? notifications.subList(0, pageSize) : notifications;
+        String nextCursor = hasMore ? Cursor.of(page.getLast()).encode() : null;
+
+        return new NotificationPageDTO(notificationRenderer.render(page, locale), nextCursor);
+    }
+
+    /**
+     * Get unread count. Served from memory; the database is only queried on a cache miss.
+     */
     public long getUnreadCount(UUID userId) {
-        return notificationRepository.countByUserIdAndReadFalse(userId);
+        return unreadCountCache.get(userId, () -> notificationRepository.countByUserIdAndReadFalse(userId));
     }
 
     /**
@@ -56,6 +110,7 @@ public class NotificationService {
     @Transactional
     public void markAllAsRead(UUID userId) {
         notificationRepository.markAllAsRead(userId);
+        afterCommit(() -> unreadCountCache.reset(userId));
         log.info("All notifications marked as read for user {}", userId);
     }
 
@@ -67,74 +122,137 @@ public class NotificationService {
      * Notify challenge creator that opponent joined
      */
     public void notifyOpponentJoined(User creator, User opponent, Challenge challenge) {
-        String challengeName = challenge.getName() != null ? challenge.getName() : "Challenge";
-        notify(creator, NotificationType.CHALLENGE_JOINED, challenge,
-                opponent.getUsername() + " joined \"" + challengeName + "\"");
+        notify(creator, NotificationType.CHALLENGE_JOINED, challenge, opponent);
     }
 
     /**
-     * Notify both participants that challenge started
+     * Notify challenge creator that opponent left a scheduled challenge
      */
-    public void notifyChallengeStarted(Challenge challenge) {
-        String challengeName = challenge.getName() != null ? challenge.getName() : "Challenge";
-        for (ChallengeParticipant p : challenge.getParticipants()) {
-            notify(p.getUser(), NotificationType.CHALLENGE_STARTED, challenge,
-                    "\"" + challengeName + "\" has started!");
-        }
+    public void notifyOpponentLeft(User opponent, Challenge challenge) {
+        notify(challenge.getCreatedBy(), NotificationType.CHALLENGE_LEFT, challenge, opponent);
+    }
+
+    /**
+     * Notify all participants that their challenges started; coalesced per user
+     */
+    public void notifyChallengesStarted(List<Challenge> challenges) {
+        createNotifications(challenges.stream()
+                .flatMap(challenge -> challenge.getParticipants().stream()
+                        .map(p -> build(p.getUser(), NotificationType.CHALLENGE_STARTED, challenge, null)))
+                .toList());
     }
 
     /**
      * Notify participants about challenge completion
      */
     public void notifyChallengeCompleted(Challenge challenge, User winner) {
-        String challengeName = challenge.getName() != null ? challenge.getName() : "Challenge";
+        List<Notification> notifications = new ArrayList<>();
 
         for (ChallengeParticipant p : challenge.getParticipants()) {
             if (p.hasForfeited()) continue;
 
+            NotificationType type;
             if (winner == null) {
-                // Tie
-                notify(p.getUser(), NotificationType.CHALLENGE_TIE, challenge,
-                        "\"" + challengeName + "\" ended in a tie! 🤝");
+                type = NotificationType.CHALLENGE_TIE;
             } else if (p.getUser().getId().equals(winner.getId())) {
-                // Winner
-                notify(p.getUser(), NotificationType.CHALLENGE_WON, challenge,
-                        "You won \"" + challengeName + "\"! 🏆");
+                type = NotificationType.CHALLENGE_WON;
             } else {
-                // Loser
-                notify(p.getUser(), NotificationType.CHALLENGE_LOST, challenge,
-                        "\"" + challengeName + "\" has ended. Better luck next time!");
+                type = NotificationType.CHALLENGE_LOST;
             }
+            notifications.add(build(p.getUser(), type, challenge, null));
         }
+        createNotifications(notifications);
     }
 
     /**
      * Notify opponent that they won because user forfeited
      */
     public void notifyOpponentForfeited(User forfeiter, User winner, Challenge challenge) {
-        String challengeName = challenge.getName() != null ? challenge.getName() : "Challenge";
-        notify(winner, NotificationType.CHALLENGE_FORFEITED, challenge,
-                forfeiter.getUsername() + " forfeited \"" + challengeName + "\". You won! 🏆");
+        notify(winner, NotificationType.CHALLENGE_FORFEITED, challenge, forfeiter);
+    }
+
+    /**
+     * Notify creators that their challenges expired; coalesced per user
+     */
+    public void notifyChallengesExpired(List<Challenge> challenges) {
+        createNotifications(challenges.stream()
+                .map(challenge -> build(challenge.getCreatedBy(), NotificationType.CHALLENGE_EXPIRED, challenge, null))
+                .toList());
     }
 
     /**
-     * Notify creator that challenge expired
+     * Replace each user's notifications of the same type with one digest row holding the count
      */
-    public void notifyChallengeExpired(Challenge challenge) {
-        String challengeName = challenge.getName() != null ? challenge.getName() : "Challenge";
-        notify(challenge.getCreatedBy(), NotificationType.CHALLENGE_EXPIRED, challenge,
-                "\"" + challengeName + "\" expired — no one joined");
-    }
-
-    private NotificationDTO mapToDTO(Notification n) {
-        return new NotificationDTO(
-                n.getId(),
-                n.getType(),
-                n.getChallenge() != null ? n.getChallenge().getId() : null,
-                n.getChallenge() != null ? n.getChallenge().getName() : null,
-                n.getMessage(),
-                n.isRead(),
-                n.getCreatedAt()
-        );
-    }
-}
\ No newline at end of file
+    static List<Notification> coalesce(List<Notification> notifications) {
+        Map<UUID, Map<NotificationType, List<Notification>>> byUserAndType = new LinkedHashMap<>();
+        for (Notification n : notifications) {
+            byUserAndType.computeIfAbsent(n.getUser().getId(), id -> new EnumMap<>(NotificationType.class))
+                    .computeIfAbsent(n.getType(), type -> new ArrayList<>())
+                    .add(n);
+        }
+        if (byUserAndType.values().stream().allMatch(types -> types.values().stream().allMatch(g -> g.size() == 1))) {
+            return notifications;
+        }
+
+        List<Notification> result = new ArrayList<>();
+        byUserAndType.values().forEach(types -> types.forEach((type, group) -> {
+            if (group.size() == 1) {
+                result.add(group.getFirst());
+            } else {
+                Notification digest = build(group.getFirst().getUser(), type, null, null);
+                digest.setParams(Map.of("count", group.size()));
+                result.add(digest);
+            }
+        }));
+        return result;
+    }
+
+    private static Notification build(User user, NotificationType type, Challenge challenge, User actor) {
+        return Notification.builder()
+                .user(user)
+                .type(type)
+                .challenge(challenge)
+                .actor(actor)
+                .build();
+    }
+
+    /**
+     * Keyset position (createdAt, id), sent to clients as an opaque base64 string
+     */
+    record Cursor(Instant createdAt, UUID id) {
+
+        static Cursor of(Notification notification) {
+            return new Cursor(notification.getCreatedAt(), notification.getId());
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Update the unread counters only once the change is visible to other readers
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
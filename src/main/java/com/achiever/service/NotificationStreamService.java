@@ -0,0 +1,249 @@
+package com.achiever.service;
+
+import com.achiever.dto.NotificationDTO;
+import com.achiever.entity.Notification;
+import com.achiever.repository.NotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes new notifications to connected SSE clients.
+ * <p>
+ * Each connection has a bounded buffer drained by its own virtual thread; a client that
+ * falls behind is disconnected and catches up by reconnecting with Last-Event-ID.
+ * With {@code app.notifications.stream.listen} on, events go through Postgres
+ * NOTIFY (see {@link NotificationEventListener}) so they reach clients on every instance.
+ * Events are rendered once when published, in the default locale.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    static final String CHANNEL = "notification_events";
+    static final int REPLAY_LIMIT = 100;
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object CLOSE = new Object();
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationRenderer notificationRenderer;
+    private final ObjectMapper objectMapper;
+    private final boolean listen;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final ConcurrentHashMap<UUID, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     NotificationRenderer notificationRenderer,
+                                     ObjectMapper objectMapper,
+                                     @Value("${app.notifications.stream.listen:true}") boolean listen,
+                                     @Value("${app.notifications.stream.timeout-minutes:30}") long timeoutMinutes,
+                                     @Value("${app.notifications.stream.buffer-size:64}") int bufferSize) {
+        this.notificationRepository = notificationRepository;
+        this.notificationRenderer = notificationRenderer;
+        this.objectMapper = objectMapper;
+        this.listen = listen;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * A notification as sent on the stream. The id is the SSE event id and doubles as
+     * the keyset cursor to resume from.
+     */
+    public record NotificationEvent(UUID userId, String id, NotificationDTO notification) {}
+
+    /**
+     * Open a stream for the user, replaying anything after lastEventId first
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        NotificationService.Cursor resumeFrom = parseCursor(lastEventId);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        subscriptions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        Thread.ofVirtual()
+                .name("notification-stream-" + userId)
+                .start(() -> stream(subscription, resumeFrom));
+        log.debug("[STREAM] User {} connected ({} open for user)", userId, subscriptions.getOrDefault(userId, Set.of()).size());
+        return emitter;
+    }
+
+    /**
+     * Announce newly saved notifications. Nothing is sent if the transaction rolls back.
+     */
+    public void publish(List<Notification> notifications) {
+        List<NotificationDTO> rendered = notificationRenderer.renderLoaded(notifications, NotificationRenderer.DEFAULT_LOCALE);
+        List<NotificationEvent> events = new ArrayList<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification n = notifications.get(i);
+            events.add(new NotificationEvent(n.getUser().getId(), NotificationService.Cursor.of(n).encode(), rendered.get(i)));
+        }
+
+        if (listen) {
+            List<String> payloads = new ArrayList<>(events.size());
+            for (NotificationEvent event : events) {
+                try {
+                    payloads.add(objectMapper.writeValueAsString(event));
+                } catch (JsonProcessingException e) {
+                    log.error("[STREAM] Could not serialize notification {}", event.notification().id(), e);
+                }
+            }
+            if (!payloads.isEmpty()) {
+                notificationRepository.publishEvents(CHANNEL, payloads.toArray(String[]::new));
+            }
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(NotificationStreamService.this::dispatch);
+                }
+            });
+        } else {
+            events.forEach(this::dispatch);
+        }
+    }
+
+    /**
+     * Hand an event to the user's open connections on this instance
+     */
+    void dispatch(NotificationEvent event) {
+        for (Subscription subscription : subscriptions.getOrDefault(event.userId(), Set.of())) {
+            if (!subscription.queue.offer(event)) {
+                log.warn("[STREAM] Buffer full for user {}, closing stream", event.userId());
+                remove(subscription);
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies; a failed write also detects dead clients
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> subscription.queue.offer(HEARTBEAT)));
+    }
+
+    /**
+     * Close every stream on this instance; clients reconnect and replay from Last-Event-ID.
+     * Runs on context close, before graceful shutdown would otherwise wait for open streams.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void disconnectAll() {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            remove(subscription);
+            try {
+                subscription.emitter.complete();
+            } catch (IllegalStateException e) {
+                // Response already gone (client disconnected or server shutting down)
+            }
+        }));
+    }
+
+    private void stream(Subscription subscription, NotificationService.Cursor resumeFrom) {
+        try {
+            Set<String> replayed = resumeFrom != null ? replay(subscription, resumeFrom) : Set.of();
+            while (true) {
+                Object item = subscription.queue.take();
+                if (item == CLOSE) {
+                    return;
+                }
+                if (item == HEARTBEAT) {
+                    subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (item instanceof NotificationEvent event && !replayed.contains(event.id())) {
+                    send(subscription, event);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            log.debug("[STREAM] Stream for user {} closed: {}", subscription.userId, e.getMessage());
+            remove(subscription);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("[STREAM] Stream for user {} failed", subscription.userId, e);
+            remove(subscription);
+            subscription.emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Send what was created after the client's last event. If more than REPLAY_LIMIT were
+     * missed, a "resync" event tells the client to reload the list instead.
+     */
+    private Set<String> replay(Subscription subscription, NotificationService.Cursor resumeFrom) throws IOException {
+        List<Notification> missed = notificationRepository.findByUserIdAfter(
+                subscription.userId, resumeFrom.createdAt(), resumeFrom.id(), Limit.of(REPLAY_LIMIT + 1));
+        if (missed.size() > REPLAY_LIMIT) {
+            subscription.emitter.send(SseEmitter.event().name("resync").data(""));
+            return Set.of();
+        }
+
+        List<NotificationDTO> rendered = notificationRenderer.render(missed, NotificationRenderer.DEFAULT_LOCALE);
+        Set<String> replayed = new HashSet<>();
+        for (int i = 0; i < missed.size(); i++) {
+            NotificationEvent event = new NotificationEvent(subscription.userId,
+                    NotificationService.Cursor.of(missed.get(i)).encode(), rendered.get(i));
+            send(subscription, event);
+            replayed.add(event.id());
+        }
+        return replayed;
+    }
+
+    private void send(Subscription subscription, NotificationEvent event) throws IOException {
+        subscription.emitter.send(SseEmitter.event()
+                .id(event.id())
+                .name("notification")
+                .data(event.notification()));
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (userId, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        subscription.queue.clear();
+        subscription.queue.offer(CLOSE);
+    }
+
+    private NotificationService.Cursor parseCursor(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return NotificationService.Cursor.decode(lastEventId);
+        } catch (IllegalArgumentException e) {
+            log.debug("[STREAM] Ignoring invalid Last-Event-ID");
+            return null;
+        }
+    }
+
+    private record Subscription(UUID userId, SseEmitter emitter, BlockingQueue<Object> queue) {}
+}
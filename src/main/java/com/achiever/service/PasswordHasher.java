@@ -0,0 +1,105 @@
+package com.achiever.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a burst of logins cannot take every core.
+ * <p>
+ * At most {@code threads} hashes run at once and {@code queue-capacity} wait; beyond
+ * that, and for callers that wait longer than {@code timeout-ms}, a
+ * {@link RejectedExecutionException} is thrown (503 via GlobalExceptionHandler).
+ */
+@Service
+@Slf4j
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejectedBusy;
+    private final Counter rejectedTimeout;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.auth.hashing.threads:1}") int threads,
+                          @Value("${app.auth.hashing.queue-capacity:8}") int queueCapacity,
+                          @Value("${app.auth.hashing.timeout-ms:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing passwords, excluding queueing")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing passwords, excluding queueing")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.rejectedBusy = Counter.builder("auth.password.rejected").tag("reason", "busy").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("auth.password.rejected").tag("reason", "timeout").register(meterRegistry);
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Supplier<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(hash));
+        } catch (RejectedExecutionException e) {
+            rejectedBusy.increment();
+            log.warn("[AUTH] Password hashing queue is full, rejecting");
+            throw new RejectedExecutionException("Too many password checks in progress, try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            executor.purge();
+            rejectedTimeout.increment();
+            throw new RejectedExecutionException("Password check timed out, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while checking password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
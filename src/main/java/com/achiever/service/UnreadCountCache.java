@@ -0,0 +1,99 @@
+package com.achiever.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user unread notification counters, kept in memory so the unread-count poll
+ * does not need a database connection.
+ * <p>
+ * Counters are updated write-through by {@link NotificationService} on this instance.
+ * Entries expire after the TTL so changes made on another instance (or missed by a
+ * concurrent reload) are picked up from the database within that time.
+ */
+@Component
+public class UnreadCountCache {
+
+    private final ConcurrentHashMap<UUID, Entry> counters = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Clock clock;
+
+    @Autowired
+    public UnreadCountCache(@Value("${app.notifications.unread-cache-ttl-seconds:60}") long ttlSeconds,
+                            @Value("${app.notifications.unread-cache-max-size:10000}") int maxSize) {
+        this(Duration.ofSeconds(ttlSeconds), maxSize, Clock.systemUTC());
+    }
+
+    UnreadCountCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Cached count for the user, or the loader's count on a miss or expired entry
+     */
+    public long get(UUID userId, LongSupplier loader) {
+        long now = clock.millis();
+        Entry entry = counters.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.count.get();
+        }
+        long count = loader.getAsLong();
+        if (counters.size() >= maxSize) {
+            evictExpired(now);
+        }
+        if (counters.size() < maxSize) {
+            counters.put(userId, new Entry(count, now + ttlMillis));
+        }
+        return count;
+    }
+
+    /**
+     * Count one new notification. Only cached users are touched; others reload on next read.
+     */
+    public void increment(UUID userId) {
+        Entry entry = counters.get(userId);
+        if (entry != null) {
+            entry.count.incrementAndGet();
+        }
+    }
+
+    /**
+     * All notifications were marked as read
+     */
+    public void reset(UUID userId) {
+        counters.put(userId, new Entry(0, clock.millis() + ttlMillis));
+    }
+
+    public void invalidateAll() {
+        counters.clear();
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private void evictExpired(long now) {
+        counters.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long expiresAt;
+
+        private Entry(long count, long expiresAt) {
+            this.count = new AtomicLong(count);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
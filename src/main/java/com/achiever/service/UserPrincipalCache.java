@@ -0,0 +1,108 @@
+package com.achiever.service;
+
+import com.achiever.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Authenticated users by id, so the JWT filter does not need a database connection
+ * (and the Strava connection fetch) on every request.
+ * <p>
+ * Callers get their own copy of the cached user; the Strava connection is shared and
+ * only meant for "is connected" checks, so read tokens from the repository.
+ * Entries are evicted by {@link #invalidate} when the password, timezone or Strava
+ * connection changes on this instance, and expire after the TTL for changes made elsewhere.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final ConcurrentHashMap<UUID, Entry> users = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Clock clock;
+
+    @Autowired
+    public UserPrincipalCache(@Value("${app.auth.principal-cache-ttl-seconds:300}") long ttlSeconds,
+                              @Value("${app.auth.principal-cache-max-size:10000}") int maxSize) {
+        this(Duration.ofSeconds(ttlSeconds), maxSize, Clock.systemUTC());
+    }
+
+    UserPrincipalCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Copy of the cached user, or the loader's user on a miss or expired entry.
+     * Unknown users are not cached.
+     */
+    public Optional<User> get(UUID userId, Function<UUID, Optional<User>> loader) {
+        long now = clock.millis();
+        Entry entry = users.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            return Optional.of(copy(entry.user));
+        }
+        Optional<User> loaded = loader.apply(userId);
+        if (loaded.isEmpty()) {
+            users.remove(userId);
+            return loaded;
+        }
+        if (users.size() >= maxSize) {
+            evictExpired(now);
+        }
+        if (users.size() < maxSize) {
+            users.put(userId, new Entry(copy(loaded.get()), now + ttlMillis));
+        }
+        return loaded;
+    }
+
+    /**
+     * The user changed. Evicted now and again after the current transaction commits,
+     * so a request that reloads in between does not keep the old state.
+     */
+    public void invalidate(UUID userId) {
+        users.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.remove(userId);
+                }
+            });
+        }
+    }
+
+    int size() {
+        return users.size();
+    }
+
+    private void evictExpired(long now) {
+        users.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .passwordHash(user.getPasswordHash())
+                .timezone(user.getTimezone())
+                .createdAt(user.getCreatedAt())
+                .stravaConnection(user.getStravaConnection())
+                .build();
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
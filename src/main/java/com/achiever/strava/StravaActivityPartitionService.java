@@ -0,0 +1,63 @@
+package com.achiever.strava;
+
+import com.achiever.repository.StravaActivityRepository;
+import com.achiever.service.ClusterLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Creates the upcoming monthly partitions of strava_activities, so synced activities never
+ * pile up in the default partition. Activities are kept, no partition is dropped.
+ */
+@Service
+@Slf4j
+public class StravaActivityPartitionService {
+
+    static final String MAINTENANCE_LOCK = "strava-activity-partitions";
+    private static final int PARTITION_MONTHS_AHEAD = 3;
+
+    private final StravaActivityRepository activityRepository;
+    private final ClusterLockService clusterLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    public StravaActivityPartitionService(StravaActivityRepository activityRepository,
+                                          ClusterLockService clusterLockService,
+                                          PlatformTransactionManager transactionManager) {
+        this.activityRepository = activityRepository;
+        this.clusterLockService = clusterLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Make sure the current month has a partition right after a deploy
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            clusterLockService.runExclusively(MAINTENANCE_LOCK, this::ensurePartitions);
+        } catch (Exception e) {
+            log.error("[PARTITIONS] Failed to create Strava activity partitions", e);
+        }
+    }
+
+    @Scheduled(cron = "0 40 3 * * *")
+    public void runMaintenance() {
+        clusterLockService.runExclusively(MAINTENANCE_LOCK, this::ensurePartitions);
+    }
+
+    void ensurePartitions() {
+        Integer created = transactionTemplate.execute(status ->
+                activityRepository.ensurePartitions(LocalDate.now(ZoneOffset.UTC), PARTITION_MONTHS_AHEAD));
+        if (created != null && created > 0) {
+            log.info("[PARTITIONS] Created {} Strava activity partition(s)", created);
+        }
+    }
+}
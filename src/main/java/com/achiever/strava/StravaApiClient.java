@@ -2,13 +2,16 @@ package com.achiever.strava;
 
 import com.achiever.entity.StravaConnection;
 import com.achiever.repository.StravaConnectionRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Instant;
@@ -16,14 +19,16 @@ import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class StravaApiClient {
 
     private final RestTemplate restTemplate = new RestTemplate();
     private final StravaConnectionRepository stravaConnectionRepository;
+    private final MeterRegistry meterRegistry;
+    private final Counter tokensRefreshed;
 
     @Value("${spring.security.oauth2.client.registration.strava.client-id}")
     private String clientId;
@@ -31,15 +36,24 @@ public class StravaApiClient {
     @Value("${spring.security.oauth2.client.registration.strava.client-secret}")
     private String clientSecret;
 
+    @Value("${spring.security.oauth2.client.provider.strava.token-uri}")
+    private String tokenUri;
+
     @Value("${app.strava.api-base-url}")
     private String apiBaseUrl;
 
+    public StravaApiClient(StravaConnectionRepository stravaConnectionRepository, MeterRegistry meterRegistry) {
+        this.stravaConnectionRepository = stravaConnectionRepository;
+        this.meterRegistry = meterRegistry;
+        this.tokensRefreshed = Counter.builder("strava.tokens.refreshed")
+                .description("Expired Strava access tokens refreshed")
+                .register(meterRegistry);
+    }
+
     /**
      * Exchange authorization code for tokens
      */
     public StravaTokenResponse exchangeCode(String code) {
-        String url = "https://www.strava.com/oauth/token";
-
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
         params.add("client_id", clientId);
         params.add("client_secret", clientSecret);
@@ -51,8 +65,8 @@ public class StravaApiClient {
 
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
 
-        ResponseEntity<StravaTokenResponse> response = restTemplate.postForEntity(
-                url, request, StravaTokenResponse.class);
+        ResponseEntity<StravaTokenResponse> response = timed("token_exchange", () -> restTemplate.postForEntity(
+                tokenUri, request, StravaTokenResponse.class));
 
         return response.getBody();
     }
@@ -61,8 +75,6 @@ public class StravaApiClient {
      * Refresh expired access token
      */
     public StravaTokenResponse refreshToken(String refreshToken) {
-        String url = "https://www.strava.com/oauth/token";
-
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
         params.add("client_id", clientId);
         params.add("client_secret", clientSecret);
@@ -74,8 +86,8 @@ public class StravaApiClient {
 
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
 
-        ResponseEntity<StravaTokenResponse> response = restTemplate.postForEntity(
-                url, request, StravaTokenResponse.class);
+        ResponseEntity<StravaTokenResponse> response = timed("token_refresh", () -> restTemplate.postForEntity(
+                tokenUri, request, StravaTokenResponse.class));
 
         return response.getBody();
     }
@@ -93,6 +105,7 @@ public class StravaApiClient {
             connection.setExpiresAt(Instant.ofEpochSecond(newTokens.getExpiresAt()));
             connection.setUpdatedAt(Instant.now());
             stravaConnectionRepository.save(connection);
+            tokensRefreshed.increment();
         }
         return connection.getAccessToken();
     }
@@ -123,8 +136,8 @@ public class StravaApiClient {
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<StravaActivityResponse[]> response = restTemplate.exchange(
-                    url, HttpMethod.GET, request, StravaActivityResponse[].class);
+            ResponseEntity<StravaActivityResponse[]> response = timed("activities", () -> restTemplate.exchange(
+                    url, HttpMethod.GET, request, StravaActivityResponse[].class));
 
             StravaActivityResponse[] activities = response.getBody();
             return activities != null ? Arrays.asList(activities) : Collections.emptyList();
@@ -145,9 +158,31 @@ public class StravaApiClient {
 
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
-        ResponseEntity<StravaAthleteResponse> response = restTemplate.exchange(
-                apiBaseUrl + "/athlete", HttpMethod.GET, request, StravaAthleteResponse.class);
+        ResponseEntity<StravaAthleteResponse> response = timed("athlete", () -> restTemplate.exchange(
+                apiBaseUrl + "/athlete", HttpMethod.GET, request, StravaAthleteResponse.class));
 
         return response.getBody();
     }
+
+    /**
+     * Record the call as strava.api.requests by endpoint and HTTP status ("IO_ERROR" if there was none)
+     */
+    private <T> ResponseEntity<T> timed(String endpoint, Supplier<ResponseEntity<T>> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        try {
+            ResponseEntity<T> response = call.get();
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } catch (RestClientResponseException e) {
+            status = String.valueOf(e.getStatusCode().value());
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("strava.api.requests")
+                    .description("Calls to the Strava API")
+                    .tag("endpoint", endpoint)
+                    .tag("status", status)
+                    .register(meterRegistry));
+        }
+    }
 }
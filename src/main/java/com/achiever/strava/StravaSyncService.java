@@ -2,6 +2,8 @@ package com.achiever.strava;
 
 import com.achiever.entity.*;
 import com.achiever.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,6 +14,8 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,6 +32,7 @@ public class StravaSyncService {
     private final ChallengeParticipantRepository participantRepository;
     private final ChallengeRepository challengeRepository;
     private final DailyProgressRepository progressRepository;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Sync activities for a specific user (last 30 days)
@@ -116,27 +121,37 @@ public class StravaSyncService {
     }
 
     /**
-     * Save activities to database
+     * Save activities not stored yet: one query for the known ids, then batched inserts
      */
     private int saveActivities(List<StravaActivityResponse> activities, User user) {
-        int newCount = 0;
+        if (activities.isEmpty()) {
+            return 0;
+        }
+        // Also skips an activity listed twice
+        Set<Long> existing = new HashSet<>(activityRepository.findExistingIds(
+                activities.stream().map(StravaActivityResponse::getId).toList()));
+
+        List<StravaActivity> newActivities = new ArrayList<>();
         for (StravaActivityResponse activity : activities) {
-            if (!activityRepository.existsById(activity.getId())) {
-                StravaActivity entity = StravaActivity.builder()
+            if (existing.add(activity.getId())) {
+                newActivities.add(StravaActivity.builder()
                         .id(activity.getId())
                         .user(user)
-                        .sportType(mapSportType(activity.getSportType()))
+                        .sportCode(mapSportType(activity.getSportType()))
                         .name(activity.getName())
                         .startDate(activity.getStartDate())
                         .distanceMeters(activity.getDistance() != null ? activity.getDistance().intValue() : 0)
                         .movingTimeSeconds(activity.getMovingTime())
-                        .build();
-
-                activityRepository.save(entity);
-                newCount++;
+                        .build());
             }
         }
-        return newCount;
+        activityRepository.saveAll(newActivities);
+
+        Counter.builder("strava.activities.ingested")
+                .description("New Strava activities stored")
+                .register(meterRegistry)
+                .increment(newActivities.size());
+        return newActivities.size();
     }
 
     /**
@@ -186,11 +201,9 @@ public class StravaSyncService {
         int totalDistanceAll = 0;
 
         for (SportType sportType : sportTypes) {
-            String stravaSportType = mapSportTypeToStrava(sportType);
-
             // Sum distance for this sport type
-            int distance = activityRepository.sumDistanceByUserAndSportTypeAndDateRange(
-                    userId, stravaSportType, startDateTime, endDateTime);
+            int distance = activityRepository.sumDistanceByUserAndSportCodeAndDateRange(
+                    userId, sportType.code(), startDateTime, endDateTime);
 
             // Update per-sport distance in progress
             progress.setDistanceMeters(sportType, distance);
@@ -243,23 +256,18 @@ public class StravaSyncService {
         return startAtInCreatorTZ.isAfter(createdAt) ? startAtInCreatorTZ : createdAt;
     }
 
-    private String mapSportType(String stravaSportType) {
-        if (stravaSportType == null) return "OTHER";
+    /**
+     * Sport code stored for a Strava sport type: variants such as TrailRun or Hike count
+     * as the challenge sport, anything else as {@link SportType#OTHER_CODE}
+     */
+    static short mapSportType(String stravaSportType) {
+        if (stravaSportType == null) return SportType.OTHER_CODE;
         return switch (stravaSportType.toLowerCase()) {
-            case "run", "trailrun", "virtualrun" -> "Run";
-            case "ride", "virtualride", "ebikeride", "mountainbikeride" -> "Ride";
-            case "swim" -> "Swim";
-            case "walk", "hike" -> "Walk";
-            default -> stravaSportType;
-        };
-    }
-
-    private String mapSportTypeToStrava(SportType sportType) {
-        return switch (sportType) {
-            case RUN -> "Run";
-            case RIDE -> "Ride";
-            case SWIM -> "Swim";
-            case WALK -> "Walk";
+            case "run", "trailrun", "virtualrun" -> SportType.RUN.code();
+            case "ride", "virtualride", "ebikeride", "mountainbikeride" -> SportType.RIDE.code();
+            case "swim" -> SportType.SWIM.code();
+            case "walk", "hike" -> SportType.WALK.code();
+            default -> SportType.OTHER_CODE;
         };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+-- Ledger for chunked background jobs (midnight sync, weekly results).
+-- A run is identified by (job_name, run_key); every chunk commits its own row, so a
+-- crash or redeploy mid-run resumes from the first chunk that is not COMPLETED.
+CREATE TABLE job_runs (
+    id UUID PRIMARY KEY,
+    job_name VARCHAR(50) NOT NULL,
+    run_key VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING', -- RUNNING, COMPLETED, FAILED
+    started_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    chunks_completed INTEGER NOT NULL DEFAULT 0,
+    chunks_failed INTEGER NOT NULL DEFAULT 0,
+    items_processed INTEGER NOT NULL DEFAULT 0,
+
+    UNIQUE(job_name, run_key),
+    CONSTRAINT chk_job_run_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_job_runs_running ON job_runs(started_at) WHERE status = 'RUNNING';
+
+CREATE TABLE job_run_chunks (
+    id UUID PRIMARY KEY,
+    job_run_id UUID NOT NULL REFERENCES job_runs(id) ON DELETE CASCADE,
+    chunk_key VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL, -- COMPLETED, FAILED
+    attempts INTEGER NOT NULL DEFAULT 1,
+    items_processed INTEGER NOT NULL DEFAULT 0,
+    error TEXT,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    UNIQUE(job_run_id, chunk_key),
+    CONSTRAINT chk_job_chunk_status CHECK (status IN ('COMPLETED', 'FAILED'))
+);
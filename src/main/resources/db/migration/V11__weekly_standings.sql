@@ -0,0 +1,20 @@
+-- Weekly results for any number of participants.
+-- challenge_week_standings holds one row per participant and week; challenge_week_results
+-- stays the per-week header (winner, tie). Its user_a/user_b columns are only filled for
+-- two-participant challenges and are kept for backward compatibility.
+CREATE TABLE challenge_week_standings (
+    id UUID PRIMARY KEY,
+    challenge_id UUID NOT NULL REFERENCES challenges(id) ON DELETE CASCADE,
+    week_start DATE NOT NULL,
+    user_id UUID NOT NULL REFERENCES users(id),
+    progress_percent INTEGER NOT NULL,
+    rank INTEGER NOT NULL, -- 1 = best, equal percents share a rank
+    computed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    UNIQUE(challenge_id, week_start, user_id)
+);
+
+ALTER TABLE challenge_week_results ALTER COLUMN user_a_id DROP NOT NULL;
+ALTER TABLE challenge_week_results ALTER COLUMN user_b_id DROP NOT NULL;
+ALTER TABLE challenge_week_results ALTER COLUMN user_a_percent DROP NOT NULL;
+ALTER TABLE challenge_week_results ALTER COLUMN user_b_percent DROP NOT NULL;
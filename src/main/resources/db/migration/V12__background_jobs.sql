@@ -0,0 +1,27 @@
+-- Durable job queue. Workers claim due rows with FOR UPDATE SKIP LOCKED, so any number
+-- of workers and app instances can share it.
+CREATE TABLE background_jobs (
+    id UUID PRIMARY KEY,
+    type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    dedupe_key VARCHAR(200),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING, RUNNING, DONE, DEAD
+    attempts INTEGER NOT NULL DEFAULT 0,
+    max_attempts INTEGER NOT NULL,
+    run_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    locked_at TIMESTAMP,
+    locked_by VARCHAR(100),
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    finished_at TIMESTAMP,
+
+    CONSTRAINT chk_background_job_status CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'DEAD'))
+);
+
+-- Only one live job per dedupe key; finished jobs don't block re-enqueueing
+CREATE UNIQUE INDEX uq_background_jobs_dedupe_live
+    ON background_jobs(dedupe_key) WHERE status IN ('PENDING', 'RUNNING');
+
+CREATE INDEX idx_background_jobs_due ON background_jobs(run_at) WHERE status = 'PENDING';
+CREATE INDEX idx_background_jobs_running ON background_jobs(locked_at) WHERE status = 'RUNNING';
+CREATE INDEX idx_background_jobs_done ON background_jobs(finished_at) WHERE status = 'DONE';
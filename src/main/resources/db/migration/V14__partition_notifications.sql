@@ -0,0 +1,83 @@
+-- Partition notifications by month of created_at, so retention can drop whole
+-- months instead of deleting rows one by one.
+
+CREATE TABLE notifications_partitioned (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    type VARCHAR(50) NOT NULL,
+    challenge_id UUID REFERENCES challenges(id) ON DELETE CASCADE,
+    message TEXT NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+ALTER TABLE notifications_partitioned RENAME TO notifications;
+
+-- Catches rows outside the monthly partitions (e.g. if maintenance has not run for months)
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- Create monthly partitions notifications_pYYYYMM from from_month up to months_ahead after the current month
+CREATE OR REPLACE FUNCTION ensure_notification_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    last_month DATE := (date_trunc('month', NOW()) + make_interval(months => months_ahead))::date;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := 'notifications_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- Drop monthly partitions whose whole range is before cutoff
+CREATE OR REPLACE FUNCTION drop_notification_partitions_before(cutoff TIMESTAMP)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    partition_name TEXT;
+    dropped INTEGER := 0;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'notifications'::regclass
+          AND c.relname ~ '^notifications_p[0-9]{6}$'
+    LOOP
+        IF to_date(substring(partition_name FROM 16), 'YYYYMM') + INTERVAL '1 month' <= cutoff THEN
+            EXECUTE format('DROP TABLE %I', partition_name);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END
+$$;
+
+SELECT ensure_notification_partitions(
+        COALESCE((SELECT MIN(created_at) FROM notifications_unpartitioned), NOW())::date, 3);
+
+INSERT INTO notifications (id, user_id, type, challenge_id, message, is_read, created_at)
+SELECT id, user_id, type, challenge_id, message, is_read, created_at
+FROM notifications_unpartitioned;
+
+DROP TABLE notifications_unpartitioned;
+
+-- Keyset pagination: newest first per user
+CREATE INDEX idx_notifications_user_created ON notifications(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_notifications_user_unread ON notifications(user_id, is_read) WHERE is_read = false;
+-- Retention: old read notifications
+CREATE INDEX idx_notifications_read_created ON notifications(created_at) WHERE is_read = true;
@@ -0,0 +1,35 @@
+-- Notifications are stored as (type, challenge, actor, params) and rendered at read time
+-- from these templates, so rows stay small and renames show up in old notifications.
+-- Placeholders: {challenge}, {actor}, and any params key such as {count}.
+-- digest_template is used for a row that coalesces several notifications (params.count).
+
+CREATE TABLE notification_templates (
+    type VARCHAR(50) NOT NULL,
+    locale VARCHAR(10) NOT NULL,
+    template TEXT NOT NULL,
+    digest_template TEXT,
+
+    PRIMARY KEY (type, locale)
+);
+
+INSERT INTO notification_templates (type, locale, template, digest_template) VALUES
+    ('CHALLENGE_JOINED',    'en', '{actor} joined "{challenge}"',                                 '{count} opponents joined your challenges'),
+    ('CHALLENGE_LEFT',      'en', '{actor} left "{challenge}". Waiting for a new opponent.',     '{count} opponents left your challenges'),
+    ('CHALLENGE_STARTED',   'en', '"{challenge}" has started!',                                   '{count} challenges have started!'),
+    ('CHALLENGE_COMPLETED', 'en', '"{challenge}" has ended.',                                     '{count} challenges have ended.'),
+    ('CHALLENGE_WON',       'en', 'You won "{challenge}"! 🏆',                                    'You won {count} challenges! 🏆'),
+    ('CHALLENGE_LOST',      'en', '"{challenge}" has ended. Better luck next time!',             '{count} challenges have ended. Better luck next time!'),
+    ('CHALLENGE_TIE',       'en', '"{challenge}" ended in a tie! 🤝',                             '{count} challenges ended in a tie! 🤝'),
+    ('CHALLENGE_FORFEITED', 'en', '{actor} forfeited "{challenge}". You won! 🏆',                 '{count} opponents forfeited. You won! 🏆'),
+    ('CHALLENGE_EXPIRED',   'en', '"{challenge}" expired — no one joined',                        '{count} challenges expired — no one joined');
+
+ALTER TABLE notifications ALTER COLUMN message DROP NOT NULL;
+ALTER TABLE notifications ADD COLUMN actor_id UUID REFERENCES users(id) ON DELETE SET NULL;
+ALTER TABLE notifications ADD COLUMN params JSONB;
+
+-- Old rows whose text only depends on the challenge name can be rendered from templates
+-- too. Joined/left/forfeited rows have no actor_id, so they keep their stored text.
+UPDATE notifications
+SET message = NULL
+WHERE challenge_id IS NOT NULL
+  AND type IN ('CHALLENGE_STARTED', 'CHALLENGE_WON', 'CHALLENGE_LOST', 'CHALLENGE_TIE', 'CHALLENGE_EXPIRED');
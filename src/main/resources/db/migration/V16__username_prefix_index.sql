@@ -0,0 +1,3 @@
+-- Lets "username LIKE 'john%'" use an index when picking a free username for a new
+-- Strava user (the unique index uses the database collation, which LIKE cannot use).
+CREATE INDEX idx_users_username_prefix ON users (username text_pattern_ops);
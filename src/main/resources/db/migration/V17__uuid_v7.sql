@@ -0,0 +1,14 @@
+-- Time-ordered UUIDv7 ids (RFC 9562) for rows inserted by SQL, matching the ids the
+-- application generates (UuidV7Generator). A v4 uuid with its first 48 bits replaced by
+-- the Unix milliseconds and the version nibble turned from 4 into 7; Postgres 18 has uuidv7().
+CREATE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(set_bit(
+            overlay(uuid_send(gen_random_uuid())
+                    PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                    FROM 1 FOR 6),
+            52, 1), 53, 1),
+        'hex')::uuid
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT uuid_generate_v7();
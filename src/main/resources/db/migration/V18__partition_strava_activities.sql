@@ -0,0 +1,69 @@
+-- Partition strava_activities by month of start_date (UTC) and store the sport as a
+-- smallint code (SportType.code(): 1 Run, 2 Ride, 3 Swim, 4 Walk, 0 any other sport).
+-- The primary key is (id, start_date), so it alone does not keep an id unique: Strava lets
+-- users edit the start date. Sync only inserts ids that findExistingIds, which probes every
+-- partition, did not find.
+
+CREATE TABLE strava_activities_partitioned (
+    id BIGINT NOT NULL, -- Strava's activity ID
+    user_id UUID NOT NULL REFERENCES users(id),
+    sport_code SMALLINT NOT NULL,
+    name VARCHAR(255),
+    start_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    distance_meters INTEGER NOT NULL,
+    moving_time_seconds INTEGER,
+    synced_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date);
+
+ALTER TABLE strava_activities RENAME TO strava_activities_unpartitioned;
+ALTER TABLE strava_activities_partitioned RENAME TO strava_activities;
+
+-- Catches activities in months without a partition (older than the first one)
+CREATE TABLE strava_activities_default PARTITION OF strava_activities DEFAULT;
+
+-- Create monthly partitions strava_activities_pYYYYMM from from_month up to months_ahead after the current month
+CREATE OR REPLACE FUNCTION ensure_strava_activity_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    last_month DATE := (date_trunc('month', NOW()) + make_interval(months => months_ahead))::date;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := 'strava_activities_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass(partition_name) IS NULL THEN
+            -- Bounds in UTC, whatever the session time zone
+            EXECUTE format('CREATE TABLE %I PARTITION OF strava_activities FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start::timestamp AT TIME ZONE 'UTC',
+                           (month_start + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC');
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+SELECT ensure_strava_activity_partitions(
+        COALESCE((SELECT MIN(start_date) AT TIME ZONE 'UTC' FROM strava_activities_unpartitioned), NOW())::date, 3);
+
+INSERT INTO strava_activities (id, user_id, sport_code, name, start_date, distance_meters,
+                               moving_time_seconds, synced_at)
+SELECT id, user_id,
+       CASE sport_type WHEN 'Run' THEN 1 WHEN 'Ride' THEN 2 WHEN 'Swim' THEN 3 WHEN 'Walk' THEN 4 ELSE 0 END,
+       name, start_date, distance_meters, moving_time_seconds, synced_at
+FROM strava_activities_unpartitioned;
+
+DROP TABLE strava_activities_unpartitioned;
+
+-- Progress sums per user, sport and date range read only this index (index-only scans);
+-- its user_id prefix serves per-user lookups
+CREATE INDEX idx_activities_user_sport_date ON strava_activities(user_id, sport_code, start_date)
+    INCLUDE (distance_meters);
+
+ANALYZE strava_activities;
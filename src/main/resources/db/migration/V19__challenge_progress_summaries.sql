@@ -0,0 +1,25 @@
+-- Final progress of each participant of a finished challenge. ChallengeArchivalService
+-- writes it from the participant's latest daily_progress row, then deletes the challenge's
+-- daily_progress rows; GET /api/challenges/{id}/progress reads it for finished challenges.
+CREATE TABLE challenge_progress_summaries (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    challenge_id UUID NOT NULL REFERENCES challenges(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL REFERENCES users(id),
+    last_date DATE NOT NULL, -- date of the daily_progress row it was taken from
+    distance_meters INTEGER NOT NULL,
+    run_meters INTEGER NOT NULL,
+    ride_meters INTEGER NOT NULL,
+    swim_meters INTEGER NOT NULL,
+    walk_meters INTEGER NOT NULL,
+    progress_percent INTEGER NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    UNIQUE(challenge_id, user_id)
+);
+
+-- Set once a finished challenge's daily_progress rows are all deleted
+ALTER TABLE challenges ADD COLUMN progress_archived_at TIMESTAMP;
+
+-- Finished challenges still to archive; archived ones leave the index
+CREATE INDEX idx_challenges_unarchived_end_at
+    ON challenges(end_at) WHERE progress_archived_at IS NULL AND status IN ('COMPLETED', 'EXPIRED', 'CANCELLED');
@@ -0,0 +1,45 @@
+-- Creating a monthly partition failed while notifications_default held rows for that
+-- month, which aborted ensure_notification_partitions before any later month was created.
+-- Such rows are now moved: the partition is created detached, filled from the default
+-- partition and then attached.
+
+CREATE OR REPLACE FUNCTION ensure_notification_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    last_month DATE := (date_trunc('month', NOW()) + make_interval(months => months_ahead))::date;
+    month_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        partition_name := 'notifications_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass(partition_name) IS NULL THEN
+            -- Attaching locks the default partition anyway; taking the lock first keeps
+            -- new rows for the month from landing there between the move and the attach
+            LOCK TABLE notifications_default IN ACCESS EXCLUSIVE MODE;
+            IF EXISTS (SELECT 1 FROM notifications_default
+                       WHERE created_at >= month_start AND created_at < month_end) THEN
+                EXECUTE format('CREATE TABLE %I (LIKE notifications INCLUDING DEFAULTS)', partition_name);
+                EXECUTE format('WITH moved AS (DELETE FROM notifications_default '
+                                   'WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved',
+                               month_start, month_end, partition_name);
+                EXECUTE format('ALTER TABLE notifications ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+            END IF;
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- Retention deletes expired rows of the default partition, which no monthly drop covers
+CREATE INDEX idx_notifications_default_created ON notifications_default(created_at);
@@ -0,0 +1,8 @@
+-- Partial indexes for the scheduler's set-based status transitions.
+-- Only challenges still waiting for a transition are indexed, so each pass is a range scan
+-- over a small index instead of a scan of the whole (mostly COMPLETED/EXPIRED) table.
+CREATE INDEX IF NOT EXISTS idx_challenges_scheduled_start_at
+    ON challenges(status, start_at) WHERE status = 'SCHEDULED';
+
+CREATE INDEX IF NOT EXISTS idx_challenges_open_end_at
+    ON challenges(status, end_at) WHERE status IN ('PENDING', 'ACTIVE');
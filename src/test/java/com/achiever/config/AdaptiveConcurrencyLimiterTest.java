@@ -0,0 +1,104 @@
+package com.achiever.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    @DisplayName("Should reject once the limit is in flight")
+    void shouldRejectAtLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.onIgnore();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while saturated at steady latency")
+    void shouldGrowAtSteadyLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        runSaturated(limiter, 200, 20 * MILLIS);
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit when latency rises above the baseline")
+    void shouldShrinkWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 2, 100);
+        runSaturated(limiter, 300, 20 * MILLIS);
+        int before = limiter.getLimit();
+
+        runSaturated(limiter, 50, 200 * MILLIS);
+
+        assertThat(limiter.getLimit()).isLessThan(before / 2);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not grow while mostly idle")
+    void shouldNotGrowWhenIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(20 * MILLIS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should shed a saturated group with 503 and Retry-After while other groups pass")
+    void shouldShedPerGroup() throws Exception {
+        AdaptiveConcurrencyLimiter expensive = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Group("expensive", List.of("/api/challenges/*/progress"), expensive)),
+                new ConcurrencyLimitFilter.Group("default", List.of(), new AdaptiveConcurrencyLimiter(5, 1, 5)),
+                new SimpleMeterRegistry());
+        expensive.tryAcquire();
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/challenges/42/progress"), shed, new MockFilterChain());
+        MockHttpServletResponse passed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/challenges/my"), passed, new MockFilterChain());
+
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(passed.getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Keep the limiter full and complete one request per step
+     */
+    private static void runSaturated(AdaptiveConcurrencyLimiter limiter, int steps, long rttNanos) {
+        while (limiter.tryAcquire()) {
+            // fill up
+        }
+        for (int i = 0; i < steps; i++) {
+            limiter.onSuccess(rttNanos);
+            while (limiter.tryAcquire()) {
+                // refill to the new limit
+            }
+        }
+        for (int i = limiter.getInFlight(); i > 0; i--) {
+            limiter.onIgnore();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.achiever.config;
+
+import com.achiever.config.DbAdmissionLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class DbAdmissionLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should hand released permits to waiters by priority, then arrival")
+    void shouldAdmitByPriority() throws Exception {
+        DbAdmissionLimiter limiter = new DbAdmissionLimiter(1, 10, 5000, meterRegistry);
+        limiter.acquire(Priority.NORMAL);
+
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        Thread low = waiter(limiter, Priority.LOW, "low", admitted);
+        awaitQueue(limiter, 1);
+        Thread normal = waiter(limiter, Priority.NORMAL, "normal", admitted);
+        awaitQueue(limiter, 2);
+        Thread high = waiter(limiter, Priority.HIGH, "high", admitted);
+        awaitQueue(limiter, 3);
+
+        limiter.release();
+        for (Thread thread : List.of(high, normal, low)) {
+            thread.join(5000);
+        }
+
+        assertThat(admitted).containsExactly("high", "normal", "low");
+        assertThat(limiter.inUse()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject at once when the queue is full, LOW priority at half")
+    void shouldRejectWhenQueueFull() throws Exception {
+        DbAdmissionLimiter limiter = new DbAdmissionLimiter(1, 2, 5000, meterRegistry);
+        limiter.acquire(Priority.NORMAL);
+        Thread first = waiter(limiter, Priority.NORMAL, "first", new CopyOnWriteArrayList<>());
+        awaitQueue(limiter, 1);
+
+        assertThatThrownBy(() -> limiter.acquire(Priority.LOW)).isInstanceOf(DbAdmissionLimiter.RejectedException.class);
+
+        Thread second = waiter(limiter, Priority.HIGH, "second", new CopyOnWriteArrayList<>());
+        awaitQueue(limiter, 2);
+        assertThatThrownBy(() -> limiter.acquire(Priority.HIGH)).isInstanceOf(DbAdmissionLimiter.RejectedException.class);
+        assertThat(meterRegistry.get("db.admission.rejected").tag("reason", "queue_full").counter().count()).isEqualTo(2);
+
+        limiter.release();
+        second.join(5000);
+        first.join(5000);
+    }
+
+    @Test
+    @DisplayName("Should give up after the max wait instead of the pool timeout")
+    void shouldTimeOut() throws Exception {
+        DbAdmissionLimiter limiter = new DbAdmissionLimiter(1, 10, 50, meterRegistry);
+        limiter.acquire(Priority.NORMAL);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire(Priority.HIGH)).isInstanceOf(DbAdmissionLimiter.RejectedException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(limiter.queueLength()).isZero();
+        assertThat(meterRegistry.get("db.admission.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the connection closes and not limit nested connections")
+    void shouldReleaseOnCloseAndSkipNested() throws Exception {
+        DbAdmissionLimiter limiter = new DbAdmissionLimiter(1, 0, 50, meterRegistry);
+        DataSource target = mock(DataSource.class);
+        Connection outerTarget = mock(Connection.class);
+        Connection innerTarget = mock(Connection.class);
+        when(target.getConnection()).thenReturn(outerTarget, innerTarget);
+        DbAdmissionDataSource dataSource = new DbAdmissionDataSource(target, limiter);
+
+        Connection outer = dataSource.getConnection();
+        // A REQUIRES_NEW transaction on the same thread must not wait for its own permit
+        Connection inner = dataSource.getConnection();
+        inner.close();
+        assertThat(limiter.inUse()).isEqualTo(1);
+
+        outer.close();
+        outer.close();
+        assertThat(limiter.inUse()).isZero();
+        verify(outerTarget, times(1)).close();
+        verify(innerTarget).close();
+    }
+
+    private static Thread waiter(DbAdmissionLimiter limiter, Priority priority, String name, List<String> admitted) {
+        return Thread.ofVirtual().start(() -> {
+            try {
+                limiter.acquire(priority);
+                admitted.add(name);
+                limiter.release();
+            } catch (DbAdmissionLimiter.RejectedException e) {
+                admitted.add(name + " rejected");
+            }
+        });
+    }
+
+    private static void awaitQueue(DbAdmissionLimiter limiter, int length) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (limiter.queueLength() < length && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(limiter.queueLength()).isEqualTo(length);
+    }
+}
@@ -0,0 +1,78 @@
+package com.achiever.config;
+
+import com.achiever.repository.UserRepository;
+import com.achiever.service.UserPrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    private JwtAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthFilter(jwtUtils, userRepository, userPrincipalCache);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should not parse the Prometheus scrape token as a JWT")
+    void shouldSkipMetricsScrape() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.addHeader("Authorization", "Bearer scrape-token");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        verify(jwtUtils, never()).verify(anyString());
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    @DisplayName("Should verify bearer tokens on other paths")
+    void shouldVerifyTokenOnApiPaths() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+        when(jwtUtils.verify("not-a-jwt")).thenReturn(Optional.empty());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        verify(jwtUtils).verify("not-a-jwt");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
@@ -0,0 +1,65 @@
+package com.achiever.config;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs384-signing";
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, 2);
+
+    @Test
+    @DisplayName("Should verify a token once and answer repeats from the cache")
+    void shouldCacheVerifiedTokens() {
+        UUID userId = UUID.randomUUID();
+        String token = jwtUtils.generateToken(userId, "runner@test.com");
+
+        assertThat(jwtUtils.verify(token)).contains(userId);
+        assertThat(jwtUtils.verify(token)).contains(userId);
+        assertThat(jwtUtils.verifiedCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, foreign and expired tokens without caching them")
+    void shouldRejectInvalidTokens() {
+        String token = jwtUtils.generateToken(UUID.randomUUID(), "runner@test.com");
+        jwtUtils.verify(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = new JwtUtils("another-secret-key-that-is-long-enough-for-hs384", 60_000, 2)
+                .generateToken(UUID.randomUUID(), "other@test.com");
+        String expired = Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(jwtUtils.verify(tampered)).isEmpty();
+        assertThat(jwtUtils.verify(foreign)).isEmpty();
+        assertThat(jwtUtils.verify(expired)).isEmpty();
+        assertThat(jwtUtils.verify("garbage")).isEmpty();
+        assertThat(jwtUtils.verifiedCacheSize()).isEqualTo(1);
+        assertThatThrownBy(() -> jwtUtils.getUserIdFromToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should not grow the cache past its size")
+    void shouldBoundCache() {
+        for (int i = 0; i < 3; i++) {
+            UUID userId = UUID.randomUUID();
+            assertThat(jwtUtils.verify(jwtUtils.generateToken(userId, "runner@test.com"))).contains(userId);
+        }
+        assertThat(jwtUtils.verifiedCacheSize()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,58 @@
+package com.achiever.config;
+
+import com.achiever.jobs.UserSyncJobHandler;
+import com.achiever.strava.StravaActivityResponse;
+import com.achiever.strava.StravaAthleteResponse;
+import com.achiever.strava.StravaTokenResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should let Jackson bind Strava responses, including nested types")
+    void shouldRegisterStravaResponses() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onType(StravaActivityResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(StravaTokenResponse.class.getMethod("setAccessToken", String.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(StravaAthleteResponse.class)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Should let Jackson construct job payload records")
+    void shouldRegisterJobPayloads() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserSyncJobHandler.Payload.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Should register every JJWT class that exists on the runtime classpath")
+    void shouldRegisterJjwtImplementation() {
+        for (String type : NativeHints.JJWT_TYPES) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+            assertThat(classExists(type)).as(type).isTrue();
+        }
+    }
+
+    private static boolean classExists(String name) {
+        try {
+            Class.forName(name, false, NativeHintsTest.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
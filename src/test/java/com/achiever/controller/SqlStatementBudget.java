@@ -0,0 +1,29 @@
+package com.achiever.controller;
+
+import com.achiever.config.SqlStatementCountFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc expectations on the SQL statements a request ran, as counted by
+ * {@link SqlStatementCountFilter} (authentication included)
+ */
+final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    static ResultMatcher atMost(int budget) {
+        return result -> assertThat(statements(result))
+                .as("SQL statements for %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(budget);
+    }
+
+    static int statements(MvcResult result) {
+        Object statements = result.getRequest().getAttribute(SqlStatementCountFilter.STATEMENTS_ATTRIBUTE);
+        assertThat(statements).as("statement count (is SqlStatementCountFilter registered?)").isNotNull();
+        return (Integer) statements;
+    }
+}
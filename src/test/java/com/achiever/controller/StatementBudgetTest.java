@@ -0,0 +1,292 @@
+package com.achiever.controller;
+
+import com.achiever.config.JwtUtils;
+import com.achiever.entity.*;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.NotificationRepository;
+import com.achiever.repository.UserRepository;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.UserPrincipalCache;
+import com.achiever.strava.StravaActivityResponse;
+import com.achiever.strava.StravaApiClient;
+import com.achiever.strava.StravaAthleteResponse;
+import com.achiever.strava.StravaTokenResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static com.achiever.controller.SqlStatementBudget.atMost;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per endpoint, with enough participants and activities that a
+ * query per row blows the budget. Raise a budget only for a deliberate change.
+ * <p>
+ * The job queue is mocked as it uses PostgreSQL-only SQL; enqueueing a job is one insert.
+ */
+@SpringBootTest(properties = {"app.jobs.enabled=false", "app.notifications.stream.listen=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementBudgetTest {
+
+    private static final int PARTICIPANTS = 5;
+    private static final int ACTIVITIES = 20;
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChallengeRepository challengeRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private BackgroundJobService jobService;
+
+    @MockitoBean
+    private StravaApiClient stravaApiClient;
+
+    private User creator;
+    private Challenge challenge;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            users.add(newUser());
+        }
+        creator = users.getFirst();
+        challenge = newChallenge(users, ChallengeStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Auth endpoints")
+    void authEndpoints() throws Exception {
+        perform(get("/api/auth/me"), creator).andExpect(status().isOk()).andExpect(atMost(1));
+        perform(get("/api/auth/check-email").param("email", creator.getEmail()), null)
+                .andExpect(status().isOk()).andExpect(atMost(2));
+
+        perform(post("/api/auth/set-password").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"password\":\"secret123\"}"), creator)
+                .andExpect(status().isOk()).andExpect(atMost(4));
+        perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + creator.getEmail() + "\",\"password\":\"secret123\"}"), null)
+                .andExpect(status().isOk()).andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("Strava callback signs up a new athlete and logs in a known one")
+    void stravaCallback() throws Exception {
+        long athleteId = sequence.incrementAndGet();
+        when(stravaApiClient.exchangeCode(anyString())).thenReturn(tokenResponse(athleteId));
+        String state = Base64.getUrlEncoder().encodeToString(
+                ("strava" + athleteId + "@example.com").getBytes(StandardCharsets.UTF_8));
+
+        perform(get("/api/auth/strava/callback").param("code", "code").param("state", state), null)
+                .andExpect(header().string("Location", containsString("/auth/callback?token=")))
+                .andExpect(atMost(5));
+        perform(get("/api/auth/strava/callback").param("code", "code").param("state", state), null)
+                .andExpect(header().string("Location", containsString("/auth/callback?token=")))
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("Challenge reads do not query per participant")
+    void challengeReads() throws Exception {
+        newChallenge(List.of(creator, newUser(), newUser()), ChallengeStatus.ACTIVE);
+
+        perform(get("/api/challenges/my"), creator).andExpect(status().isOk()).andExpect(atMost(5));
+        perform(get("/api/challenges/my/active"), creator).andExpect(status().isOk()).andExpect(atMost(4));
+        perform(get("/api/challenges/" + challenge.getId()), creator).andExpect(status().isOk()).andExpect(atMost(3));
+        perform(get("/api/challenges/invite/" + challenge.getInviteCode()), null)
+                .andExpect(status().isOk()).andExpect(atMost(2));
+        perform(get("/api/challenges/" + challenge.getId() + "/progress"), creator)
+                .andExpect(status().isOk()).andExpect(atMost(4));
+    }
+
+    @Test
+    @DisplayName("Challenge writes")
+    void challengeWrites() throws Exception {
+        String today = LocalDate.now().toString();
+        perform(post("/api/challenges").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"goals\":{\"RUN\":10},\"startAt\":\"" + today + "\",\"endAt\":\""
+                        + LocalDate.now().plusDays(6) + "\",\"timezone\":\"UTC\"}"), creator)
+                .andExpect(status().isCreated()).andExpect(atMost(4));
+        perform(patch("/api/challenges/" + challenge.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renamed\"}"), creator)
+                .andExpect(status().isOk()).andExpect(atMost(5));
+
+        Challenge pending = newChallenge(List.of(creator), ChallengeStatus.PENDING);
+        User joiner = newUser();
+        perform(post("/api/challenges/invite/" + pending.getInviteCode() + "/join").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"goals\":{\"RUN\":5}}"), joiner)
+                .andExpect(status().isOk()).andExpect(atMost(6));
+
+        perform(post("/api/challenges/" + challenge.getId() + "/leave"), challenge.getParticipants().getLast().getUser())
+                .andExpect(status().isOk()).andExpect(atMost(5));
+        Challenge unjoined = newChallenge(List.of(creator), ChallengeStatus.PENDING);
+        perform(delete("/api/challenges/" + unjoined.getId()), creator)
+                .andExpect(status().is2xxSuccessful()).andExpect(atMost(4));
+    }
+
+    @Test
+    @DisplayName("Sync stores new activities without a query per activity")
+    void sync() throws Exception {
+        creator.setStravaConnection(StravaConnection.builder()
+                .user(creator)
+                .athleteId((long) sequence.incrementAndGet())
+                .accessToken("access")
+                .refreshToken("refresh")
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build());
+        creator = userRepository.save(creator);
+        long firstId = sequence.incrementAndGet() * 1_000L;
+        when(stravaApiClient.getActivities(any(), any(), any(), anyInt(), anyInt())).thenReturn(
+                LongStream.range(firstId, firstId + ACTIVITIES).mapToObj(StatementBudgetTest::activity).toList());
+
+        perform(post("/api/challenges/" + challenge.getId() + "/sync"), creator)
+                .andExpect(status().isOk()).andExpect(atMost(11));
+        // Everything known already
+        perform(post("/api/challenges/" + challenge.getId() + "/sync"), creator)
+                .andExpect(status().isOk()).andExpect(atMost(10));
+    }
+
+    @Test
+    @DisplayName("Notification endpoints")
+    void notifications() throws Exception {
+        // Several challenges and actors, so the challenge and actor lookups have to be batched
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Challenge other = newChallenge(List.of(newUser(), creator), ChallengeStatus.ACTIVE);
+            for (ChallengeParticipant participant : other.getParticipants()) {
+                notifications.add(Notification.builder()
+                        .user(creator)
+                        .type(NotificationType.CHALLENGE_JOINED)
+                        .challenge(other)
+                        .actor(participant.getUser())
+                        .build());
+            }
+            notifications.add(Notification.builder()
+                    .user(creator)
+                    .type(NotificationType.CHALLENGE_STARTED)
+                    .challenge(other)
+                    .build());
+        }
+        notificationRepository.saveAll(notifications);
+
+        perform(get("/api/notifications"), creator).andExpect(status().isOk()).andExpect(atMost(4));
+        perform(get("/api/notifications/unread-count"), creator).andExpect(status().isOk()).andExpect(atMost(2));
+        perform(post("/api/notifications/read"), creator).andExpect(status().isOk()).andExpect(atMost(2));
+    }
+
+    /**
+     * Authenticate as {@code user} (null for none) with a cold principal cache, so the
+     * user lookup counts against the budget
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request, User user)
+            throws Exception {
+        if (user != null) {
+            userPrincipalCache.invalidate(user.getId());
+            request.header("Authorization", "Bearer " + jwtUtils.generateToken(user.getId(), user.getEmail()));
+        }
+        return mockMvc.perform(request);
+    }
+
+    private User newUser() {
+        int n = sequence.incrementAndGet();
+        return userRepository.save(User.builder()
+                .username("budget" + n)
+                .email("budget" + n + "@example.com")
+                .passwordHash(passwordEncoder.encode("secret123"))
+                .timezone("UTC")
+                .build());
+    }
+
+    private Challenge newChallenge(List<User> users, ChallengeStatus status) {
+        Challenge challenge = Challenge.builder()
+                .createdBy(users.getFirst())
+                .inviteCode("BUDGET" + sequence.incrementAndGet())
+                .sportTypes("RUN")
+                .startAt(LocalDate.now().minusDays(1))
+                .endAt(LocalDate.now().plusDays(6))
+                .status(status)
+                .build();
+        for (User user : users) {
+            challenge.getParticipants().add(ChallengeParticipant.builder()
+                    .challenge(challenge)
+                    .user(user)
+                    .goalRunKm(BigDecimal.TEN)
+                    .build());
+        }
+        return challengeRepository.save(challenge);
+    }
+
+    private static StravaTokenResponse tokenResponse(long athleteId) {
+        StravaAthleteResponse athlete = new StravaAthleteResponse();
+        athlete.setId(athleteId);
+        athlete.setUsername("athlete" + athleteId);
+        athlete.setFirstname("Budget");
+        athlete.setLastname("Athlete");
+
+        StravaTokenResponse tokens = new StravaTokenResponse();
+        tokens.setAccessToken("access");
+        tokens.setRefreshToken("refresh");
+        tokens.setExpiresAt(Instant.now().plusSeconds(3600).getEpochSecond());
+        tokens.setAthlete(athlete);
+        return tokens;
+    }
+
+    private static StravaActivityResponse activity(long id) {
+        StravaActivityResponse activity = new StravaActivityResponse();
+        activity.setId(id);
+        activity.setName("Run " + id);
+        activity.setSportType("Run");
+        activity.setStartDate(OffsetDateTime.now(ZoneOffset.UTC).minusHours(1));
+        activity.setDistance(5000.0);
+        activity.setMovingTime(1500);
+        return activity;
+    }
+}
@@ -0,0 +1,37 @@
+package com.achiever.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should set version 7, the RFC variant and the timestamp")
+    void shouldLayOutUuidV7() {
+        long now = System.currentTimeMillis();
+
+        UUID id = UuidV7Generator.next(now);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("Should keep increasing within a millisecond and when the clock steps back")
+    void shouldIncreaseMonotonically() {
+        long now = System.currentTimeMillis();
+        String previous = UuidV7Generator.next(now).toString();
+
+        for (int i = 0; i < 10_000; i++) {
+            // Sorted as the database sorts uuids: bytewise, like their text form
+            String id = UuidV7Generator.next(i % 100 == 0 ? now - 1000 : now).toString();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.ClusterLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackgroundJobWorkerTest {
+
+    @Mock
+    private BackgroundJobService jobService;
+
+    @Mock
+    private ClusterLockService clusterLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JobHandler handler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BackgroundJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(handler.type()).thenReturn(BackgroundJobType.USER_SYNC);
+        worker = new BackgroundJobWorker(jobService, clusterLockService, List.of(handler), transactionManager, meterRegistry,
+                true, 2, 5);
+    }
+
+    @Test
+    @DisplayName("Should run the handler and mark the job done in one transaction")
+    void shouldRunHandlerAndMarkDone() {
+        // Given
+        BackgroundJob job = job(BackgroundJobType.USER_SYNC);
+        when(handler.transactional()).thenReturn(true);
+
+        // When
+        worker.execute(job);
+
+        // Then
+        verify(transactionManager).getTransaction(any());
+        verify(handler).handle(job);
+        verify(jobService).markDone(job);
+        verify(jobService, never()).markFailed(any(), any());
+        assertThat(meterRegistry.get("jobs.duration").tag("outcome", "done").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record a failure when the handler throws")
+    void shouldMarkFailedWhenHandlerThrows() {
+        // Given
+        BackgroundJob job = job(BackgroundJobType.USER_SYNC);
+        RuntimeException error = new RuntimeException("Strava down");
+        when(handler.transactional()).thenReturn(false);
+        doThrow(error).when(handler).handle(job);
+        when(jobService.markFailed(job, error)).thenReturn(true);
+
+        // When
+        worker.execute(job);
+
+        // Then
+        verify(jobService, never()).markDone(any());
+        verify(jobService).markFailed(job, error);
+        assertThat(meterRegistry.get("jobs.duration").tag("outcome", "retried").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail jobs without a registered handler")
+    void shouldFailJobsWithoutHandler() {
+        // Given
+        BackgroundJob job = job(BackgroundJobType.WEEKLY_RESULTS);
+
+        // When
+        worker.execute(job);
+
+        // Then
+        verify(handler, never()).handle(any());
+        verify(jobService).markFailed(eq(job), any(IllegalStateException.class));
+    }
+
+    private BackgroundJob job(BackgroundJobType type) {
+        return BackgroundJob.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .payload("{}")
+                .attempts(1)
+                .maxAttempts(5)
+                .build();
+    }
+}
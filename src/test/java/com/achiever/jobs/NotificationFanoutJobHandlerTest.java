@@ -0,0 +1,79 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.entity.Challenge;
+import com.achiever.entity.User;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.UserRepository;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.service.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationFanoutJobHandlerTest {
+
+    @Mock
+    private BackgroundJobService jobService;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private NotificationFanoutJobHandler handler;
+
+    @Test
+    @DisplayName("Should notify the winner when the actor forfeited")
+    void shouldNotifyWinnerOfForfeit() {
+        // Given
+        User forfeiter = User.builder().id(UUID.randomUUID()).username("quitter").build();
+        User winner = User.builder().id(UUID.randomUUID()).username("winner").build();
+        Challenge challenge = Challenge.builder().id(UUID.randomUUID()).winner(winner).build();
+        BackgroundJob job = BackgroundJob.builder().id(UUID.randomUUID()).type(BackgroundJobType.NOTIFICATION_FANOUT).build();
+
+        when(jobService.readPayload(job, NotificationFanoutJobHandler.Payload.class))
+                .thenReturn(new NotificationFanoutJobHandler.Payload(NotificationFanoutJobHandler.Event.CHALLENGE_FORFEITED,
+                        List.of(challenge.getId()), forfeiter.getId()));
+        when(userRepository.findById(forfeiter.getId())).thenReturn(Optional.of(forfeiter));
+        when(challengeRepository.findAllByIdWithParticipants(List.of(challenge.getId()))).thenReturn(List.of(challenge));
+
+        // When
+        handler.handle(job);
+
+        // Then
+        verify(notificationService).notifyOpponentForfeited(forfeiter, winner, challenge);
+        verifyNoMoreInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("Should read payloads queued before events replaced notification types")
+    void shouldReadLegacyPayload() throws Exception {
+        UUID challengeId = UUID.randomUUID();
+
+        NotificationFanoutJobHandler.Payload payload = new ObjectMapper().readValue(
+                "{\"notificationType\":\"CHALLENGE_STARTED\",\"challengeIds\":[\"" + challengeId + "\"]}",
+                NotificationFanoutJobHandler.Payload.class);
+
+        assertThat(payload).isEqualTo(new NotificationFanoutJobHandler.Payload(
+                NotificationFanoutJobHandler.Event.CHALLENGE_STARTED, List.of(challengeId)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.achiever.jobs;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.repository.ChallengeParticipantRepository;
+import com.achiever.repository.ChallengeParticipantRepository.SyncTarget;
+import com.achiever.service.BackgroundJobService;
+import com.achiever.strava.StravaSyncService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncPartitionJobHandlerTest {
+
+    @Mock
+    private BackgroundJobService jobService;
+
+    @Mock
+    private ChallengeParticipantRepository participantRepository;
+
+    @Mock
+    private StravaSyncService stravaSyncService;
+
+    @InjectMocks
+    private SyncPartitionJobHandler handler;
+
+    @Test
+    @DisplayName("Should sync every user in the partition and retry failed users separately")
+    void shouldSyncPartitionAndRetryFailedUsers() {
+        // Given
+        LocalDate today = LocalDate.of(2025, 1, 15);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        BackgroundJob job = BackgroundJob.builder().id(UUID.randomUUID()).type(BackgroundJobType.SYNC_PARTITION).build();
+        SyncTarget ok = target(UUID.randomUUID(), start);
+        SyncTarget failing = target(UUID.randomUUID(), start);
+
+        when(jobService.readPayload(job, SyncPartitionJobHandler.Payload.class))
+                .thenReturn(new SyncPartitionJobHandler.Payload(today, 2, 8));
+        when(participantRepository.findSyncTargetsInPartition(2, 8)).thenReturn(List.of(ok, failing));
+        // lenient: the other user's call uses different arguments
+        lenient().doThrow(new RuntimeException("Strava down"))
+                .when(stravaSyncService).syncActivitiesForDateRange(failing.getUserId(), start, today);
+
+        // When
+        handler.handle(job);
+
+        // Then
+        verify(stravaSyncService).syncActivitiesForDateRange(ok.getUserId(), start, today);
+        verify(jobService).enqueue(BackgroundJobType.USER_SYNC,
+                new UserSyncJobHandler.Payload(failing.getUserId(), start, today),
+                UserSyncJobHandler.dedupeKey(failing.getUserId(), start));
+        verify(jobService, never()).enqueue(eq(BackgroundJobType.USER_SYNC),
+                eq(new UserSyncJobHandler.Payload(ok.getUserId(), start, today)), anyString());
+    }
+
+    private SyncTarget target(UUID userId, LocalDate fromDate) {
+        return new SyncTarget() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public LocalDate getFromDate() {
+                return fromDate;
+            }
+        };
+    }
+}
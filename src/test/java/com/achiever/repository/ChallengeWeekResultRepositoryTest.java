@@ -0,0 +1,234 @@
+package com.achiever.repository;
+
+import com.achiever.entity.*;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The weekly results statement is PostgreSQL-only (window functions, data-modifying CTE,
+ * ON CONFLICT), so this test runs it on an embedded Postgres with the Flyway schema.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ChallengeWeekResultRepositoryTest {
+
+    // A Monday; the scheduler passes weekStart + 7 days, the Monday the job runs
+    private static final LocalDate WEEK_START = LocalDate.of(2025, 1, 6);
+    private static final LocalDate AS_OF = WEEK_START.plusDays(7);
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ChallengeWeekResultRepository resultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistUser("alice");
+        bob = persistUser("bob");
+        carol = persistUser("carol");
+    }
+
+    @Test
+    @DisplayName("Should fill user a/b in join order and leave the winner null on a tie")
+    void shouldRecordTieForTwoParticipants() {
+        // Given
+        Challenge challenge = persistChallenge("TIE", ChallengeStatus.ACTIVE, alice, bob);
+        persistProgress(challenge, alice, WEEK_START.plusDays(2), 30);
+        persistProgress(challenge, alice, WEEK_START.plusDays(5), 60);
+        persistProgress(challenge, bob, WEEK_START.plusDays(4), 60);
+
+        // When
+        int inserted = insertWeekResults();
+
+        // Then
+        assertThat(inserted).isEqualTo(1);
+        ChallengeWeekResult result = result(challenge);
+        assertThat(result.getUserA().getId()).isEqualTo(alice.getId());
+        assertThat(result.getUserB().getId()).isEqualTo(bob.getId());
+        assertThat(result.getUserAPercent()).isEqualTo(60);
+        assertThat(result.getUserBPercent()).isEqualTo(60);
+        assertThat(result.getWinner()).isNull();
+        assertThat(standings(challenge)).containsExactlyInAnyOrder(
+                standing(alice, 60, 1), standing(bob, 60, 1));
+    }
+
+    @Test
+    @DisplayName("Should rank more than two participants, counting progress on the asOf day only")
+    void shouldRankThreeParticipantsUpToAsOf() {
+        // Given
+        Challenge challenge = persistChallenge("THREE", ChallengeStatus.ACTIVE, alice, bob, carol);
+        persistProgress(challenge, alice, WEEK_START.plusDays(4), 80);
+        persistProgress(challenge, alice, AS_OF.plusDays(1), 100);
+        persistProgress(challenge, bob, WEEK_START.plusDays(6), 50);
+        persistProgress(challenge, carol, WEEK_START.plusDays(4), 40);
+        persistProgress(challenge, carol, AS_OF, 90);
+
+        // When
+        int inserted = insertWeekResults();
+
+        // Then
+        assertThat(inserted).isEqualTo(1);
+        ChallengeWeekResult result = result(challenge);
+        assertThat(result.getWinner().getId()).isEqualTo(carol.getId());
+        assertThat(result.getUserA()).isNull();
+        assertThat(result.getUserB()).isNull();
+        assertThat(result.getUserAPercent()).isNull();
+        assertThat(result.getUserBPercent()).isNull();
+        assertThat(standings(challenge)).containsExactlyInAnyOrder(
+                standing(carol, 90, 1), standing(alice, 80, 2), standing(bob, 50, 3));
+    }
+
+    @Test
+    @DisplayName("Should rank participants without progress at 0% and share the first rank")
+    void shouldRankParticipantsWithoutProgress() {
+        // Given
+        Challenge challenge = persistChallenge("NONE", ChallengeStatus.ACTIVE, alice, bob);
+
+        // When
+        int inserted = insertWeekResults();
+
+        // Then
+        assertThat(inserted).isEqualTo(1);
+        ChallengeWeekResult result = result(challenge);
+        assertThat(result.getUserAPercent()).isZero();
+        assertThat(result.getUserBPercent()).isZero();
+        assertThat(result.getWinner()).isNull();
+        assertThat(standings(challenge)).containsExactlyInAnyOrder(
+                standing(alice, 0, 1), standing(bob, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Should skip inactive challenges and leave computed weeks untouched on a re-run")
+    void shouldNotRecomputeOnRerun() {
+        // Given
+        Challenge active = persistChallenge("RERUN", ChallengeStatus.ACTIVE, alice, bob);
+        persistChallenge("DONE", ChallengeStatus.COMPLETED, alice, carol);
+        DailyProgress progress = persistProgress(active, alice, WEEK_START.plusDays(3), 70);
+        assertThat(insertWeekResults()).isEqualTo(1);
+
+        progress.setProgressPercent(10);
+        persistProgress(active, bob, WEEK_START.plusDays(3), 20);
+
+        // When
+        int inserted = insertWeekResults();
+
+        // Then
+        assertThat(inserted).isZero();
+        ChallengeWeekResult result = result(active);
+        assertThat(result.getWinner().getId()).isEqualTo(alice.getId());
+        assertThat(result.getUserAPercent()).isEqualTo(70);
+        assertThat(result.getUserBPercent()).isZero();
+        assertThat(standings(active)).containsExactlyInAnyOrder(
+                standing(alice, 70, 1), standing(bob, 0, 2));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM challenge_week_results", Integer.class)).isEqualTo(1);
+    }
+
+    private int insertWeekResults() {
+        entityManager.flush();
+        int inserted = resultRepository.insertWeekResultsForActiveChallenges(WEEK_START, AS_OF);
+        entityManager.clear();
+        return inserted;
+    }
+
+    private ChallengeWeekResult result(Challenge challenge) {
+        return resultRepository.findByChallengeIdAndWeekStart(challenge.getId(), WEEK_START).orElseThrow();
+    }
+
+    private List<Map<String, Object>> standings(Challenge challenge) {
+        return jdbcTemplate.queryForList("""
+                SELECT user_id, progress_percent, rank FROM challenge_week_standings
+                WHERE challenge_id = ? AND week_start = ?
+                """, challenge.getId(), WEEK_START);
+    }
+
+    private static Map<String, Object> standing(User user, int percent, int rank) {
+        return Map.of("user_id", user.getId(), "progress_percent", percent, "rank", rank);
+    }
+
+    private User persistUser(String name) {
+        return entityManager.persist(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .timezone("UTC")
+                .build());
+    }
+
+    private Challenge persistChallenge(String inviteCode, ChallengeStatus status, User... participants) {
+        Challenge challenge = Challenge.builder()
+                .createdBy(participants[0])
+                .inviteCode(inviteCode)
+                .sportTypes("RUN")
+                .startAt(WEEK_START)
+                .endAt(WEEK_START.plusDays(27))
+                .status(status)
+                .build();
+        // Join order decides user a and user b
+        Instant joinedAt = Instant.parse("2025-01-01T00:00:00Z");
+        for (User user : participants) {
+            challenge.getParticipants().add(ChallengeParticipant.builder()
+                    .challenge(challenge)
+                    .user(user)
+                    .joinedAt(joinedAt)
+                    .build());
+            joinedAt = joinedAt.plusSeconds(60);
+        }
+        return entityManager.persist(challenge);
+    }
+
+    private DailyProgress persistProgress(Challenge challenge, User user, LocalDate date, int percent) {
+        return entityManager.persist(DailyProgress.builder()
+                .challenge(challenge)
+                .user(user)
+                .date(date)
+                .progressPercent(percent)
+                .build());
+    }
+}
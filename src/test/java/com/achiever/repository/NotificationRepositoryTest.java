@@ -0,0 +1,82 @@
+package com.achiever.repository;
+
+import com.achiever.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class NotificationRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .username("testuser")
+                .email("test@example.com")
+                .timezone("UTC")
+                .build();
+        entityManager.persist(user);
+    }
+
+    @Test
+    @DisplayName("Should page through notifications newest first by (createdAt, id)")
+    void shouldPageWithKeyset() {
+        // Given: five notifications, two of them with the same timestamp
+        Instant base = Instant.parse("2025-01-10T12:00:00Z");
+        List<Notification> expected = new ArrayList<>();
+        expected.add(persist(base.plusSeconds(40)));
+        expected.add(persist(base.plusSeconds(30)));
+        Notification tieA = persist(base.plusSeconds(20));
+        Notification tieB = persist(base.plusSeconds(20));
+        // Same createdAt: higher id first (the database compares UUIDs as unsigned bytes, like their hex strings)
+        if (tieA.getId().toString().compareTo(tieB.getId().toString()) > 0) {
+            expected.addAll(List.of(tieA, tieB));
+        } else {
+            expected.addAll(List.of(tieB, tieA));
+        }
+        expected.add(persist(base));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<UUID> seen = new ArrayList<>();
+        List<Notification> page = notificationRepository.findLatestByUserId(user.getId(), Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(n -> seen.add(n.getId()));
+            Notification last = page.getLast();
+            page = notificationRepository.findByUserIdBefore(user.getId(), last.getCreatedAt(), last.getId(), Limit.of(2));
+        }
+
+        // Then
+        assertThat(seen).containsExactlyElementsOf(expected.stream().map(Notification::getId).toList());
+    }
+
+    private Notification persist(Instant createdAt) {
+        Notification notification = Notification.builder()
+                .user(user)
+                .type(NotificationType.CHALLENGE_STARTED)
+                .message("started")
+                .createdAt(createdAt)
+                .build();
+        return entityManager.persist(notification);
+    }
+}
@@ -1,6 +1,8 @@
 package com.achiever.repository;
 
 import com.achiever.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +14,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 class UserRepositoryTest {
 
@@ -42,6 +44,18 @@ class UserRepositoryTest {
         assertThat(found.get().getUsername()).isEqualTo("testuser");
     }
 
+    @Test
+    @DisplayName("Should assign time-ordered UUIDv7 ids")
+    void shouldAssignUuidV7Ids() {
+        User first = User.builder().username("first").email("first@example.com").timezone("UTC").build();
+        User second = User.builder().username("second").email("second@example.com").timezone("UTC").build();
+        entityManager.persist(first);
+        entityManager.persist(second);
+
+        assertThat(first.getId().version()).isEqualTo(7);
+        assertThat(first.getId().toString()).isLessThan(second.getId().toString());
+    }
+
     @Test
     @DisplayName("Should find user by exact email")
     void shouldFindByExactEmail() {
@@ -79,6 +93,36 @@ class UserRepositoryTest {
         assertThat(userRepository.existsByUsername("nonexistent")).isFalse();
     }
 
+    @Test
+    @DisplayName("Should find the highest username suffix in one statement however many collide")
+    void shouldFindMaxUsernameSuffixInOneStatement() {
+        // Given: john, john1..john200 plus names that only share the prefix
+        persistUser("john");
+        for (int i = 1; i <= 200; i++) {
+            persistUser("john" + i);
+        }
+        persistUser("johnny");
+        persistUser("john_doe");
+        persistUser("jo_n7");
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        Integer john = userRepository.findMaxUsernameSuffix("john", "john%");
+        Integer jo_n = userRepository.findMaxUsernameSuffix("jo_n", "jo\\_n%");
+        Integer mary = userRepository.findMaxUsernameSuffix("mary", "mary%");
+
+        // Then
+        assertThat(john).isEqualTo(200);
+        assertThat(jo_n).isEqualTo(7);
+        assertThat(mary).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
     @Test
     @DisplayName("Should not find user by non-existent email")
     void shouldNotFindByNonExistentEmail() {
@@ -161,4 +205,12 @@ class UserRepositoryTest {
             entityManager.flush();
         }).isInstanceOf(Exception.class);
     }
+
+    private void persistUser(String username) {
+        entityManager.persist(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .timezone("UTC")
+                .build());
+    }
 }
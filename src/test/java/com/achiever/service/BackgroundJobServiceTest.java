@@ -0,0 +1,141 @@
+package com.achiever.service;
+
+import com.achiever.entity.BackgroundJob;
+import com.achiever.entity.BackgroundJobType;
+import com.achiever.jobs.UserSyncJobHandler;
+import com.achiever.repository.BackgroundJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackgroundJobServiceTest {
+
+    @Mock
+    private BackgroundJobRepository jobRepository;
+
+    private BackgroundJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        // Same date handling as the ObjectMapper Spring Boot configures
+        jobService = new BackgroundJobService(jobRepository, new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Test
+    @DisplayName("Should serialize the payload and report deduplicated enqueues")
+    void shouldEnqueueWithJsonPayload() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UserSyncJobHandler.Payload payload = new UserSyncJobHandler.Payload(
+                userId, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 7));
+        when(jobRepository.enqueue(eq("USER_SYNC"), anyString(), eq("key"), anyInt(), eq(0L)))
+                .thenReturn(1, 0);
+
+        // When
+        boolean first = jobService.enqueue(BackgroundJobType.USER_SYNC, payload, "key");
+        boolean second = jobService.enqueue(BackgroundJobType.USER_SYNC, payload, "key");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(jobRepository, times(2)).enqueue(eq("USER_SYNC"),
+                contains("\"fromDate\":\"2025-01-01\""), eq("key"), eq(5), eq(0L));
+    }
+
+    @Test
+    @DisplayName("Should read the payload back into its record")
+    void shouldReadPayload() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJobType.USER_SYNC)
+                .payload("{\"userId\":\"" + userId + "\",\"fromDate\":\"2025-01-01\",\"toDate\":\"2025-01-07\"}")
+                .build();
+
+        // When
+        UserSyncJobHandler.Payload payload = jobService.readPayload(job, UserSyncJobHandler.Payload.class);
+
+        // Then
+        assertThat(payload).isEqualTo(new UserSyncJobHandler.Payload(
+                userId, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 7)));
+    }
+
+    @Test
+    @DisplayName("Should retry with exponential backoff while attempts remain")
+    void shouldRetryWithBackoff() {
+        // Given
+        BackgroundJob job = job(3, 5);
+
+        // When
+        boolean retried = jobService.markFailed(job, new RuntimeException("Strava down"));
+
+        // Then
+        assertThat(retried).isTrue();
+        verify(jobRepository).scheduleRetry(job.getId(), 120L, "RuntimeException: Strava down");
+        verify(jobRepository, never()).markDead(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should mark the job dead after the last attempt")
+    void shouldMarkDeadAfterMaxAttempts() {
+        // Given
+        BackgroundJob job = job(5, 5);
+
+        // When
+        boolean retried = jobService.markFailed(job, new IllegalStateException("boom"));
+
+        // Then
+        assertThat(retried).isFalse();
+        verify(jobRepository).markDead(job.getId(), "IllegalStateException: boom");
+        verify(jobRepository, never()).scheduleRetry(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should requeue stale jobs with backoff and give up on their last attempt")
+    void shouldReleaseStaleJobs() {
+        // Given
+        when(jobRepository.markStaleDead(eq(300L), anyString())).thenReturn(1);
+        when(jobRepository.releaseStale(eq(300L), eq(30L), eq(3600L), anyString())).thenReturn(2);
+
+        // When
+        int released = jobService.releaseStale(Duration.ofMinutes(5));
+
+        // Then
+        assertThat(released).isEqualTo(2);
+        verify(jobRepository).markStaleDead(300L, "Worker stopped without finishing the job");
+        verify(jobRepository).releaseStale(300L, 30L, 3600L, "Worker stopped without finishing the job");
+    }
+
+    @Test
+    @DisplayName("Should cap the backoff at one hour")
+    void shouldCapBackoff() {
+        assertThat(BackgroundJobService.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(BackgroundJobService.backoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(BackgroundJobService.backoff(20)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private BackgroundJob job(int attempts, int maxAttempts) {
+        return BackgroundJob.builder()
+                .id(UUID.randomUUID())
+                .type(BackgroundJobType.USER_SYNC)
+                .payload("{}")
+                .attempts(attempts)
+                .maxAttempts(maxAttempts)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.achiever.service;
+
+import com.achiever.repository.ChallengeProgressSummaryRepository;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.DailyProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeArchivalServiceTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2025, 1, 1);
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private DailyProgressRepository progressRepository;
+
+    @Mock
+    private ChallengeProgressSummaryRepository summaryRepository;
+
+    @Mock
+    private ClusterLockService clusterLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChallengeArchivalService archivalService;
+
+    @BeforeEach
+    void setUp() {
+        // 7 days, 10 challenges per run, 2 per batch, 100 rows per delete, 5 deletes per run
+        archivalService = new ChallengeArchivalService(challengeRepository, progressRepository, summaryRepository,
+                clusterLockService, transactionManager, 7, 10, 2, 100, 5);
+    }
+
+    @Test
+    @DisplayName("Should summarise, then delete daily rows in batches, then mark the challenges archived")
+    void shouldSummariseBeforeDeleting() {
+        // Given
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(challengeRepository.findIdsToArchiveEndedBefore(CUTOFF, 10)).thenReturn(ids);
+        when(progressRepository.deleteBatchByChallengeIds(ids, 100)).thenReturn(100, 100, 7);
+
+        // When
+        int archived = archivalService.archiveEndedBefore(CUTOFF);
+
+        // Then
+        assertThat(archived).isEqualTo(2);
+        InOrder order = inOrder(summaryRepository, progressRepository, challengeRepository);
+        order.verify(summaryRepository).summarizeLatestProgress(ids);
+        order.verify(progressRepository, times(3)).deleteBatchByChallengeIds(ids, 100);
+        order.verify(challengeRepository).markProgressArchived(ids);
+    }
+
+    @Test
+    @DisplayName("Should leave challenges unmarked when the run's delete batches are used up")
+    void shouldStopAtDeleteBudget() {
+        // Given
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(challengeRepository.findIdsToArchiveEndedBefore(CUTOFF, 10)).thenReturn(ids);
+        when(progressRepository.deleteBatchByChallengeIds(any(), anyInt())).thenReturn(10, 100);
+
+        // When
+        int archived = archivalService.archiveEndedBefore(CUTOFF);
+
+        // Then: the first batch of two is archived, the last one continues next run
+        assertThat(archived).isEqualTo(2);
+        verify(challengeRepository).markProgressArchived(ids.subList(0, 2));
+        verify(challengeRepository, never()).markProgressArchived(ids.subList(2, 3));
+        verify(progressRepository, times(5)).deleteBatchByChallengeIds(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should archive only on the instance holding the lock")
+    void shouldSkipArchivalWithoutLock() {
+        // Given
+        when(clusterLockService.runExclusively(eq(ChallengeArchivalService.MAINTENANCE_LOCK), any()))
+                .thenReturn(false);
+
+        // When
+        archivalService.runArchival();
+
+        // Then
+        verifyNoInteractions(challengeRepository, progressRepository, summaryRepository);
+    }
+}
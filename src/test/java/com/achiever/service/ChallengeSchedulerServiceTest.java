@@ -1,6 +1,10 @@
 package com.achiever.service;
 
 import com.achiever.entity.*;
+import com.achiever.jobs.MidnightSyncJobHandler;
+import com.achiever.jobs.NotificationFanoutJobHandler;
+import com.achiever.jobs.SyncPartitionJobHandler;
+import com.achiever.jobs.WeeklyResultsJobHandler;
 import com.achiever.repository.*;
 import com.achiever.strava.StravaSyncService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,12 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.IntSupplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,14 +43,46 @@ class ChallengeSchedulerServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private JobRunService jobRunService;
+
+    @Mock
+    private ChallengeWeekResultRepository resultRepository;
+
+    @Mock
+    private BackgroundJobService backgroundJobService;
+
+    @Mock
+    private ClusterLockService clusterLockService;
+
     @InjectMocks
     private ChallengeSchedulerService schedulerService;
 
     private User creator;
     private User opponent;
+    private JobRunContext run;
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(schedulerService, "syncPartitions", 4);
+        run = new JobRunContext(UUID.randomUUID(), "midnight-sync", LocalDate.now().toString(),
+                Instant.now(), new HashSet<>());
+
+        // Run chunks inline, like JobRunService does inside its own transaction
+        lenient().when(jobRunService.runChunk(any(), anyString(), any())).thenAnswer(invocation -> {
+            String chunkKey = invocation.getArgument(1);
+            if (run.completedChunks().contains(chunkKey)) {
+                return true;
+            }
+            try {
+                invocation.<IntSupplier>getArgument(2).getAsInt();
+            } catch (RuntimeException e) {
+                return false;
+            }
+            run.completedChunks().add(chunkKey);
+            return true;
+        });
+
         creator = User.builder()
                 .id(UUID.randomUUID())
                 .username("creator")
@@ -58,61 +100,85 @@ class ChallengeSchedulerServiceTest {
     @DisplayName("Should transition PENDING to EXPIRED when end date passed")
     void shouldTransitionPendingToExpired() {
         // Given
-        Challenge pendingChallenge = createChallenge(ChallengeStatus.PENDING, LocalDate.now().minusDays(3), LocalDate.now().minusDays(1));
-        
-        when(challengeRepository.findByStatus(ChallengeStatus.PENDING))
-                .thenReturn(List.of(pendingChallenge));
-        when(challengeRepository.findByStatus(ChallengeStatus.SCHEDULED))
+        LocalDate today = LocalDate.now();
+        Challenge pendingChallenge = createChallenge(ChallengeStatus.EXPIRED, today.minusDays(3), today.minusDays(1));
+
+        when(challengeRepository.expirePendingEndedBefore(today))
+                .thenReturn(List.of(pendingChallenge.getId()));
+        when(challengeRepository.activateScheduledStartedBy(today))
                 .thenReturn(Collections.emptyList());
 
         // When
-        schedulerService.processStatusTransitions(LocalDate.now());
+        schedulerService.processStatusTransitions(run, today);
 
         // Then
-        verify(challengeRepository).save(argThat(challenge -> 
-                challenge.getStatus() == ChallengeStatus.EXPIRED
-        ));
-        verify(notificationService).notifyChallengeExpired(pendingChallenge);
+        verify(backgroundJobService).enqueue(eq(BackgroundJobType.NOTIFICATION_FANOUT),
+                eq(new NotificationFanoutJobHandler.Payload(NotificationFanoutJobHandler.Event.CHALLENGE_EXPIRED, List.of(pendingChallenge.getId()))),
+                isNull());
+        verify(backgroundJobService, times(1)).enqueue(any(), any(), any());
+        verify(challengeRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should transition SCHEDULED to ACTIVE when start date reached")
     void shouldTransitionScheduledToActive() {
         // Given
-        Challenge scheduledChallenge = createChallenge(ChallengeStatus.SCHEDULED, LocalDate.now().minusDays(1), LocalDate.now().plusDays(7));
-        
-        when(challengeRepository.findByStatus(ChallengeStatus.PENDING))
+        LocalDate today = LocalDate.now();
+        Challenge scheduledChallenge = createChallenge(ChallengeStatus.ACTIVE, today.minusDays(1), today.plusDays(7));
+
+        when(challengeRepository.expirePendingEndedBefore(today))
                 .thenReturn(Collections.emptyList());
-        when(challengeRepository.findByStatus(ChallengeStatus.SCHEDULED))
-                .thenReturn(List.of(scheduledChallenge));
+        when(challengeRepository.activateScheduledStartedBy(today))
+                .thenReturn(List.of(scheduledChallenge.getId()));
 
         // When
-        schedulerService.processStatusTransitions(LocalDate.now());
+        schedulerService.processStatusTransitions(run, today);
 
         // Then
-        verify(challengeRepository).save(argThat(challenge -> 
-                challenge.getStatus() == ChallengeStatus.ACTIVE
-        ));
-        verify(notificationService).notifyChallengeStarted(scheduledChallenge);
+        verify(backgroundJobService).enqueue(eq(BackgroundJobType.NOTIFICATION_FANOUT),
+                eq(new NotificationFanoutJobHandler.Payload(NotificationFanoutJobHandler.Event.CHALLENGE_STARTED, List.of(scheduledChallenge.getId()))),
+                isNull());
+        verify(backgroundJobService, times(1)).enqueue(any(), any(), any());
     }
 
     @Test
-    @DisplayName("Should not transition SCHEDULED if start date is in future")
-    void shouldNotTransitionScheduledIfStartInFuture() {
+    @DisplayName("Should not notify when no challenge is due for a transition")
+    void shouldNotNotifyWhenNothingTransitions() {
         // Given
-        Challenge scheduledChallenge = createChallenge(ChallengeStatus.SCHEDULED, LocalDate.now().plusDays(3), LocalDate.now().plusDays(10));
-        
-        when(challengeRepository.findByStatus(ChallengeStatus.PENDING))
+        LocalDate today = LocalDate.now();
+
+        when(challengeRepository.expirePendingEndedBefore(today))
+                .thenReturn(Collections.emptyList());
+        when(challengeRepository.activateScheduledStartedBy(today))
                 .thenReturn(Collections.emptyList());
-        when(challengeRepository.findByStatus(ChallengeStatus.SCHEDULED))
-                .thenReturn(List.of(scheduledChallenge));
 
         // When
-        schedulerService.processStatusTransitions(LocalDate.now());
+        schedulerService.processStatusTransitions(run, today);
 
         // Then
-        verify(challengeRepository, never()).save(any());
-        verify(notificationService, never()).notifyChallengeStarted(any());
+        verify(backgroundJobService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should enqueue one notification job per batch of transitioned challenges")
+    void shouldEnqueueNotificationsInBatches() {
+        // Given
+        LocalDate today = LocalDate.now();
+        List<UUID> activatedIds = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            activatedIds.add(UUID.randomUUID());
+        }
+
+        when(challengeRepository.expirePendingEndedBefore(today))
+                .thenReturn(Collections.emptyList());
+        when(challengeRepository.activateScheduledStartedBy(today))
+                .thenReturn(activatedIds);
+
+        // When
+        schedulerService.processStatusTransitions(run, today);
+
+        // Then
+        verify(backgroundJobService, times(3)).enqueue(eq(BackgroundJobType.NOTIFICATION_FANOUT), any(), isNull());
     }
 
     @Test
@@ -121,24 +187,47 @@ class ChallengeSchedulerServiceTest {
         // Given
         Challenge activeChallenge = createChallengeWithParticipants(ChallengeStatus.ACTIVE, LocalDate.now().minusDays(10), LocalDate.now().minusDays(1));
         
-        when(challengeRepository.findByStatus(ChallengeStatus.ACTIVE))
-                .thenReturn(List.of(activeChallenge));
+        when(challengeRepository.findIdsByStatusAndEndAtBefore(ChallengeStatus.ACTIVE, LocalDate.now()))
+                .thenReturn(List.of(activeChallenge.getId()));
+        when(challengeRepository.findByIdForUpdate(activeChallenge.getId()))
+                .thenReturn(Optional.of(activeChallenge));
+        when(challengeRepository.findByIdWithParticipants(activeChallenge.getId()))
+                .thenReturn(Optional.of(activeChallenge));
         when(challengeService.determineWinner(activeChallenge)).thenReturn(creator);
 
         // When
-        schedulerService.completeExpiredChallenges(LocalDate.now());
+        schedulerService.completeExpiredChallenges(run, LocalDate.now());
 
         // Then
         verify(challengeRepository).save(argThat(challenge -> 
                 challenge.getStatus() == ChallengeStatus.COMPLETED &&
                 challenge.getWinner() == creator
         ));
-        verify(notificationService).notifyChallengeCompleted(activeChallenge, creator);
+        verify(notificationService).enqueue(NotificationFanoutJobHandler.Event.CHALLENGE_COMPLETED, activeChallenge, null);
     }
 
     @Test
-    @DisplayName("Should sync all active challenge participants")
-    void shouldSyncAllActiveChallengeParticipants() {
+    @DisplayName("Should not complete a challenge another run completed first")
+    void shouldSkipChallengeCompletedByOverlappingRun() {
+        // Given
+        Challenge completed = createChallengeWithParticipants(ChallengeStatus.COMPLETED, LocalDate.now().minusDays(10), LocalDate.now().minusDays(1));
+
+        when(challengeRepository.findIdsByStatusAndEndAtBefore(ChallengeStatus.ACTIVE, LocalDate.now()))
+                .thenReturn(List.of(completed.getId()));
+        when(challengeRepository.findByIdForUpdate(completed.getId()))
+                .thenReturn(Optional.of(completed));
+
+        // When
+        schedulerService.completeExpiredChallenges(run, LocalDate.now());
+
+        // Then
+        verify(challengeRepository, never()).save(any());
+        verify(notificationService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should sync a participant of an active challenge")
+    void shouldSyncActiveChallengeParticipant() {
         // Given
         StravaConnection stravaConnection = StravaConnection.builder()
                 .athleteId(12345L)
@@ -148,18 +237,22 @@ class ChallengeSchedulerServiceTest {
         
         Challenge activeChallenge = createChallengeWithParticipants(ChallengeStatus.ACTIVE, LocalDate.now().minusDays(3), LocalDate.now().plusDays(4));
         
-        when(challengeRepository.findByStatus(ChallengeStatus.ACTIVE))
-                .thenReturn(List.of(activeChallenge));
+        when(challengeRepository.findByIdWithParticipants(activeChallenge.getId()))
+                .thenReturn(Optional.of(activeChallenge));
 
         // When
-        schedulerService.syncAllActiveChallenges();
+        int synced = schedulerService.syncParticipant(activeChallenge.getId(), creator.getId());
+        int skipped = schedulerService.syncParticipant(activeChallenge.getId(), opponent.getId());
 
         // Then
+        assertThat(synced).isEqualTo(1);
+        assertThat(skipped).isZero();
         verify(stravaSyncService).syncAndUpdateProgress(eq(creator), eq(activeChallenge));
+        verify(stravaSyncService, never()).syncAndUpdateProgress(eq(opponent), any());
     }
 
     @Test
-    @DisplayName("Should skip forfeited participants during sync")
+    @DisplayName("Should skip forfeited participants during the final sync")
     void shouldSkipForfeitedParticipantsDuringSync() {
         // Given
         StravaConnection stravaConnection = StravaConnection.builder()
@@ -169,19 +262,184 @@ class ChallengeSchedulerServiceTest {
         creator.setStravaConnection(stravaConnection);
         opponent.setStravaConnection(stravaConnection);
         
-        Challenge activeChallenge = createChallengeWithParticipants(ChallengeStatus.ACTIVE, LocalDate.now().minusDays(3), LocalDate.now().plusDays(4));
+        Challenge activeChallenge = createChallengeWithParticipants(ChallengeStatus.ACTIVE, LocalDate.now().minusDays(10), LocalDate.now().minusDays(1));
         // Forfeit opponent
         activeChallenge.getParticipants().get(1).setForfeitedAt(java.time.LocalDateTime.now());
         
-        when(challengeRepository.findByStatus(ChallengeStatus.ACTIVE))
-                .thenReturn(List.of(activeChallenge));
+        when(challengeRepository.findIdsByStatusAndEndAtBefore(ChallengeStatus.ACTIVE, LocalDate.now()))
+                .thenReturn(List.of(activeChallenge.getId()));
+        when(challengeRepository.findByIdWithParticipants(activeChallenge.getId()))
+                .thenReturn(Optional.of(activeChallenge));
 
         // When
-        schedulerService.syncAllActiveChallenges();
+        schedulerService.completeExpiredChallenges(run, LocalDate.now());
 
         // Then
         verify(stravaSyncService).syncAndUpdateProgress(eq(creator), eq(activeChallenge));
         verify(stravaSyncService, never()).syncAndUpdateProgress(eq(opponent), any());
+        verify(jobRunService, never()).runChunk(any(),
+                eq("final-sync:" + activeChallenge.getId() + ":" + opponent.getId()), any());
+    }
+
+    @Test
+    @DisplayName("Should queue one sync job per user partition")
+    void shouldQueueSyncPerPartition() {
+        // Given
+        LocalDate today = LocalDate.of(2025, 1, 15);
+
+        // When
+        schedulerService.syncActiveParticipants(run, today);
+
+        // Then
+        for (int partition = 0; partition < 4; partition++) {
+            verify(backgroundJobService).enqueue(BackgroundJobType.SYNC_PARTITION,
+                    new SyncPartitionJobHandler.Payload(today, partition, 4),
+                    SyncPartitionJobHandler.dedupeKey(today, partition));
+        }
+        verify(backgroundJobService, times(4)).enqueue(any(), any(), any());
+        verify(stravaSyncService, never()).syncAndUpdateProgress(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip chunks already completed by an interrupted run")
+    void shouldSkipChunksCompletedBeforeResume() {
+        // Given
+        run.completedChunks().add("enqueue-sync");
+
+        // When
+        schedulerService.syncActiveParticipants(run, LocalDate.now());
+
+        // Then
+        verify(backgroundJobService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail only the failing participant's final sync and still complete the challenge")
+    void shouldFailOnlyFailingParticipantFinalSync() {
+        // Given
+        StravaConnection stravaConnection = StravaConnection.builder()
+                .athleteId(12345L)
+                .accessToken("token")
+                .build();
+        creator.setStravaConnection(stravaConnection);
+        opponent.setStravaConnection(stravaConnection);
+
+        Challenge activeChallenge = createChallengeWithParticipants(ChallengeStatus.ACTIVE, LocalDate.now().minusDays(10), LocalDate.now().minusDays(1));
+
+        when(challengeRepository.findIdsByStatusAndEndAtBefore(ChallengeStatus.ACTIVE, LocalDate.now()))
+                .thenReturn(List.of(activeChallenge.getId()));
+        when(challengeRepository.findByIdForUpdate(activeChallenge.getId()))
+                .thenReturn(Optional.of(activeChallenge));
+        when(challengeRepository.findByIdWithParticipants(activeChallenge.getId()))
+                .thenReturn(Optional.of(activeChallenge));
+        doThrow(new RuntimeException("Strava down"))
+                .when(stravaSyncService).syncAndUpdateProgress(creator, activeChallenge);
+
+        // When
+        schedulerService.completeExpiredChallenges(run, LocalDate.now());
+
+        // Then
+        String chunkPrefix = "final-sync:" + activeChallenge.getId() + ":";
+        assertThat(run.completedChunks())
+                .doesNotContain(chunkPrefix + creator.getId())
+                .contains(chunkPrefix + opponent.getId(), "complete:" + activeChallenge.getId());
+        verify(stravaSyncService).syncAndUpdateProgress(opponent, activeChallenge);
+        verify(challengeRepository).save(argThat(challenge -> challenge.getStatus() == ChallengeStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should open and close a job run for the midnight sync")
+    void shouldRecordMidnightSyncRun() {
+        // Given
+        LocalDate today = LocalDate.now();
+        when(jobRunService.start("midnight-sync", today.toString())).thenReturn(run);
+        when(challengeRepository.expirePendingEndedBefore(today)).thenReturn(Collections.emptyList());
+        when(challengeRepository.activateScheduledStartedBy(today)).thenReturn(Collections.emptyList());
+        when(challengeRepository.findIdsByStatusAndEndAtBefore(ChallengeStatus.ACTIVE, today)).thenReturn(Collections.emptyList());
+        when(jobRunService.finish(run)).thenReturn(JobRunStatus.COMPLETED);
+
+        // When
+        JobRunStatus status = schedulerService.midnightSync(today);
+
+        // Then
+        assertThat(status).isEqualTo(JobRunStatus.COMPLETED);
+        verify(jobRunService).runChunk(eq(run), eq("transitions"), any());
+        verify(jobRunService).finish(run);
+    }
+
+    @Test
+    @DisplayName("Should compute weekly results for all active challenges in one statement")
+    void shouldComputeWeeklyResultsSetBased() {
+        // Given
+        LocalDate weekStart = LocalDate.of(2025, 1, 6);
+        JobRunContext weeklyRun = new JobRunContext(UUID.randomUUID(), "weekly-results", weekStart.toString(),
+                Instant.now(), new HashSet<>());
+        when(jobRunService.start("weekly-results", weekStart.toString())).thenReturn(weeklyRun);
+        when(resultRepository.insertWeekResultsForActiveChallenges(weekStart, weekStart.plusDays(7)))
+                .thenReturn(3);
+
+        // When
+        schedulerService.calculateWeeklyResults(weekStart);
+
+        // Then
+        verify(resultRepository).insertWeekResultsForActiveChallenges(weekStart, LocalDate.of(2025, 1, 13));
+        verify(jobRunService).finish(weeklyRun);
+    }
+
+    @Test
+    @DisplayName("Should enqueue scheduled runs missed while the app was down")
+    void shouldCatchUpMissedRuns() {
+        // Given
+        LocalDate wednesday = LocalDate.of(2025, 1, 15);
+        LocalDate lastWeekStart = LocalDate.of(2025, 1, 6);
+        when(jobRunService.isCompleted("midnight-sync", "2025-01-15")).thenReturn(false);
+        when(jobRunService.isCompleted("weekly-results", "2025-01-06")).thenReturn(true);
+        when(jobRunService.findInterruptedRuns()).thenReturn(Collections.emptyList());
+
+        // When
+        schedulerService.catchUpMissedRuns(wednesday);
+
+        // Then
+        verify(backgroundJobService).enqueue(BackgroundJobType.MIDNIGHT_SYNC,
+                new MidnightSyncJobHandler.Payload(wednesday), MidnightSyncJobHandler.dedupeKey(wednesday));
+        verify(backgroundJobService, never()).enqueue(BackgroundJobType.WEEKLY_RESULTS,
+                new WeeklyResultsJobHandler.Payload(lastWeekStart), WeeklyResultsJobHandler.dedupeKey(lastWeekStart));
+    }
+
+    @Test
+    @DisplayName("Should re-enqueue runs interrupted mid-way")
+    void shouldReEnqueueInterruptedRuns() {
+        // Given
+        LocalDate today = LocalDate.of(2025, 1, 15);
+        LocalDate yesterday = today.minusDays(1);
+        JobRun interrupted = JobRun.builder()
+                .jobName("midnight-sync")
+                .runKey(yesterday.toString())
+                .status(JobRunStatus.RUNNING)
+                .build();
+        when(jobRunService.isCompleted(anyString(), anyString())).thenReturn(true);
+        when(jobRunService.findInterruptedRuns()).thenReturn(List.of(interrupted));
+
+        // When
+        schedulerService.catchUpMissedRuns(today);
+
+        // Then
+        verify(backgroundJobService).enqueue(BackgroundJobType.MIDNIGHT_SYNC,
+                new MidnightSyncJobHandler.Payload(yesterday), MidnightSyncJobHandler.dedupeKey(yesterday));
+        verify(backgroundJobService, times(1)).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should only enqueue the nightly run on the instance holding the scheduler lock")
+    void shouldEnqueueCronRunOnlyUnderSchedulerLock() {
+        // Given another instance holds the lock
+        when(clusterLockService.runExclusively(eq("challenge-scheduler"), any())).thenReturn(false);
+
+        // When
+        schedulerService.midnightSync();
+
+        // Then
+        verify(backgroundJobService, never()).enqueue(any(), any(), any());
     }
 
     // Helper methods
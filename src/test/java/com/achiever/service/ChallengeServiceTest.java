@@ -2,8 +2,10 @@ package com.achiever.service;
 
 import com.achiever.dto.CreateChallengeRequest;
 import com.achiever.dto.ChallengeDTO;
+import com.achiever.dto.ChallengeProgressDTO;
 import com.achiever.dto.JoinChallengeRequest;
 import com.achiever.entity.*;
+import com.achiever.jobs.NotificationFanoutJobHandler;
 import com.achiever.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +36,12 @@ class ChallengeServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private DailyProgressRepository progressRepository;
+
+    @Mock
+    private ChallengeProgressSummaryRepository summaryRepository;
+
     @InjectMocks
     private ChallengeService challengeService;
 
@@ -217,7 +225,7 @@ class ChallengeServiceTest {
             // Then
             assertThat(result).isNotNull();
             verify(participantRepository).save(any(ChallengeParticipant.class));
-            verify(notificationService).notifyOpponentJoined(any(), any(), any());
+            verify(notificationService).enqueue(NotificationFanoutJobHandler.Event.CHALLENGE_JOINED, challenge, opponent);
         }
 
         @Test
@@ -372,6 +380,60 @@ class ChallengeServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Challenge Progress Tests")
+    class ChallengeProgressTests {
+
+        @Test
+        @DisplayName("Should read archived progress of a finished challenge from its summaries")
+        void shouldReadArchivedProgressFromSummaries() {
+            // Given
+            Challenge challenge = createTestChallenge(ChallengeStatus.COMPLETED);
+            ChallengeProgressSummary summary = ChallengeProgressSummary.builder()
+                    .challenge(challenge)
+                    .user(testUser)
+                    .lastDate(challenge.getEndAt())
+                    .distanceMeters(25_000)
+                    .runMeters(25_000)
+                    .rideMeters(0)
+                    .swimMeters(0)
+                    .walkMeters(0)
+                    .progressPercent(50)
+                    .build();
+            when(challengeRepository.findByIdWithParticipants(challenge.getId())).thenReturn(Optional.of(challenge));
+            when(summaryRepository.findByChallengeId(challenge.getId())).thenReturn(List.of(summary));
+
+            // When
+            ChallengeProgressDTO progress = challengeService.getChallengeProgress(challenge.getId());
+
+            // Then
+            assertThat(progress.participants()).singleElement().satisfies(p -> {
+                assertThat(p.currentDistances()).containsEntry(SportType.RUN, 25_000);
+                assertThat(p.overallProgressPercent()).isEqualTo(50);
+            });
+            verifyNoInteractions(progressRepository);
+        }
+
+        @Test
+        @DisplayName("Should read daily progress of a finished challenge not archived yet")
+        void shouldReadDailyProgressBeforeArchival() {
+            // Given
+            Challenge challenge = createTestChallenge(ChallengeStatus.COMPLETED);
+            when(challengeRepository.findByIdWithParticipants(challenge.getId())).thenReturn(Optional.of(challenge));
+            when(summaryRepository.findByChallengeId(challenge.getId())).thenReturn(List.of());
+            when(progressRepository.findCurrentProgressByChallengeId(challenge.getId())).thenReturn(List.of(
+                    DailyProgress.builder().challenge(challenge).user(testUser).date(challenge.getEndAt())
+                            .runMeters(10_000).build()));
+
+            // When
+            ChallengeProgressDTO progress = challengeService.getChallengeProgress(challenge.getId());
+
+            // Then
+            assertThat(progress.participants()).singleElement()
+                    .satisfies(p -> assertThat(p.overallProgressPercent()).isEqualTo(20));
+        }
+    }
+
     // Helper method
     private Challenge createTestChallenge(ChallengeStatus status) {
         Challenge challenge = Challenge.builder()
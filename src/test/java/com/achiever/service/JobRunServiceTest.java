@@ -0,0 +1,185 @@
+package com.achiever.service;
+
+import com.achiever.entity.*;
+import com.achiever.repository.JobRunChunkRepository;
+import com.achiever.repository.JobRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobRunServiceTest {
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @Mock
+    private JobRunChunkRepository chunkRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JobRunService jobRunService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobRunService = new JobRunService(jobRunRepository, chunkRepository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should create a new run when none exists for the key")
+    void shouldStartNewRun() {
+        // Given
+        when(jobRunRepository.findByJobNameAndRunKey("midnight-sync", "2025-01-01"))
+                .thenReturn(Optional.empty());
+        when(jobRunRepository.save(any(JobRun.class))).thenAnswer(invocation -> {
+            JobRun run = invocation.getArgument(0);
+            run.setId(UUID.randomUUID());
+            return run;
+        });
+
+        // When
+        JobRunContext run = jobRunService.start("midnight-sync", "2025-01-01");
+
+        // Then
+        assertThat(run.id()).isNotNull();
+        assertThat(run.completedChunks()).isEmpty();
+        verify(chunkRepository, never()).findCompletedChunkKeys(any());
+    }
+
+    @Test
+    @DisplayName("Should resume an existing run with its completed chunks")
+    void shouldResumeExistingRun() {
+        // Given
+        JobRun existing = JobRun.builder()
+                .id(UUID.randomUUID())
+                .jobName("midnight-sync")
+                .runKey("2025-01-01")
+                .build();
+        when(jobRunRepository.findByJobNameAndRunKey("midnight-sync", "2025-01-01"))
+                .thenReturn(Optional.of(existing));
+        when(jobRunRepository.save(existing)).thenReturn(existing);
+        when(chunkRepository.findCompletedChunkKeys(existing.getId()))
+                .thenReturn(List.of("transitions", "sync:abc"));
+
+        // When
+        JobRunContext run = jobRunService.start("midnight-sync", "2025-01-01");
+
+        // Then
+        assertThat(run.id()).isEqualTo(existing.getId());
+        assertThat(run.completedChunks()).containsExactlyInAnyOrder("transitions", "sync:abc");
+    }
+
+    @Test
+    @DisplayName("Should skip a chunk that already completed")
+    void shouldSkipCompletedChunk() {
+        // Given
+        JobRunContext run = newContext(Set.of("transitions"));
+
+        // When
+        boolean done = jobRunService.runChunk(run, "transitions", () -> {
+            throw new AssertionError("Completed chunk must not run again");
+        });
+
+        // Then
+        assertThat(done).isTrue();
+        verifyNoInteractions(chunkRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should record a completed chunk with its item count")
+    void shouldRecordCompletedChunk() {
+        // Given
+        JobRunContext run = newContext(Set.of());
+        when(chunkRepository.findByJobRunIdAndChunkKey(run.id(), "sync:abc")).thenReturn(Optional.empty());
+
+        // When
+        boolean done = jobRunService.runChunk(run, "sync:abc", () -> 2);
+
+        // Then
+        assertThat(done).isTrue();
+        assertThat(run.completedChunks()).contains("sync:abc");
+
+        ArgumentCaptor<JobRunChunk> captor = ArgumentCaptor.forClass(JobRunChunk.class);
+        verify(chunkRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(JobChunkStatus.COMPLETED);
+        assertThat(captor.getValue().getItemsProcessed()).isEqualTo(2);
+        assertThat(meterRegistry.counter("scheduler.job.items", "job", "midnight-sync").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should roll back and record a failed chunk")
+    void shouldRecordFailedChunk() {
+        // Given
+        JobRunContext run = newContext(Set.of());
+        JobRunChunk previousAttempt = JobRunChunk.builder()
+                .chunkKey("sync:abc")
+                .status(JobChunkStatus.FAILED)
+                .build();
+        when(chunkRepository.findByJobRunIdAndChunkKey(run.id(), "sync:abc"))
+                .thenReturn(Optional.of(previousAttempt));
+
+        // When
+        boolean done = jobRunService.runChunk(run, "sync:abc", () -> {
+            throw new IllegalStateException("Strava down");
+        });
+
+        // Then
+        assertThat(done).isFalse();
+        assertThat(run.completedChunks()).doesNotContain("sync:abc");
+        verify(transactionManager).rollback(any());
+        assertThat(previousAttempt.getAttempts()).isEqualTo(2);
+        assertThat(previousAttempt.getError()).contains("Strava down");
+        assertThat(meterRegistry.counter("scheduler.job.chunks", "job", "midnight-sync", "outcome", "failed").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should finish as FAILED when any chunk failed")
+    void shouldFinishAsFailedWhenChunkFailed() {
+        // Given
+        JobRunContext run = newContext(Set.of());
+        JobRun jobRun = JobRun.builder()
+                .id(run.id())
+                .jobName("midnight-sync")
+                .runKey("2025-01-01")
+                .startedAt(Instant.now().minusSeconds(5))
+                .build();
+        when(jobRunRepository.findById(run.id())).thenReturn(Optional.of(jobRun));
+        when(chunkRepository.countByJobRunIdAndStatus(run.id(), JobChunkStatus.COMPLETED)).thenReturn(3);
+        when(chunkRepository.countByJobRunIdAndStatus(run.id(), JobChunkStatus.FAILED)).thenReturn(1);
+        when(chunkRepository.sumItemsProcessed(run.id())).thenReturn(7);
+
+        // When
+        jobRunService.finish(run);
+
+        // Then
+        assertThat(jobRun.getStatus()).isEqualTo(JobRunStatus.FAILED);
+        assertThat(jobRun.getChunksCompleted()).isEqualTo(3);
+        assertThat(jobRun.getChunksFailed()).isEqualTo(1);
+        assertThat(jobRun.getItemsProcessed()).isEqualTo(7);
+        assertThat(jobRun.getDurationMs()).isGreaterThanOrEqualTo(5000);
+        assertThat(meterRegistry.timer("scheduler.job.duration", "job", "midnight-sync", "status", "FAILED").count())
+                .isEqualTo(1);
+    }
+
+    private JobRunContext newContext(Set<String> completed) {
+        return new JobRunContext(UUID.randomUUID(), "midnight-sync", "2025-01-01",
+                Instant.now(), new HashSet<>(completed));
+    }
+}
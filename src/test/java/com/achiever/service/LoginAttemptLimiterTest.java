@@ -0,0 +1,78 @@
+package com.achiever.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoginAttemptLimiterTest {
+
+    private Clock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginAttemptLimiter(3, 5, Duration.ofSeconds(60), 100, clock, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should reject an account after its attempts until the window ends")
+    void shouldThrottleAccount() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("runner@test.com", "10.0.0." + i)).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("runner@test.com", "10.0.0.9")).isEqualTo(60);
+        assertThat(limiter.tryAcquire("other@test.com", "10.0.0.9")).isZero();
+        assertThat(meterRegistry.counter("auth.attempts.throttled").count()).isEqualTo(1);
+
+        when(clock.millis()).thenReturn(60_000L);
+        assertThat(limiter.tryAcquire("runner@test.com", "10.0.0.9")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject an IP that tries many accounts")
+    void shouldThrottleIp() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("user" + i + "@test.com", "10.0.0.1")).isZero();
+        }
+
+        when(clock.millis()).thenReturn(15_000L);
+        assertThat(limiter.tryAcquire("user9@test.com", "10.0.0.1")).isEqualTo(45);
+        assertThat(limiter.tryAcquire("user9@test.com", "10.0.0.2")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should forget an account's failures once it signs in")
+    void shouldResetOnSuccess() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("runner@test.com", "10.0.0.1");
+        }
+
+        limiter.reset("runner@test.com");
+
+        assertThat(limiter.tryAcquire("runner@test.com", "10.0.0.1")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop tracking new keys when full instead of rejecting them")
+    void shouldFailOpenWhenFull() {
+        LoginAttemptLimiter small = new LoginAttemptLimiter(1, 1, Duration.ofSeconds(60), 2, clock, meterRegistry);
+        assertThat(small.tryAcquire("a@test.com", "10.0.0.1")).isZero();
+
+        assertThat(small.tryAcquire("b@test.com", "10.0.0.2")).isZero();
+        assertThat(small.tryAcquire("b@test.com", "10.0.0.2")).isZero();
+        assertThat(small.size()).isEqualTo(2);
+    }
+}
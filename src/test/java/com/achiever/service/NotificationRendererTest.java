@@ -0,0 +1,158 @@
+package com.achiever.service;
+
+import com.achiever.dto.NotificationDTO;
+import com.achiever.entity.Challenge;
+import com.achiever.entity.Notification;
+import com.achiever.entity.NotificationTemplate;
+import com.achiever.entity.NotificationType;
+import com.achiever.entity.User;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.NotificationTemplateRepository;
+import com.achiever.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRendererTest {
+
+    @Mock
+    private NotificationTemplateRepository templateRepository;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private NotificationRenderer renderer;
+
+    private User user;
+    private User actor;
+    private Challenge challenge;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(UUID.randomUUID()).username("runner").build();
+        actor = User.builder().id(UUID.randomUUID()).username("rival").build();
+        challenge = Challenge.builder().id(UUID.randomUUID()).name("May 100k").build();
+
+        lenient().when(templateRepository.findAll()).thenReturn(List.of(
+                template(NotificationType.CHALLENGE_JOINED, "en", "{actor} joined \"{challenge}\"", null),
+                template(NotificationType.CHALLENGE_STARTED, "en", "\"{challenge}\" has started!", "{count} challenges have started!"),
+                template(NotificationType.CHALLENGE_STARTED, "de", "\"{challenge}\" hat begonnen!", null)));
+    }
+
+    @Test
+    @DisplayName("Should fill templates with names fetched once per batch")
+    void shouldRenderWithBatchedLookups() {
+        // Given
+        when(challengeRepository.findNamesByIdIn(any())).thenReturn(List.of(challengeName(challenge.getId(), "May 100k")));
+        when(userRepository.findUsernamesByIdIn(any())).thenReturn(List.of(username(actor.getId(), "rival")));
+
+        // When
+        List<NotificationDTO> rendered = renderer.render(List.of(
+                notification(NotificationType.CHALLENGE_JOINED, challenge, actor, null, null),
+                notification(NotificationType.CHALLENGE_STARTED, challenge, null, null, null)), Locale.ENGLISH);
+
+        // Then
+        assertThat(rendered).extracting(NotificationDTO::message)
+                .containsExactly("rival joined \"May 100k\"", "\"May 100k\" has started!");
+        assertThat(rendered.get(0).challengeName()).isEqualTo("May 100k");
+        verify(challengeRepository, times(1)).findNamesByIdIn(any());
+        verify(userRepository, times(1)).findUsernamesByIdIn(any());
+        verify(templateRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should use the requested language and fall back to English")
+    void shouldFallBackToDefaultLocale() {
+        Notification started = notification(NotificationType.CHALLENGE_STARTED, challenge, null, null, null);
+        Notification joined = notification(NotificationType.CHALLENGE_JOINED, challenge, actor, null, null);
+
+        List<NotificationDTO> rendered = renderer.renderLoaded(List.of(started, joined), Locale.GERMANY);
+
+        assertThat(rendered).extracting(NotificationDTO::message)
+                .containsExactly("\"May 100k\" hat begonnen!", "rival joined \"May 100k\"");
+    }
+
+    @Test
+    @DisplayName("Should use the digest template for coalesced notifications")
+    void shouldRenderDigest() {
+        Notification digest = notification(NotificationType.CHALLENGE_STARTED, null, null, Map.of("count", 3), null);
+
+        List<NotificationDTO> rendered = renderer.renderLoaded(List.of(digest), Locale.ENGLISH);
+
+        assertThat(rendered.get(0).message()).isEqualTo("3 challenges have started!");
+        assertThat(rendered.get(0).challengeId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the stored text of notifications created before templates")
+    void shouldKeepLegacyMessage() {
+        Notification legacy = notification(NotificationType.CHALLENGE_JOINED, challenge, null, null, "Someone joined your challenge");
+
+        List<NotificationDTO> rendered = renderer.renderLoaded(List.of(legacy), Locale.ENGLISH);
+
+        assertThat(rendered.get(0).message()).isEqualTo("Someone joined your challenge");
+        verifyNoInteractions(templateRepository);
+    }
+
+    @Test
+    @DisplayName("Should not substitute placeholders that appear inside names")
+    void shouldNotSubstituteTwice() {
+        challenge.setName("{actor}'s run");
+        Notification joined = notification(NotificationType.CHALLENGE_JOINED, challenge, actor, null, null);
+
+        List<NotificationDTO> rendered = renderer.renderLoaded(List.of(joined), Locale.ENGLISH);
+
+        assertThat(rendered.get(0).message()).isEqualTo("rival joined \"{actor}'s run\"");
+    }
+
+    private Notification notification(NotificationType type, Challenge challenge, User actor,
+                                      Map<String, Object> params, String message) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .type(type)
+                .challenge(challenge)
+                .actor(actor)
+                .params(params)
+                .message(message)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static NotificationTemplate template(NotificationType type, String locale, String template, String digest) {
+        return NotificationTemplate.builder().type(type).locale(locale).template(template).digestTemplate(digest).build();
+    }
+
+    private static ChallengeRepository.ChallengeName challengeName(UUID id, String name) {
+        return new ChallengeRepository.ChallengeName() {
+            public UUID getId() { return id; }
+            public String getName() { return name; }
+        };
+    }
+
+    private static UserRepository.Username username(UUID id, String username) {
+        return new UserRepository.Username() {
+            public UUID getId() { return id; }
+            public String getUsername() { return username; }
+        };
+    }
+}
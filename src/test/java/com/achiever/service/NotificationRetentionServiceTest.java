@@ -0,0 +1,97 @@
+package com.achiever.service;
+
+import com.achiever.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ClusterLockService clusterLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new NotificationRetentionService(notificationRepository, clusterLockService,
+                new UnreadCountCache(60, 100), transactionManager, 90, 365, 100, 5);
+    }
+
+    @Test
+    @DisplayName("Should delete read notifications in batches until a batch comes back short")
+    void shouldPurgeInBatches() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(notificationRepository.deleteReadCreatedBefore(cutoff, 100)).thenReturn(100, 100, 42);
+
+        // When
+        int deleted = retentionService.purgeReadNotifications(cutoff);
+
+        // Then
+        assertThat(deleted).isEqualTo(242);
+        verify(notificationRepository, times(3)).deleteReadCreatedBefore(cutoff, 100);
+    }
+
+    @Test
+    @DisplayName("Should stop after the maximum number of batches per run")
+    void shouldCapBatchesPerRun() {
+        // Given
+        when(notificationRepository.deleteReadCreatedBefore(any(), anyInt())).thenReturn(100);
+
+        // When
+        int deleted = retentionService.purgeReadNotifications(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        // Then
+        assertThat(deleted).isEqualTo(500);
+        verify(notificationRepository, times(5)).deleteReadCreatedBefore(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should delete expired rows of the default partition along with old partitions")
+    void shouldPurgeDefaultPartition() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(notificationRepository.dropPartitionsBefore(cutoff)).thenReturn(0);
+        when(notificationRepository.deleteDefaultPartitionCreatedBefore(cutoff, 100)).thenReturn(100, 7);
+
+        // When
+        int dropped = retentionService.dropExpiredPartitions(cutoff);
+
+        // Then
+        assertThat(dropped).isZero();
+        verify(notificationRepository, times(2)).deleteDefaultPartitionCreatedBefore(cutoff, 100);
+    }
+
+    @Test
+    @DisplayName("Should run retention only on the instance holding the lock")
+    void shouldSkipRetentionWithoutLock() {
+        // Given
+        when(clusterLockService.runExclusively(eq(NotificationRetentionService.MAINTENANCE_LOCK), any()))
+                .thenReturn(false);
+
+        // When
+        retentionService.runRetention();
+
+        // Then
+        verifyNoInteractions(notificationRepository);
+    }
+}
@@ -1,6 +1,9 @@
 package com.achiever.service;
 
+import com.achiever.dto.NotificationDTO;
+import com.achiever.dto.NotificationPageDTO;
 import com.achiever.entity.*;
+import com.achiever.jobs.NotificationFanoutJobHandler;
 import com.achiever.repository.NotificationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,13 +12,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +32,18 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
+    @Mock
+    private BackgroundJobService backgroundJobService;
+
+    @Mock
+    private NotificationRenderer notificationRenderer;
+
+    @Spy
+    private UnreadCountCache unreadCountCache = new UnreadCountCache(60, 100);
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -70,53 +90,38 @@ class NotificationServiceTest {
     @Test
     @DisplayName("Should notify creator when opponent joins")
     void shouldNotifyCreatorWhenOpponentJoins() {
-        // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         notificationService.notifyOpponentJoined(creator, opponent, challenge);
 
         // Then
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        verify(notificationRepository).save(captor.capture());
-
-        Notification saved = captor.getValue();
+        Notification saved = savedNotifications().getFirst();
         assertThat(saved.getUser()).isEqualTo(creator);
         assertThat(saved.getType()).isEqualTo(NotificationType.CHALLENGE_JOINED);
         assertThat(saved.getChallenge()).isEqualTo(challenge);
-        assertThat(saved.getMessage()).contains("opponent");
+        assertThat(saved.getActor()).isEqualTo(opponent);
+        assertThat(saved.getMessage()).isNull();
     }
 
     @Test
     @DisplayName("Should notify both participants when challenge starts")
     void shouldNotifyBothParticipantsWhenChallengeStarts() {
-        // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
-        notificationService.notifyChallengeStarted(challenge);
+        notificationService.notifyChallengesStarted(List.of(challenge));
 
         // Then
-        verify(notificationRepository, times(2)).save(any(Notification.class));
+        assertThat(savedNotifications()).hasSize(2);
+        verify(notificationRepository, never()).save(any(Notification.class));
     }
 
     @Test
     @DisplayName("Should notify both participants when challenge completes with winner")
     void shouldNotifyBothParticipantsWhenChallengeCompletesWithWinner() {
-        // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         notificationService.notifyChallengeCompleted(challenge, creator);
 
         // Then
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        verify(notificationRepository, times(2)).save(captor.capture());
-
-        List<Notification> notifications = captor.getAllValues();
+        List<Notification> notifications = savedNotifications();
+        assertThat(notifications).hasSize(2);
         
         // One should be CHALLENGE_WON for winner
         boolean hasWonNotification = notifications.stream()
@@ -132,18 +137,12 @@ class NotificationServiceTest {
     @Test
     @DisplayName("Should notify both participants when challenge ends in tie")
     void shouldNotifyBothParticipantsWhenChallengeEndsInTie() {
-        // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         notificationService.notifyChallengeCompleted(challenge, null); // null = tie
 
         // Then
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        verify(notificationRepository, times(2)).save(captor.capture());
-
-        List<Notification> notifications = captor.getAllValues();
+        List<Notification> notifications = savedNotifications();
+        assertThat(notifications).hasSize(2);
         
         // Both should be CHALLENGE_TIED
         assertThat(notifications).allMatch(n -> n.getType() == NotificationType.CHALLENGE_TIE);
@@ -152,19 +151,154 @@ class NotificationServiceTest {
     @Test
     @DisplayName("Should notify creator when challenge expires")
     void shouldNotifyCreatorWhenChallengeExpires() {
+        // When
+        notificationService.notifyChallengesExpired(List.of(challenge));
+
+        // Then
+        Notification saved = savedNotifications().getFirst();
+        assertThat(saved.getUser()).isEqualTo(creator);
+        assertThat(saved.getType()).isEqualTo(NotificationType.CHALLENGE_EXPIRED);
+    }
+
+    @Test
+    @DisplayName("Should store one digest per user when a batch has several of the same type")
+    void shouldCoalesceBatchIntoDigest() {
+        // Given
+        Challenge other = Challenge.builder()
+                .id(UUID.randomUUID())
+                .createdBy(creator)
+                .inviteCode("OTHER")
+                .startAt(LocalDate.now())
+                .endAt(LocalDate.now().plusDays(7))
+                .build();
+        other.setParticipants(new ArrayList<>(List.of(
+                ChallengeParticipant.builder().challenge(other).user(creator).build())));
+
+        // When
+        notificationService.notifyChallengesStarted(List.of(challenge, other));
+
+        // Then: creator is in both challenges, opponent only in the first
+        List<Notification> saved = savedNotifications();
+        assertThat(saved).hasSize(2);
+
+        Notification digest = saved.stream().filter(n -> n.getUser().equals(creator)).findFirst().orElseThrow();
+        assertThat(digest.getChallenge()).isNull();
+        assertThat(digest.getParams()).containsEntry("count", 2);
+
+        Notification single = saved.stream().filter(n -> n.getUser().equals(opponent)).findFirst().orElseThrow();
+        assertThat(single.getChallenge()).isEqualTo(challenge);
+        assertThat(single.getParams()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return a cursor when there are more notifications")
+    void shouldReturnCursorForNextPage() {
         // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationRenderer.render(anyList(), eq(Locale.ENGLISH))).thenAnswer(invocation ->
+                invocation.<List<Notification>>getArgument(0).stream()
+                        .map(n -> new NotificationDTO(n.getId(), n.getType(), null, null, "text", n.isRead(), n.getCreatedAt()))
+                        .toList());
+        Instant now = Instant.parse("2025-01-10T12:00:00Z");
+        List<Notification> rows = List.of(
+                notification(now), notification(now.minusSeconds(10)), notification(now.minusSeconds(20)));
+        when(notificationRepository.findLatestByUserId(creator.getId(), Limit.of(3))).thenReturn(rows);
 
         // When
-        notificationService.notifyChallengeExpired(challenge);
+        NotificationPageDTO page = notificationService.getUserNotifications(creator.getId(), null, 2, Locale.ENGLISH);
 
         // Then
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        verify(notificationRepository).save(captor.capture());
+        assertThat(page.notifications()).hasSize(2);
+        assertThat(page.nextCursor()).isNotNull();
 
-        Notification saved = captor.getValue();
-        assertThat(saved.getUser()).isEqualTo(creator);
-        assertThat(saved.getType()).isEqualTo(NotificationType.CHALLENGE_EXPIRED);
+        // And the cursor continues after the last returned notification
+        Notification last = rows.get(1);
+        when(notificationRepository.findByUserIdBefore(eq(creator.getId()), eq(last.getCreatedAt()), eq(last.getId()), any()))
+                .thenReturn(List.of(rows.get(2)));
+
+        NotificationPageDTO next = notificationService.getUserNotifications(creator.getId(), page.nextCursor(), 2, Locale.ENGLISH);
+
+        assertThat(next.notifications()).extracting("id").containsExactly(rows.get(2).getId());
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> notificationService.getUserNotifications(creator.getId(), "not-a-cursor", 20, Locale.ENGLISH))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Should serve unread count from memory after the first load")
+    void shouldCacheUnreadCount() {
+        // Given
+        when(notificationRepository.countByUserIdAndReadFalse(creator.getId())).thenReturn(3L);
+
+        // When
+        long first = notificationService.getUnreadCount(creator.getId());
+        long second = notificationService.getUnreadCount(creator.getId());
+
+        // Then
+        assertThat(first).isEqualTo(3);
+        assertThat(second).isEqualTo(3);
+        verify(notificationRepository, times(1)).countByUserIdAndReadFalse(creator.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep cached unread count in step with new and read notifications")
+    void shouldWriteThroughUnreadCount() {
+        // Given
+        when(notificationRepository.countByUserIdAndReadFalse(creator.getId())).thenReturn(1L);
+        notificationService.getUnreadCount(creator.getId());
+
+        // When
+        notificationService.notifyChallengesExpired(List.of(challenge));
+
+        // Then
+        assertThat(notificationService.getUnreadCount(creator.getId())).isEqualTo(2);
+
+        // When
+        notificationService.markAllAsRead(creator.getId());
+
+        // Then
+        assertThat(notificationService.getUnreadCount(creator.getId())).isZero();
+        verify(notificationRepository, times(1)).countByUserIdAndReadFalse(creator.getId());
+    }
+
+    @Test
+    @DisplayName("Should write a challenge event to the outbox instead of notifying inline")
+    void shouldEnqueueChallengeEvent() {
+        // When
+        notificationService.enqueue(NotificationFanoutJobHandler.Event.CHALLENGE_JOINED, challenge, opponent);
+        notificationService.enqueue(NotificationFanoutJobHandler.Event.CHALLENGE_STARTED, challenge, null);
+
+        // Then
+        verify(backgroundJobService).enqueue(BackgroundJobType.NOTIFICATION_FANOUT,
+                new NotificationFanoutJobHandler.Payload(NotificationFanoutJobHandler.Event.CHALLENGE_JOINED,
+                        List.of(challenge.getId()), opponent.getId()), null);
+        // Status changes can be detected by concurrent requests, so they are deduplicated
+        verify(backgroundJobService).enqueue(BackgroundJobType.NOTIFICATION_FANOUT,
+                new NotificationFanoutJobHandler.Payload(NotificationFanoutJobHandler.Event.CHALLENGE_STARTED,
+                        List.of(challenge.getId())), "notify:CHALLENGE_STARTED:" + challenge.getId());
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Notification> savedNotifications() {
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(captor.capture());
+        verify(notificationStreamService).publish(captor.getValue());
+        return captor.getValue();
+    }
+
+    private Notification notification(Instant createdAt) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .user(creator)
+                .type(NotificationType.CHALLENGE_STARTED)
+                .message("started")
+                .createdAt(createdAt)
+                .build();
     }
 }
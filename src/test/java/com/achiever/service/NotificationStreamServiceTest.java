@@ -0,0 +1,127 @@
+package com.achiever.service;
+
+import com.achiever.entity.Notification;
+import com.achiever.entity.NotificationType;
+import com.achiever.entity.User;
+import com.achiever.repository.ChallengeRepository;
+import com.achiever.repository.NotificationRepository;
+import com.achiever.repository.NotificationTemplateRepository;
+import com.achiever.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationTemplateRepository templateRepository;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private NotificationRenderer notificationRenderer;
+
+    // Same date handling as the ObjectMapper Spring Boot configures
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        notificationRenderer = new NotificationRenderer(templateRepository, challengeRepository, userRepository);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("runner")
+                .email("runner@test.com")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should publish events through Postgres NOTIFY in a form the listener can read back")
+    void shouldPublishThroughNotify() throws Exception {
+        // Given
+        NotificationStreamService streamService = new NotificationStreamService(notificationRepository, notificationRenderer, objectMapper, true, 30, 8);
+        Notification notification = notification(Instant.parse("2025-03-01T10:15:30Z"));
+
+        // When
+        streamService.publish(List.of(notification));
+
+        // Then
+        ArgumentCaptor<String[]> payloads = ArgumentCaptor.captor();
+        verify(notificationRepository).publishEvents(eq(NotificationStreamService.CHANNEL), payloads.capture());
+
+        NotificationStreamService.NotificationEvent event =
+                objectMapper.readValue(payloads.getValue()[0], NotificationStreamService.NotificationEvent.class);
+        assertThat(event.userId()).isEqualTo(user.getId());
+        assertThat(event.notification().id()).isEqualTo(notification.getId());
+        assertThat(event.notification().createdAt()).isEqualTo(notification.getCreatedAt());
+        assertThat(NotificationService.Cursor.decode(event.id()))
+                .isEqualTo(new NotificationService.Cursor(notification.getCreatedAt(), notification.getId()));
+    }
+
+    @Test
+    @DisplayName("Should replay notifications after Last-Event-ID when a client reconnects")
+    void shouldReplayAfterLastEventId() {
+        // Given
+        NotificationStreamService streamService = new NotificationStreamService(notificationRepository, notificationRenderer, objectMapper, false, 30, 8);
+        Notification seen = notification(Instant.parse("2025-03-01T10:00:00Z"));
+        when(notificationRepository.findByUserIdAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(notification(Instant.parse("2025-03-01T11:00:00Z"))));
+
+        // When
+        streamService.subscribe(user.getId(), NotificationService.Cursor.of(seen).encode());
+
+        // Then
+        verify(notificationRepository, timeout(2000)).findByUserIdAfter(user.getId(), seen.getCreatedAt(), seen.getId(),
+                Limit.of(NotificationStreamService.REPLAY_LIMIT + 1));
+        streamService.disconnectAll();
+    }
+
+    @Test
+    @DisplayName("Should start from live events when Last-Event-ID is missing or invalid")
+    void shouldIgnoreInvalidLastEventId() {
+        // Given
+        NotificationStreamService streamService = new NotificationStreamService(notificationRepository, notificationRenderer, objectMapper, false, 30, 8);
+
+        // When
+        streamService.subscribe(user.getId(), "garbage");
+        streamService.subscribe(user.getId(), null);
+
+        // Then
+        verify(notificationRepository, after(200).never()).findByUserIdAfter(any(), any(), any(), any());
+        streamService.disconnectAll();
+    }
+
+    private Notification notification(Instant createdAt) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .type(NotificationType.CHALLENGE_STARTED)
+                .message("started")
+                .createdAt(createdAt)
+                .build();
+    }
+}
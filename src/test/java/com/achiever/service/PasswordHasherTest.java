@@ -0,0 +1,87 @@
+package com.achiever.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash on the pool and record the time taken")
+    void shouldHashOnPool() {
+        hasher = new PasswordHasher(passwordEncoder, meterRegistry, 1, 2, 5000);
+        when(passwordEncoder.encode("secret")).thenAnswer(invocation -> {
+            assertThat(Thread.currentThread().getName()).startsWith("password-hash-");
+            return "hash";
+        });
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        assertThat(hasher.encode("secret")).isEqualTo("hash");
+        assertThat(hasher.matches("secret", "hash")).isTrue();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject instead of queueing once the pool and queue are full")
+    void shouldRejectWhenQueueFull() throws Exception {
+        hasher = new PasswordHasher(passwordEncoder, meterRegistry, 1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> hasher.matches("a", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> hasher.matches("b", "hash"));
+        while (meterRegistry.get("auth.password.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> hasher.matches("c", "hash")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("auth.password.rejected").tag("reason", "busy").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should give up on a hash that waits past the timeout")
+    void shouldTimeOut() {
+        hasher = new PasswordHasher(passwordEncoder, meterRegistry, 1, 1, 50);
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+
+        assertThatThrownBy(() -> hasher.encode("secret")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("auth.password.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.achiever.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UnreadCountCacheTest {
+
+    private Clock clock;
+    private UnreadCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        cache = new UnreadCountCache(Duration.ofSeconds(60), 2, clock);
+    }
+
+    @Test
+    @DisplayName("Should reload from the loader once an entry expires")
+    void shouldReloadAfterTtl() {
+        UUID userId = UUID.randomUUID();
+        cache.get(userId, () -> 1);
+        cache.increment(userId);
+
+        assertThat(cache.get(userId, () -> 99)).isEqualTo(2);
+
+        when(clock.millis()).thenReturn(60_000L);
+        assertThat(cache.get(userId, () -> 5)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should not count notifications for users that are not cached")
+    void shouldIgnoreIncrementOnMiss() {
+        UUID userId = UUID.randomUUID();
+        cache.increment(userId);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(userId, () -> 4)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should stay within the maximum size, evicting expired entries first")
+    void shouldBoundSize() {
+        cache.get(UUID.randomUUID(), () -> 1);
+        cache.get(UUID.randomUUID(), () -> 1);
+        cache.get(UUID.randomUUID(), () -> 1);
+        assertThat(cache.size()).isEqualTo(2);
+
+        when(clock.millis()).thenReturn(60_000L);
+        UUID userId = UUID.randomUUID();
+        cache.get(userId, () -> 7);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(userId, () -> 0)).isEqualTo(7);
+    }
+}
@@ -0,0 +1,91 @@
+package com.achiever.service;
+
+import com.achiever.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPrincipalCacheTest {
+
+    private Clock clock;
+    private UserPrincipalCache cache;
+    private User user;
+    private AtomicInteger loads;
+    private Function<UUID, Optional<User>> loader;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        cache = new UserPrincipalCache(Duration.ofSeconds(300), 2, clock);
+
+        user = User.builder().id(UUID.randomUUID()).username("runner").email("runner@test.com").build();
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return id.equals(user.getId()) ? Optional.of(user) : Optional.empty();
+        };
+    }
+
+    @Test
+    @DisplayName("Should only load the user on a miss or after the TTL")
+    void shouldLoadOnMissAndAfterTtl() {
+        cache.get(user.getId(), loader);
+        cache.get(user.getId(), loader);
+        assertThat(loads).hasValue(1);
+
+        when(clock.millis()).thenReturn(300_000L);
+        cache.get(user.getId(), loader);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so one request cannot change another's principal")
+    void shouldReturnCopies() {
+        cache.get(user.getId(), loader);
+
+        User first = cache.get(user.getId(), loader).orElseThrow();
+        first.setTimezone("Europe/Berlin");
+        User second = cache.get(user.getId(), loader).orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo(user.getId());
+        assertThat(second.getTimezone()).isEqualTo(user.getTimezone());
+    }
+
+    @Test
+    @DisplayName("Should reload after the user is invalidated")
+    void shouldReloadAfterInvalidate() {
+        cache.get(user.getId(), loader);
+        user.setPasswordHash("new-hash");
+
+        cache.invalidate(user.getId());
+
+        assertThat(cache.get(user.getId(), loader)).get().extracting(User::getPasswordHash).isEqualTo("new-hash");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown users or grow past the max size")
+    void shouldNotCacheUnknownUsersOrExceedMaxSize() {
+        assertThat(cache.get(UUID.randomUUID(), loader)).isEmpty();
+        assertThat(cache.size()).isZero();
+
+        for (int i = 0; i < 3; i++) {
+            UUID id = UUID.randomUUID();
+            cache.get(id, ignored -> Optional.of(User.builder().id(id).build()));
+        }
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,26 @@
+package com.achiever.strava;
+
+import com.achiever.entity.SportType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StravaSyncServiceTest {
+
+    @Test
+    @DisplayName("Should store Strava sport variants under the challenge sport's code")
+    void shouldMapSportVariantsToCodes() {
+        assertThat(StravaSyncService.mapSportType("TrailRun")).isEqualTo(SportType.RUN.code());
+        assertThat(StravaSyncService.mapSportType("EBikeRide")).isEqualTo(SportType.RIDE.code());
+        assertThat(StravaSyncService.mapSportType("Swim")).isEqualTo(SportType.SWIM.code());
+        assertThat(StravaSyncService.mapSportType("Hike")).isEqualTo(SportType.WALK.code());
+    }
+
+    @Test
+    @DisplayName("Should store other and missing sport types as OTHER")
+    void shouldMapOtherSports() {
+        assertThat(StravaSyncService.mapSportType("WeightTraining")).isEqualTo(SportType.OTHER_CODE);
+        assertThat(StravaSyncService.mapSportType(null)).isEqualTo(SportType.OTHER_CODE);
+    }
+}